@@ -0,0 +1,22 @@
+package com.github.ignatij.benchmark;
+
+/**
+ * The shapes of the synthetic project graphs the benchmarks run on.
+ */
+public enum GraphShape {
+
+    /**
+     * Every module depends on a few randomly picked modules declared before it.
+     */
+    RANDOM_DAG,
+
+    /**
+     * The modules are split into layers, where every module depends on a few modules of the layer below it.
+     */
+    LAYERED,
+
+    /**
+     * Every module depends on a couple of the few hub modules, which end up with a very high afferent coupling.
+     */
+    HUB
+}
@@ -0,0 +1,144 @@
+package com.github.ignatij.benchmark;
+
+import com.github.ignatij.acyclic_dependencies.AcyclicDependenciesChecker;
+import com.github.ignatij.graph.ModuleDescriptor;
+import com.github.ignatij.graph.ModuleGraph;
+import com.github.ignatij.metric_engine.MetricEngine;
+import com.github.ignatij.stable_abstractions.StableAbstractionsChecker;
+import com.github.ignatij.stable_dependencies.StableDependenciesChecker;
+import com.github.ignatij.statistic.DistanceStatistics;
+import com.github.ignatij.statistic.Point;
+import com.github.ignatij.statistic.StatisticUtil;
+import com.github.ignatij.violation.ViolationCheckResult;
+import com.github.ignatij.violation.ViolationChecker;
+import com.github.ignatij.violation.exception.StableAbstractionsPrincipleViolation;
+import com.github.ignatij.violation.exception.StableDependenciesPrincipleViolation;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the steps of the analysis that run after the project graph was created and the abstraction levels
+ * were calculated, on synthetic project graphs of different shapes and sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"RANDOM_DAG", "LAYERED", "HUB"})
+    private GraphShape shape;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int size;
+
+    private Map<MavenProject, List<String>> projectGraph;
+    private ModuleGraph moduleGraph;
+    private double[] instability;
+    private double[] abstraction;
+    private List<Point> points;
+    private MetricEngine engine;
+    private String firstModule;
+    private String lastModule;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticGraph graph = SyntheticGraph.create(shape, size, SEED);
+        projectGraph = graph.getProjectGraph();
+        moduleGraph = ModuleGraph.of(projectGraph);
+        abstraction = graph.getAbstraction().values().stream().mapToDouble(Double::doubleValue).toArray();
+        instability = new StableDependenciesChecker(moduleGraph).checkDependencies();
+        points = createPoints();
+        engine = MetricEngine.of(moduleGraph);
+        firstModule = moduleGraph.getModule(0).getName();
+        lastModule = moduleGraph.getModule(moduleGraph.size() - 1).getName();
+    }
+
+    @Benchmark
+    public ModuleGraph graph() {
+        return ModuleGraph.of(projectGraph);
+    }
+
+    @Benchmark
+    public double[] instability() {
+        return new StableDependenciesChecker(moduleGraph).checkDependencies();
+    }
+
+    @Benchmark
+    public ViolationCheckResult stableDependenciesViolations() {
+        return new ViolationChecker(StableDependenciesPrincipleViolation.class)
+                .findViolations(moduleGraph, instability, StableDependenciesChecker.STABLE_DEPENDENCIES_VIOLATION);
+    }
+
+    @Benchmark
+    public ViolationCheckResult stableAbstractionsViolations() {
+        return new ViolationChecker(StableAbstractionsPrincipleViolation.class)
+                .findViolations(moduleGraph, abstraction, StableAbstractionsChecker.STABLE_ABSTRACTIONS_VIOLATION);
+    }
+
+    @Benchmark
+    public List<List<ModuleDescriptor>> cycles() {
+        return new AcyclicDependenciesChecker(moduleGraph).findCycles();
+    }
+
+    /**
+     * Adds a dependency of the first module on the last one and removes it again, updating the metrics and
+     * the violations of both modules each time. The generated modules only depend on the modules before them,
+     * so the dependency never exists in the graph.
+     */
+    @Benchmark
+    public double engineDelta() {
+        engine.addDependency(firstModule, lastModule);
+        engine.removeDependency(firstModule, lastModule);
+        return engine.getInstability(firstModule);
+    }
+
+    @Benchmark
+    public List<Point> points() {
+        return createPoints();
+    }
+
+    @Benchmark
+    public void statistics(Blackhole blackhole) {
+        blackhole.consume(StatisticUtil.mean(points));
+        blackhole.consume(StatisticUtil.variance(points));
+        blackhole.consume(StatisticUtil.standardDeviation(points));
+    }
+
+    @Benchmark
+    public DistanceStatistics summary() {
+        return StatisticUtil.summarize(points);
+    }
+
+    /**
+     * Same as the points the plugin writes to the output file.
+     */
+    private List<Point> createPoints() {
+        List<Point> points = new ArrayList<>(moduleGraph.size());
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            points.add(new Point(moduleGraph.getModule(i).getName(), instability[i], abstraction[i]));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.ignatij.benchmark;
+
+import org.apache.maven.project.MavenProject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates project graphs of a given shape and size, in the same form the plugin creates them out of the modules
+ * of a multi-module project. The graphs are acyclic and reproducible for the same seed.
+ */
+public final class SyntheticGraph {
+
+    private static final String GROUP_ID = "com.github.ignatij.benchmark";
+    private static final int MAX_RANDOM_DEPENDENCIES = 8;
+    private static final int LAYER_DEPENDENCIES = 3;
+    private static final int HUB_DEPENDENCIES = 2;
+
+    private final Map<MavenProject, List<String>> projectGraph;
+    private final Map<MavenProject, Double> abstraction;
+
+    private SyntheticGraph(Map<MavenProject, List<String>> projectGraph, Map<MavenProject, Double> abstraction) {
+        this.projectGraph = projectGraph;
+        this.abstraction = abstraction;
+    }
+
+    public static SyntheticGraph create(GraphShape shape, int size, long seed) {
+        Random random = new Random(seed);
+        List<MavenProject> modules = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            modules.add(createModule(i));
+        }
+
+        Map<MavenProject, List<String>> projectGraph = new LinkedHashMap<>();
+        Map<MavenProject, Double> abstraction = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Set<Integer> dependencies = new LinkedHashSet<>();
+            switch (shape) {
+                case RANDOM_DAG:
+                    addRandomDependencies(dependencies, random, 0, i, random.nextInt(MAX_RANDOM_DEPENDENCIES + 1));
+                    break;
+                case LAYERED:
+                    int layerWidth = Math.max(1, (int) Math.sqrt(size));
+                    int layerStart = i / layerWidth * layerWidth;
+                    addRandomDependencies(dependencies, random, Math.max(0, layerStart - layerWidth), layerStart, LAYER_DEPENDENCIES);
+                    break;
+                case HUB:
+                    int hubs = Math.max(1, size / 100);
+                    addRandomDependencies(dependencies, random, 0, Math.min(i, hubs), HUB_DEPENDENCIES);
+                    addRandomDependencies(dependencies, random, Math.min(i, hubs), i, 1);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown graph shape " + shape);
+            }
+            List<String> artifactIds = new ArrayList<>(dependencies.size());
+            for (Integer dependency : dependencies) {
+                artifactIds.add(modules.get(dependency).getArtifactId());
+            }
+            projectGraph.put(modules.get(i), artifactIds);
+            abstraction.put(modules.get(i), random.nextDouble());
+        }
+        return new SyntheticGraph(projectGraph, abstraction);
+    }
+
+    public Map<MavenProject, List<String>> getProjectGraph() {
+        return projectGraph;
+    }
+
+    /**
+     * @return a random abstraction level per module, standing in for the scan of the source trees
+     */
+    public Map<MavenProject, Double> getAbstraction() {
+        return abstraction;
+    }
+
+    /**
+     * Adds up to {@code count} distinct modules out of {@code [from, to)}.
+     */
+    private static void addRandomDependencies(Set<Integer> dependencies, Random random, int from, int to, int count) {
+        int candidates = to - from;
+        for (int i = 0; i < Math.min(count, candidates); i++) {
+            dependencies.add(from + random.nextInt(candidates));
+        }
+    }
+
+    private static MavenProject createModule(int index) {
+        MavenProject module = new MavenProject();
+        module.setGroupId(GROUP_ID);
+        module.setArtifactId("module" + index);
+        module.setVersion("1.0");
+        module.setName("module" + index);
+        return module;
+    }
+}
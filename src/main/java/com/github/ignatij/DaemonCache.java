@@ -0,0 +1,138 @@
+package com.github.ignatij;
+
+import com.github.ignatij.fingerprint.SourceStamp;
+import com.github.ignatij.graph.ModuleGraph;
+import com.github.ignatij.stable_abstractions.ClassificationCache;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The results kept in memory between the builds running in the same JVM, such as a Maven daemon or an embedded Maven,
+ * for as long as the classes of the plugin stay loaded. The results are kept per reactor root, i.e. the POM file
+ * of the project the plugin runs on, and every result is only reused while the stamps of its inputs are unchanged.
+ * <p>
+ * The reactors are softly referenced, so they are released before the JVM runs out of memory,
+ * and only the most recently used reactors are kept.
+ */
+class DaemonCache {
+    private static final Map<String, SoftReference<Reactor>> REACTORS = new LinkedHashMap<>(16, 0.75f, true);
+
+    private DaemonCache() {
+    }
+
+    /**
+     * @param reactorRoot the absolute path of the POM file of the project
+     * @param maxReactors the number of reactors kept, where the least recently used reactors are evicted first
+     * @return the results kept for the reactor, which are empty for a reactor not seen before
+     */
+    static Reactor of(String reactorRoot, int maxReactors) {
+        synchronized (REACTORS) {
+            SoftReference<Reactor> reference = REACTORS.get(reactorRoot);
+            Reactor reactor = reference != null ? reference.get() : null;
+            if (reactor == null) {
+                reactor = new Reactor();
+                REACTORS.put(reactorRoot, new SoftReference<>(reactor));
+            }
+            Iterator<SoftReference<Reactor>> reactors = REACTORS.values().iterator();
+            int size = REACTORS.size();
+            while (reactors.hasNext()) {
+                SoftReference<Reactor> next = reactors.next();
+                if (size > Math.max(maxReactors, 1) || next.get() == null) {
+                    reactors.remove();
+                    size--;
+                }
+            }
+            return reactor;
+        }
+    }
+
+    /**
+     * The results kept for a reactor. The builds of the same reactor running concurrently share it,
+     * where the results of the build that finishes last are kept.
+     */
+    static class Reactor {
+        private volatile StampedModuleGraph moduleGraph;
+        private final Map<String, ClassificationCache> classifications = new ConcurrentHashMap<>();
+        private final Map<String, StampedAbstractionLevel> abstractionLevels = new ConcurrentHashMap<>();
+
+        Reactor() {
+        }
+
+        /**
+         * @param settings the settings the module models were built with
+         * @return the module graph, if it was created with the same settings and none of its POM files changed since
+         */
+        Optional<ModuleGraph> getModuleGraph(String settings) throws IOException {
+            StampedModuleGraph stamped = moduleGraph;
+            if (stamped == null || !stamped.settings.equals(settings)) {
+                return Optional.empty();
+            }
+            for (Map.Entry<String, String> pomFile : stamped.pomFiles.entrySet()) {
+                if (!SourceStamp.ofAttributes(Paths.get(pomFile.getKey())).equals(pomFile.getValue())) {
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(stamped.moduleGraph);
+        }
+
+        /**
+         * @param pomFiles the stamp of every POM file the module graph was created from, keyed by its path
+         */
+        void putModuleGraph(String settings, Map<String, String> pomFiles, ModuleGraph moduleGraph) {
+            this.moduleGraph = new StampedModuleGraph(settings, pomFiles, moduleGraph);
+        }
+
+        /**
+         * @return the classification of the files scanned with the abstraction source by the previous build
+         */
+        Optional<ClassificationCache> getClassifications(String abstractionSource) {
+            return Optional.ofNullable(classifications.get(abstractionSource));
+        }
+
+        void putClassifications(String abstractionSource, ClassificationCache classificationCache) {
+            classifications.put(abstractionSource, classificationCache);
+        }
+
+        /**
+         * @param sourceStamp the stamp of the files scanned for the module
+         * @return the abstraction level of the module, if its files did not change since it was calculated
+         */
+        Optional<Double> getAbstractionLevel(String pomFile, String abstractionSource, String sourceStamp) {
+            StampedAbstractionLevel stamped = abstractionLevels.get(pomFile + ";" + abstractionSource);
+            return stamped != null && stamped.sourceStamp.equals(sourceStamp) ? Optional.of(stamped.abstractionLevel) : Optional.empty();
+        }
+
+        void putAbstractionLevel(String pomFile, String abstractionSource, String sourceStamp, double abstractionLevel) {
+            abstractionLevels.put(pomFile + ";" + abstractionSource, new StampedAbstractionLevel(sourceStamp, abstractionLevel));
+        }
+    }
+
+    private static final class StampedModuleGraph {
+        private final String settings;
+        private final Map<String, String> pomFiles;
+        private final ModuleGraph moduleGraph;
+
+        private StampedModuleGraph(String settings, Map<String, String> pomFiles, ModuleGraph moduleGraph) {
+            this.settings = settings;
+            this.pomFiles = pomFiles;
+            this.moduleGraph = moduleGraph;
+        }
+    }
+
+    private static final class StampedAbstractionLevel {
+        private final String sourceStamp;
+        private final double abstractionLevel;
+
+        private StampedAbstractionLevel(String sourceStamp, double abstractionLevel) {
+            this.sourceStamp = sourceStamp;
+            this.abstractionLevel = abstractionLevel;
+        }
+    }
+}
@@ -19,23 +19,66 @@ package com.github.ignatij;
  * under the License.
  */
 
+import com.github.ignatij.acyclic_dependencies.AcyclicDependenciesChecker;
+import com.github.ignatij.fingerprint.InputFingerprint;
+import com.github.ignatij.fingerprint.InputFingerprint.Violations;
+import com.github.ignatij.fingerprint.ModuleFingerprint;
+import com.github.ignatij.fingerprint.SourceStamp;
+import com.github.ignatij.git.GitRepository;
+import com.github.ignatij.graph.ModuleDescriptor;
+import com.github.ignatij.graph.ModuleGraph;
+import com.github.ignatij.history.MetricsHistory;
+import com.github.ignatij.package_metrics.PackageGraph;
+import com.github.ignatij.package_metrics.PackageMetricsAnalyzer;
+import com.github.ignatij.profile.ExecutionProfile;
+import com.github.ignatij.profile.Phase;
+import com.github.ignatij.profile.PhaseTimer;
+import com.github.ignatij.profile.ReportWriteEvent;
+import com.github.ignatij.stable_abstractions.AbstractionSource;
+import com.github.ignatij.stable_abstractions.ClassificationCache;
 import com.github.ignatij.stable_abstractions.StableAbstractionsChecker;
+import com.github.ignatij.stable_dependencies.ClassUsage;
+import com.github.ignatij.stable_dependencies.ClassUsageAnalyzer;
+import com.github.ignatij.stable_dependencies.ComponentCoupling;
 import com.github.ignatij.stable_dependencies.StableDependenciesChecker;
 import com.github.ignatij.statistic.Point;
+import com.github.ignatij.statistic.StatisticUtil;
+import com.github.ignatij.violation.Violation;
+import com.github.ignatij.violation.ViolationCheckResult;
 import com.github.ignatij.violation.ViolationChecker;
+import com.github.ignatij.violation.exception.AcyclicDependenciesPrincipleViolation;
 import com.github.ignatij.violation.exception.StableAbstractionsPrincipleViolation;
 import com.github.ignatij.violation.exception.StableDependenciesPrincipleViolation;
-import com.github.ignatij.writer.MetricsFileWriter;
+import com.github.ignatij.writer.ReportFormat;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.*;
 import org.apache.maven.project.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import static com.github.ignatij.stable_abstractions.StableAbstractionsChecker.STABLE_ABSTRACTIONS_VIOLATION;
@@ -50,11 +93,18 @@ import static com.github.ignatij.stable_dependencies.StableDependenciesChecker.S
 @Mojo(name = "check", defaultPhase = LifecyclePhase.COMPILE, requiresDependencyResolution = ResolutionScope.RUNTIME)
 public class DependencyManagementMetricsMojo extends AbstractMojo {
 
+    private static final String POM_FILE_NAME = "pom.xml";
+    private static final String FINGERPRINT_FILE_EXTENSION = ".fingerprint";
+    private static final String BASE_FINGERPRINT_FILE_EXTENSION = ".base.fingerprint";
+
     @Parameter(defaultValue = "${project}", required = true, readonly = true)
     MavenProject project;
 
     @Parameter(defaultValue = "${session}", readonly = true, required = true)
-    private MavenSession session;
+    MavenSession session;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor plugin;
 
     @Parameter(defaultValue = "${failOnViolation}", readonly = true)
     private Boolean failOnViolation = false;
@@ -62,21 +112,186 @@ public class DependencyManagementMetricsMojo extends AbstractMojo {
     @Parameter(property = "output.file", defaultValue = "${project.build.directory}/dependency-metrics-result.txt", readonly = true)
     private File outputFile;
 
+    /**
+     * The formats of the report: {@code text}, {@code json} and/or {@code csv}. The text report is written to the
+     * {@link #outputFile}, the other formats next to it with the extension of the format. Several formats are
+     * written concurrently.
+     */
+    @Parameter(property = "formats", defaultValue = "text")
+    private List<String> formats = Collections.singletonList("text");
+
+    /**
+     * Builds the module models and scans the source trees concurrently on a worker pool of {@link #threads} threads.
+     */
+    @Parameter(property = "parallel", defaultValue = "false")
+    private Boolean parallel = false;
+
+    /**
+     * The number of worker threads used in parallel mode, defaults to the number of available processors.
+     */
+    @Parameter(property = "threads")
+    private Integer threads;
+
+    /**
+     * Creates the project graph out of the projects already loaded in the reactor, instead of building every
+     * module model again. Falls back to building the module models when the modules are not part of the reactor.
+     */
+    @Parameter(property = "reuseReactorProjects", defaultValue = "true")
+    Boolean reuseReactorProjects = true;
+
+    /**
+     * Whether the abstraction level is calculated from the {@code source} files or the compiled classes ({@code bytecode}).
+     * Reading the compiled classes is faster and not fooled by the keywords appearing in comments,
+     * but requires the modules to be compiled.
+     */
+    @Parameter(property = "abstractionSource", defaultValue = "source")
+    private String abstractionSource = "source";
+
+    /**
+     * Keeps the classification of the scanned files between runs in the {@link #cacheFile},
+     * so only the files that changed since the last run are read.
+     */
+    @Parameter(property = "cache", defaultValue = "true")
+    private Boolean cache = true;
+
+    @Parameter(property = "cache.file", defaultValue = "${project.build.directory}/dependency-metrics-cache.bin")
+    private File cacheFile;
+
+    /**
+     * Keeps a fingerprint of the inputs next to the {@link #outputFile}: the module POM files and the stamps of the
+     * scanned files. When nothing changed since the last run the analysis is skipped, and when only some modules
+     * changed only those modules are scanned again.
+     */
+    @Parameter(property = "incremental", defaultValue = "false")
+    private Boolean incremental = false;
+
+    /**
+     * Analyses the modules once per session: the execution on the top-level aggregator analyses all of its modules,
+     * and the executions on the nested aggregators are skipped. The module models and the abstraction levels are
+     * shared between the executions within the session.
+     */
+    @Parameter(property = "aggregate", defaultValue = "false")
+    Boolean aggregate = false;
+
+    /**
+     * Writes the time spent in every phase of the analysis and on every module, together with the number of files
+     * visited, the bytes read and the cache hits per module, to the {@link #profileFile}.
+     */
+    @Parameter(property = "profile", defaultValue = "false")
+    private Boolean profile = false;
+
+    @Parameter(property = "profile.file", defaultValue = "${project.build.directory}/dependency-metrics-profile.json")
+    private File profileFile;
+
+    /**
+     * Calculates the metrics for every package of the compiled classes as well, out of the classes every class refers to
+     * in its constant pool, and writes them to the {@link #packageOutputFile} in the same formats as the module report.
+     * Requires the modules to be compiled.
+     */
+    @Parameter(property = "packageMetrics", defaultValue = "false")
+    private Boolean packageMetrics = false;
+
+    @Parameter(property = "package.output.file", defaultValue = "${project.build.directory}/dependency-metrics-packages.txt")
+    private File packageOutputFile;
+
+    /**
+     * Weights every dependency between the modules by the number of distinct classes used across it, read from the
+     * compiled classes, instead of counting it once when calculating the instability. The declared dependencies without
+     * any class used are logged as candidates for removal. Requires the modules to be compiled.
+     */
+    @Parameter(property = "weightedInstability", defaultValue = "false")
+    private Boolean weightedInstability = false;
+
+    /**
+     * Keeps the module graph, the classification of the scanned files and the abstraction levels of the modules in
+     * memory between the builds running in the same JVM, e.g. when building with the Maven daemon. A later build
+     * only builds the module models again when a POM file changed, and only scans the modules whose files changed.
+     */
+    @Parameter(property = "daemonCache", defaultValue = "false")
+    private Boolean daemonCache = false;
+
+    /**
+     * The number of reactors kept in memory when using the {@link #daemonCache}.
+     */
+    @Parameter(property = "daemonCache.size", defaultValue = "8")
+    private Integer daemonCacheSize = 8;
+
+    /**
+     * Only scans the modules with files changed since this git revision, e.g. {@code origin/main}, and reuses the
+     * abstraction levels of the other modules as of that revision. The changed files are found by comparing the work
+     * tree with the revision in the local repository. The abstraction levels of the modules without changes are kept
+     * next to the {@link #outputFile}, together with the id of the commit, so an earlier run scoped by the same commit
+     * with the same settings provides them, e.g. a build of the base branch with {@code -DgitBase=HEAD} restored from
+     * a cache.
+     */
+    @Parameter(property = "gitBase")
+    private String gitBase;
+
+    /**
+     * Appends the metrics of every module and the statistics of the distance from the main sequence to this file
+     * after every run, including the ones skipped by the {@link #incremental} or the {@link #aggregate} mode,
+     * for the {@code history} goal to show their trend. A nested aggregator only appends when the enclosing
+     * aggregator did not append to the same file in the session. The file should be kept outside the
+     * build directory, e.g. in {@code ${project.basedir}/.metrics/history.bin}, so a clean build does not delete it.
+     */
+    @Parameter(property = "history.file")
+    File historyFile;
+
     @Component
     private ProjectBuilder projectBuilder;
 
-    private Map<MavenProject, List<String>> projectGraph;
-    private Map<MavenProject, Double> instabilityPerComponent;
-    private Map<MavenProject, Double> abstractionPerComponent;
+    ModuleGraph moduleGraph;
+    private ComponentCoupling[] couplingPerComponent;
+    private double[] instabilityPerComponent;
+    private List<List<String>> cycles;
+    double[] abstractionPerComponent;
+    private String[] sourceStamps;
+    // the POM files of the modules with files changed since the git base revision, or null when not scoped by a revision
+    private Set<String> modulesChangedSinceGitBase;
+    private String gitBaseCommit;
+    // the abstraction levels of the modules as of the git base revision, from an earlier run scoped by the same commit
+    private InputFingerprint baseFingerprint;
+    private ExecutionProfile executionProfile;
+    DaemonCache.Reactor daemonReactor;
+    // the abstraction levels still valid while watching the modules, keyed by the POM file of the module
+    Map<String, Double> knownAbstractionLevels = Collections.emptyMap();
+    private PackageGraph packageGraph;
+    private List<List<String>> packageCycles;
 
 
     public void execute() throws MojoExecutionException {
         try {
             if (!project.getModules().isEmpty()) {
-                initProjectGraphAndCalculateMetrics();
-                writeMetricsToFile();
-                if (failOnViolation) {
-                    checkViolations();
+                if (aggregate && SessionCache.of(session).getAnalysedPomFiles().contains(getPomFile(project))) {
+                    getLog().info("The modules were already analysed by the execution on an enclosing aggregator, skipping the analysis");
+                    if (historyFile != null && !SessionCache.of(session).getHistoryFiles().contains(historyFile.getAbsolutePath())) {
+                        appendToHistoryWithoutAnalysis(null);
+                    }
+                    return;
+                }
+                InputFingerprint previousFingerprint = incremental ? InputFingerprint.load(getFingerprintFile()).orElse(null) : null;
+                if (incremental && previousFingerprint != null && isUpToDate(previousFingerprint)) {
+                    getLog().info("The modules and their sources did not change since the last run, skipping the analysis");
+                    if (aggregate) {
+                        previousFingerprint.getPomFiles().stream()
+                                .filter(this::isInProjectDirectory)
+                                .forEach(SessionCache.of(session).getAnalysedPomFiles()::add);
+                    }
+                    if (historyFile != null) {
+                        appendToHistoryWithoutAnalysis(previousFingerprint);
+                    }
+                    return;
+                }
+                daemonReactor = daemonCache ? DaemonCache.of(getPomFile(project), daemonCacheSize) : null;
+                Optional<MojoExecutionException> violation = analyse(previousFingerprint);
+                if (incremental) {
+                    saveFingerprint(!failOnViolation ? Violations.NOT_CHECKED : violation.isPresent() ? Violations.FOUND : Violations.NONE);
+                }
+                if (modulesChangedSinceGitBase != null) {
+                    saveBaseFingerprint();
+                }
+                if (violation.isPresent()) {
+                    throw violation.get();
                 }
             }
         } catch (ProjectBuildingException e) {
@@ -86,33 +301,618 @@ public class DependencyManagementMetricsMojo extends AbstractMojo {
         }
     }
 
-    private void initProjectGraphAndCalculateMetrics() throws ProjectBuildingException, IOException {
-        ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
-        projectGraph = new ProjectGraphCreator(buildingRequest, projectBuilder).createProjectGraph(project);
-        instabilityPerComponent = new StableDependenciesChecker(projectGraph).checkDependencies();
-        abstractionPerComponent = new StableAbstractionsChecker(projectGraph).calculateAbstractionLevel();
+    /**
+     * Calculates the metrics, writes the report and checks the violations when enabled.
+     *
+     * @return the violation failing the build, if any
+     */
+    Optional<MojoExecutionException> analyse(InputFingerprint previousFingerprint) throws MojoExecutionException, ProjectBuildingException, IOException {
+        executionProfile = new ExecutionProfile();
+        initProjectGraphAndCalculateMetrics(previousFingerprint);
+        if (packageMetrics) {
+            try (PhaseTimer ignored = executionProfile.startPhase(Phase.PACKAGES)) {
+                packageGraph = createPackageGraph();
+                packageCycles = packageGraph.getCycles();
+            }
+        }
+        try (PhaseTimer ignored = executionProfile.startPhase(Phase.WRITE)) {
+            writeMetricsToFile();
+            if (historyFile != null) {
+                appendToHistory();
+            }
+        }
+        Optional<MojoExecutionException> violation;
+        try (PhaseTimer ignored = executionProfile.startPhase(Phase.VIOLATIONS)) {
+            violation = failOnViolation ? checkViolations() : Optional.empty();
+        }
+        reportProfile();
+        return violation;
     }
 
-    private void writeMetricsToFile() throws MojoExecutionException, ProjectBuildingException, IOException {
-        new MetricsFileWriter(getLog()).write(getPoints(), outputFile);
+    private void initProjectGraphAndCalculateMetrics(InputFingerprint previousFingerprint) throws MojoExecutionException, ProjectBuildingException, IOException {
+        try (PhaseTimer ignored = executionProfile.startPhase(Phase.GRAPH)) {
+            moduleGraph = createModuleGraph();
+        }
+        if (aggregate) {
+            for (Path pomFile : getPomFiles()) {
+                if (isInProjectDirectory(pomFile.toString())) {
+                    SessionCache.of(session).getAnalysedPomFiles().add(pomFile.toString());
+                }
+            }
+        }
+        try (PhaseTimer ignored = executionProfile.startPhase(Phase.INSTABILITY)) {
+            couplingPerComponent = weightedInstability
+                    ? new StableDependenciesChecker(moduleGraph).calculateWeightedCouplings(calculateClassUsage())
+                    : new StableDependenciesChecker(moduleGraph).calculateCouplings();
+            instabilityPerComponent = new double[couplingPerComponent.length];
+            for (int i = 0; i < couplingPerComponent.length; i++) {
+                instabilityPerComponent[i] = couplingPerComponent[i].getInstability();
+            }
+            cycles = new AcyclicDependenciesChecker(moduleGraph)
+                    .findCycles()
+                    .stream()
+                    .map(cycle -> cycle.stream().map(ModuleDescriptor::getName).collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+        }
+        try (PhaseTimer ignored = executionProfile.startPhase(Phase.ABSTRACTION)) {
+            abstractionPerComponent = calculateAbstractionLevel(previousFingerprint);
+        }
     }
 
-    private List<Point> getPoints() {
-        return projectGraph
-                .keySet()
+    /**
+     * Keeps a build in the history for a run whose analysis is skipped, calculating the metrics of the modules again
+     * without writing the report. The modules are not scanned, as their abstraction levels are known from the previous
+     * run or from the execution on the enclosing aggregator.
+     */
+    private void appendToHistoryWithoutAnalysis(InputFingerprint previousFingerprint) throws MojoExecutionException, ProjectBuildingException, IOException {
+        executionProfile = new ExecutionProfile();
+        initProjectGraphAndCalculateMetrics(previousFingerprint);
+        appendToHistory();
+    }
+
+    private ModuleGraph createModuleGraph() throws ProjectBuildingException, IOException {
+        if (daemonReactor != null) {
+            Optional<ModuleGraph> cachedModuleGraph = daemonReactor.getModuleGraph(getModelSettings());
+            if (cachedModuleGraph.isPresent()) {
+                getLog().debug("None of the POM files changed since the previous build, reusing its module graph");
+                return cachedModuleGraph.get();
+            }
+        }
+        // only the descriptors of the modules are kept, so the module models can be released
+        ModuleGraph createdModuleGraph = ModuleGraph.of(createProjectGraph());
+        if (daemonReactor != null) {
+            moduleGraph = createdModuleGraph;
+            Map<String, String> pomFiles = new LinkedHashMap<>();
+            for (Path pomFile : getPomFiles()) {
+                pomFiles.put(pomFile.toString(), SourceStamp.ofAttributes(pomFile));
+            }
+            daemonReactor.putModuleGraph(getModelSettings(), pomFiles, createdModuleGraph);
+        }
+        return createdModuleGraph;
+    }
+
+    private ClassUsage calculateClassUsage() throws IOException {
+        ClassUsage classUsage = new ClassUsageAnalyzer(moduleGraph, getThreads()).analyze();
+        classUsage.getUnusedDependencies().forEach((module, dependencies) -> {
+            for (String dependency : dependencies) {
+                getLog().warn(String.format("%s declares a dependency on %s, but does not use any of its classes", module.getName(), dependency));
+            }
+        });
+        return classUsage;
+    }
+
+    private PackageGraph createPackageGraph() throws IOException {
+        List<File> classDirectories = moduleGraph.getModules()
                 .stream()
-                .map(project -> new Point(project.getName(), instabilityPerComponent.get(project), abstractionPerComponent.get(project)))
+                .map(module -> new File(module.getOutputDirectory()))
                 .collect(Collectors.toList());
+        PackageGraph packages = new PackageMetricsAnalyzer(classDirectories, getThreads()).analyze();
+        getLog().debug(String.format("Found %d packages in the compiled classes", packages.size()));
+        return packages;
+    }
+
+    private void reportProfile() throws IOException {
+        getLog().info(String.format("Analysed %d modules in %s", moduleGraph.size(), executionProfile.getSummary()));
+        if (profile) {
+            executionProfile.write(profileFile);
+        }
+    }
+
+    /**
+     * Scans the modules whose abstraction level is not known yet, either from an earlier execution in the same session
+     * or from the previous run when the files of the module did not change since.
+     */
+    private double[] calculateAbstractionLevel(InputFingerprint previousFingerprint) throws MojoExecutionException, IOException {
+        AbstractionSource source = getAbstractionSource();
+        sourceStamps = new String[moduleGraph.size()];
+        double[] abstraction = new double[moduleGraph.size()];
+        List<Integer> modulesToScan = new ArrayList<>();
+        if (gitBase != null) {
+            readGitBase();
+        }
+        List<String> skippedRoots = new ArrayList<>();
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            Optional<Double> knownAbstraction = getKnownAbstractionLevel(i, source, previousFingerprint);
+            if (knownAbstraction.isPresent()) {
+                abstraction[i] = knownAbstraction.get();
+                skippedRoots.addAll(source.getRoots(moduleGraph.getModule(i)));
+            } else {
+                modulesToScan.add(i);
+            }
+        }
+        getLog().debug(String.format("Reusing the abstraction level of %d modules, scanning %d modules",
+                moduleGraph.size() - modulesToScan.size(), modulesToScan.size()));
+
+        List<ModuleDescriptor> modules = modulesToScan.stream().map(moduleGraph::getModule).collect(Collectors.toList());
+        double[] scannedModules = scan(modules, skippedRoots, source);
+        for (int i = 0; i < modules.size(); i++) {
+            abstraction[modulesToScan.get(i)] = scannedModules[i];
+            if (aggregate) {
+                SessionCache.of(session).getAbstractionLevels().put(modules.get(i).getPomFile() + ";" + source, scannedModules[i]);
+            }
+            if (daemonReactor != null) {
+                daemonReactor.putAbstractionLevel(modules.get(i).getPomFile(), source.toString(), sourceStamps[modulesToScan.get(i)], scannedModules[i]);
+            }
+        }
+        return abstraction;
+    }
+
+    /**
+     * Starts from the classification of the files kept in memory by the previous build when using the daemon cache,
+     * falling back to the {@link #cacheFile}, and keeps the classification of the files for the next build,
+     * including the one of the files of the modules that were not scanned.
+     *
+     * @param skippedRoots the roots of the modules that were not scanned
+     */
+    private double[] scan(List<ModuleDescriptor> modules, List<String> skippedRoots, AbstractionSource source) throws IOException {
+        Optional<ClassificationCache> previousClassifications = daemonReactor != null
+                ? daemonReactor.getClassifications(source.toString())
+                : Optional.empty();
+        ClassificationCache classifications = previousClassifications.isPresent()
+                ? previousClassifications.get().nextRun()
+                : cache ? ClassificationCache.load(cacheFile) : ClassificationCache.empty();
+        double[] abstraction = new StableAbstractionsChecker(modules, getThreads(), source, classifications, executionProfile)
+                .calculateAbstractionLevel();
+        classifications.keepPreviousEntries(skippedRoots);
+        if (cache) {
+            classifications.save(cacheFile);
+        }
+        if (daemonReactor != null) {
+            daemonReactor.putClassifications(source.toString(), classifications);
+        }
+        return abstraction;
+    }
+
+    private Optional<Double> getKnownAbstractionLevel(int moduleIndex,
+                                                      AbstractionSource source,
+                                                      InputFingerprint previousFingerprint) throws IOException {
+        ModuleDescriptor module = moduleGraph.getModule(moduleIndex);
+        Double knownAbstraction = knownAbstractionLevels.get(module.getPomFile());
+        if (knownAbstraction != null) {
+            return Optional.of(knownAbstraction);
+        }
+        List<String> roots = source.getRoots(module);
+        String sourceStamp = null;
+        if (incremental || daemonReactor != null) {
+            sourceStamp = SourceStamp.of(roots, source.getFileExtension());
+            sourceStamps[moduleIndex] = sourceStamp;
+        }
+        if (aggregate) {
+            Double abstraction = SessionCache.of(session).getAbstractionLevels().get(module.getPomFile() + ";" + source);
+            if (abstraction != null) {
+                return Optional.of(abstraction);
+            }
+        }
+        if (daemonReactor != null) {
+            Optional<Double> abstraction = daemonReactor.getAbstractionLevel(module.getPomFile(), source.toString(), sourceStamp);
+            if (abstraction.isPresent()) {
+                return abstraction;
+            }
+        }
+        if (baseFingerprint != null && !modulesChangedSinceGitBase.contains(module.getPomFile())) {
+            Optional<Double> abstraction = baseFingerprint.getAbstraction(module.getPomFile(), roots);
+            if (abstraction.isPresent()) {
+                return abstraction;
+            }
+        }
+        if (previousFingerprint != null) {
+            return previousFingerprint.getAbstraction(module.getPomFile(), roots, sourceStamp);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Finds the modules with any file added, modified or deleted since the {@link #gitBase} revision, including the
+     * files in the compile source roots that are neither tracked nor ignored, and loads the abstraction levels of the
+     * modules as of that revision, unless the project is not part of a git repository.
+     */
+    private void readGitBase() throws MojoExecutionException, IOException {
+        modulesChangedSinceGitBase = null;
+        baseFingerprint = null;
+        Optional<GitRepository> repository = GitRepository.find(project.getBasedir().toPath());
+        if (!repository.isPresent()) {
+            getLog().warn("The project is not part of a git repository, scanning all the modules");
+            return;
+        }
+        Set<Path> changedFiles;
+        try {
+            gitBaseCommit = repository.get().resolve(gitBase);
+            changedFiles = new LinkedHashSet<>(repository.get().getChangedFiles(gitBaseCommit));
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Unknown git revision: " + gitBase, e);
+        }
+        // the sources are searched for new files even when the compiled classes are scanned
+        Set<Path> sourceRoots = moduleGraph.getModules().stream()
+                .flatMap(module -> module.getCompileSourceRoots().stream())
+                .map(Paths::get)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<Path> untrackedFiles = repository.get().getUntrackedFiles(sourceRoots);
+        getLog().debug(String.format("%d untracked files in the compile source roots", untrackedFiles.size()));
+        changedFiles.addAll(untrackedFiles);
+        Set<String> changedModules = new HashSet<>();
+        for (ModuleDescriptor module : moduleGraph.getModules()) {
+            Path basedir = Paths.get(module.getBasedir());
+            if (changedFiles.stream().anyMatch(file -> file.startsWith(basedir))) {
+                changedModules.add(module.getPomFile());
+            }
+        }
+        getLog().info(String.format("%d files changed since %s, in %d modules", changedFiles.size(), gitBase, changedModules.size()));
+        modulesChangedSinceGitBase = changedModules;
+        String baseSettings = getBaseSettings();
+        baseFingerprint = InputFingerprint.load(getBaseFingerprintFile())
+                .filter(fingerprint -> fingerprint.getSettings().equals(baseSettings))
+                .orElse(null);
+    }
+
+    private boolean isUpToDate(InputFingerprint previousFingerprint) throws MojoExecutionException, IOException {
+        return getFormats().stream().allMatch(reportFormat -> reportFormat.getOutputFile(outputFile).isFile()
+                && (!packageMetrics || reportFormat.getOutputFile(packageOutputFile).isFile()))
+                && previousFingerprint.getSettings().equals(getSettings())
+                && (!failOnViolation || previousFingerprint.getViolations() == Violations.NONE)
+                && previousFingerprint.isModuleStructureUnchanged()
+                && previousFingerprint.isSourcesUnchanged(getAbstractionSource().getFileExtension());
+    }
+
+    private void saveFingerprint(Violations violations) throws MojoExecutionException, IOException {
+        AbstractionSource source = getAbstractionSource();
+        Map<String, String> pomFiles = new LinkedHashMap<>();
+        for (Path pomFile : getPomFiles()) {
+            pomFiles.put(pomFile.toString(), SourceStamp.ofContent(pomFile));
+        }
+        List<ModuleFingerprint> modules = new ArrayList<>();
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            ModuleDescriptor module = moduleGraph.getModule(i);
+            modules.add(new ModuleFingerprint(module.getPomFile(), source.getRoots(module), Objects.toString(sourceStamps[i], ""), abstractionPerComponent[i]));
+        }
+        new InputFingerprint(getSettings(), pomFiles, modules, violations).save(getFingerprintFile());
+    }
+
+    /**
+     * Keeps the abstraction levels of the modules as of the {@link #gitBase} commit: the ones of the modules without
+     * changes since the commit, and the ones of the changed modules known from an earlier run scoped by the same commit.
+     */
+    private void saveBaseFingerprint() throws MojoExecutionException, IOException {
+        AbstractionSource source = getAbstractionSource();
+        List<ModuleFingerprint> modules = new ArrayList<>();
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            ModuleDescriptor module = moduleGraph.getModule(i);
+            List<String> roots = source.getRoots(module);
+            Optional<Double> abstraction = !modulesChangedSinceGitBase.contains(module.getPomFile())
+                    ? Optional.of(abstractionPerComponent[i])
+                    : baseFingerprint != null ? baseFingerprint.getAbstraction(module.getPomFile(), roots) : Optional.empty();
+            if (abstraction.isPresent()) {
+                modules.add(new ModuleFingerprint(module.getPomFile(), roots, "", abstraction.get()));
+            }
+        }
+        new InputFingerprint(getBaseSettings(), Collections.emptyMap(), modules, Violations.NOT_CHECKED).save(getBaseFingerprintFile());
     }
 
-    private void checkViolations() throws MojoExecutionException {
+    /**
+     * @return the POM files of the project, its modules, the aggregators in between and the parents of the project and
+     * the modules read from the file system, including the ones outside the project directory
+     */
+    Set<Path> getPomFiles() {
+        Set<Path> pomFiles = new LinkedHashSet<>();
+        pomFiles.add(project.getFile().toPath().toAbsolutePath().normalize());
+        for (String parentPomFile : ModuleDescriptor.getParentPomFiles(project)) {
+            pomFiles.add(Paths.get(parentPomFile));
+        }
+        Path projectDirectory = project.getBasedir().toPath().toAbsolutePath().normalize();
+        for (ModuleDescriptor module : moduleGraph.getModules()) {
+            pomFiles.add(Paths.get(module.getPomFile()).normalize());
+            for (String parentPomFile : module.getParentPomFiles()) {
+                pomFiles.add(Paths.get(parentPomFile));
+            }
+            // the aggregators of a module are found in its parent directories
+            Path directory = Paths.get(module.getBasedir()).normalize();
+            while (directory != null && directory.startsWith(projectDirectory)) {
+                Path pomFile = directory.resolve(POM_FILE_NAME);
+                if (!pomFiles.contains(pomFile) && Files.isRegularFile(pomFile)) {
+                    pomFiles.add(pomFile);
+                }
+                directory = directory.getParent();
+            }
+        }
+        return pomFiles;
+    }
+
+    /**
+     * @return whether the POM file is part of the project directory, unlike the parents outside of it, which are not
+     * analysed by the executions on nested aggregators
+     */
+    private boolean isInProjectDirectory(String pomFile) {
+        return Paths.get(pomFile).startsWith(project.getBasedir().toPath().toAbsolutePath().normalize());
+    }
+
+    /**
+     * @return the settings that change the results of the analysis, besides the POM files and the sources, including
+     * the ones changing the module models and the version of the plugin
+     */
+    private String getSettings() throws MojoExecutionException {
+        String pluginVersion = plugin != null ? plugin.getVersion() : "";
+        return pluginVersion + ";" + getAbstractionSource() + ";" + getModelSettings() + ";" + getFormats() + ";" + packageMetrics + ";" + weightedInstability;
+    }
+
+    /**
+     * @return the settings that change the module models built out of the POM files
+     */
+    private String getModelSettings() {
+        List<String> activeProfiles = new ArrayList<>(session.getRequest().getActiveProfiles());
+        Collections.sort(activeProfiles);
+        List<String> inactiveProfiles = new ArrayList<>(session.getRequest().getInactiveProfiles());
+        Collections.sort(inactiveProfiles);
+        return String.join(",", activeProfiles) + ";" + String.join(",", inactiveProfiles) + ";" + new TreeMap<>(session.getUserProperties());
+    }
+
+    private File getFingerprintFile() {
+        return new File(outputFile.getPath() + FINGERPRINT_FILE_EXTENSION);
+    }
+
+    private File getBaseFingerprintFile() {
+        return new File(outputFile.getPath() + BASE_FINGERPRINT_FILE_EXTENSION);
+    }
+
+    /**
+     * @return the settings of the analysis together with the commit of the {@link #gitBase} revision
+     */
+    private String getBaseSettings() throws MojoExecutionException {
+        return getSettings() + ";" + gitBaseCommit;
+    }
+
+    private static String getPomFile(MavenProject mavenProject) {
+        return mavenProject.getFile().toPath().toAbsolutePath().normalize().toString();
+    }
+
+    private Map<MavenProject, List<String>> createProjectGraph() throws ProjectBuildingException {
+        if (reuseReactorProjects) {
+            List<MavenProject> reactorProjects = session.getAllProjects() != null ? session.getAllProjects() : session.getProjects();
+            Optional<Map<MavenProject, List<String>>> reactorProjectGraph = new ReactorProjectGraphCreator(reactorProjects).createProjectGraph(project);
+            if (reactorProjectGraph.isPresent()) {
+                return reactorProjectGraph.get();
+            }
+            getLog().debug("Not all modules are part of the reactor, building the module models");
+        }
+        ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+        Map<File, MavenProject> builtProjects = aggregate ? SessionCache.of(session).getProjects() : new ConcurrentHashMap<>();
+        return new ProjectGraphCreator(buildingRequest, projectBuilder, getThreads(), builtProjects, executionProfile).createProjectGraph(project);
+    }
+
+    AbstractionSource getAbstractionSource() throws MojoExecutionException {
+        try {
+            return AbstractionSource.of(abstractionSource);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Unknown abstraction source: " + abstractionSource, e);
+        }
+    }
+
+    private int getThreads() {
+        if (!parallel) {
+            return 1;
+        }
+        return threads != null && threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private void writeMetricsToFile() throws MojoExecutionException {
+        writeMetricsToFile(getPoints(), cycles, outputFile);
+        if (packageGraph != null) {
+            writeMetricsToFile(packageGraph.getPoints(), packageCycles, packageOutputFile);
+        }
+    }
+
+    private void appendToHistory() throws MojoExecutionException {
+        List<Point> points = getPoints();
+        try {
+            MetricsHistory.append(historyFile, System.currentTimeMillis(), points, StatisticUtil.summarize(points));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to append to the metrics history: " + historyFile.getAbsolutePath(), e);
+        }
+        if (aggregate) {
+            SessionCache.of(session).getHistoryFiles().add(historyFile.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Writes the report in every configured format, where the additional formats are written concurrently
+     * to the first one.
+     */
+    private void writeMetricsToFile(List<Point> points, List<List<String>> cycles, File outputFile) throws MojoExecutionException {
+        List<ReportFormat> reportFormats = getFormats();
+        if (reportFormats.size() == 1) {
+            writeReport(reportFormats.get(0), points, cycles, outputFile);
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(reportFormats.size() - 1);
+        try {
+            List<Future<Void>> reports = new ArrayList<>();
+            for (ReportFormat reportFormat : reportFormats.subList(1, reportFormats.size())) {
+                reports.add(executor.submit(() -> {
+                    writeReport(reportFormat, points, cycles, outputFile);
+                    return null;
+                }));
+            }
+            writeReport(reportFormats.get(0), points, cycles, outputFile);
+            for (Future<Void> report : reports) {
+                awaitReport(report);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void writeReport(ReportFormat reportFormat, List<Point> points, List<List<String>> cycles, File outputFile) throws MojoExecutionException {
+        File reportFile = reportFormat.getOutputFile(outputFile);
+        ReportWriteEvent event = new ReportWriteEvent();
+        event.begin();
+        reportFormat.createWriter(getLog()).write(points, cycles, reportFile);
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = reportFile.getPath();
+            event.bytesWritten = reportFile.length();
+            event.commit();
+        }
+    }
+
+    private static void awaitReport(Future<Void> report) throws MojoExecutionException {
+        try {
+            report.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while writing the reports", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MojoExecutionException) {
+                throw (MojoExecutionException) e.getCause();
+            }
+            throw new MojoExecutionException("Error while writing the reports", e.getCause());
+        }
+    }
+
+    private List<ReportFormat> getFormats() throws MojoExecutionException {
+        Set<ReportFormat> reportFormats = new LinkedHashSet<>();
+        for (String format : formats) {
+            try {
+                reportFormats.add(ReportFormat.of(format));
+            } catch (IllegalArgumentException e) {
+                throw new MojoExecutionException("Unknown report format: " + format, e);
+            }
+        }
+        if (reportFormats.isEmpty()) {
+            reportFormats.add(ReportFormat.TEXT);
+        }
+        if (reportFormats.contains(ReportFormat.TEXT)) {
+            for (ReportFormat reportFormat : reportFormats) {
+                if (reportFormat != ReportFormat.TEXT
+                        && (reportFormat.getOutputFile(outputFile).equals(outputFile)
+                        || packageMetrics && reportFormat.getOutputFile(packageOutputFile).equals(packageOutputFile))) {
+                    throw new MojoExecutionException(String.format("The text report and the %s report would be written to the same file, "
+                            + "change the extension of the output file", reportFormat.name().toLowerCase(Locale.ROOT)));
+                }
+            }
+        }
+        return new ArrayList<>(reportFormats);
+    }
+
+    private List<Point> getPoints() {
+        List<Point> points = new ArrayList<>(moduleGraph.size());
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            points.add(new Point(moduleGraph.getModule(i).getName(),
+                    couplingPerComponent[i].getAfferentCouplings(),
+                    couplingPerComponent[i].getEfferentCouplings(),
+                    instabilityPerComponent[i],
+                    abstractionPerComponent[i]));
+        }
+        return points;
+    }
+
+    private Optional<MojoExecutionException> checkViolations() {
         getLog().info("Checking for violation in Stable Dependencies Principle");
-        new ViolationChecker(StableDependenciesPrincipleViolation.class).check(projectGraph, instabilityPerComponent, STABLE_DEPENDENCIES_VIOLATION);
+        ViolationChecker stableDependenciesChecker = new ViolationChecker(StableDependenciesPrincipleViolation.class);
+        ViolationCheckResult stableDependenciesViolations = stableDependenciesChecker.findViolations(moduleGraph,
+                instabilityPerComponent,
+                STABLE_DEPENDENCIES_VIOLATION
+        );
+        logViolations("Stable Dependencies Principle", "instability", stableDependenciesViolations);
 
         getLog().info("Checking for violation in Stable Abstractions Principle");
-        new ViolationChecker(StableAbstractionsPrincipleViolation.class).check(projectGraph,
+        ViolationChecker stableAbstractionsChecker = new ViolationChecker(StableAbstractionsPrincipleViolation.class);
+        ViolationCheckResult stableAbstractionsViolations = stableAbstractionsChecker.findViolations(moduleGraph,
                 abstractionPerComponent,
                 STABLE_ABSTRACTIONS_VIOLATION
         );
+        logViolations("Stable Abstractions Principle", "abstraction", stableAbstractionsViolations);
+
+        getLog().info("Checking for violation in Acyclic Dependencies Principle");
+        Optional<MojoExecutionException> acyclicDependenciesViolation = checkCycles(cycles);
+
+        if (stableDependenciesViolations.hasViolations()) {
+            return Optional.of(stableDependenciesChecker.toException(stableDependenciesViolations));
+        }
+        if (stableAbstractionsViolations.hasViolations()) {
+            return Optional.of(stableAbstractionsChecker.toException(stableAbstractionsViolations));
+        }
+        if (acyclicDependenciesViolation.isPresent()) {
+            return acyclicDependenciesViolation;
+        }
+        return packageGraph != null ? checkPackageViolations() : Optional.empty();
+    }
+
+    /**
+     * Checks the same principles between the packages, after the modules, so a violation between the modules
+     * is reported first.
+     */
+    private Optional<MojoExecutionException> checkPackageViolations() {
+        Map<String, List<String>> packageDependencies = packageGraph.getDependencies();
+        getLog().info("Checking for violation in Stable Dependencies Principle between the packages");
+        ViolationChecker stableDependenciesChecker = new ViolationChecker(StableDependenciesPrincipleViolation.class);
+        ViolationCheckResult stableDependenciesViolations = stableDependenciesChecker.findViolationsByName(packageDependencies,
+                packageGraph.getInstability(),
+                STABLE_DEPENDENCIES_VIOLATION
+        );
+        logViolations("Stable Dependencies Principle", "instability", stableDependenciesViolations);
+
+        getLog().info("Checking for violation in Stable Abstractions Principle between the packages");
+        ViolationChecker stableAbstractionsChecker = new ViolationChecker(StableAbstractionsPrincipleViolation.class);
+        ViolationCheckResult stableAbstractionsViolations = stableAbstractionsChecker.findViolationsByName(packageDependencies,
+                packageGraph.getAbstraction(),
+                STABLE_ABSTRACTIONS_VIOLATION
+        );
+        logViolations("Stable Abstractions Principle", "abstraction", stableAbstractionsViolations);
+
+        getLog().info("Checking for violation in Acyclic Dependencies Principle between the packages");
+        Optional<MojoExecutionException> acyclicDependenciesViolation = checkCycles(packageCycles);
+
+        if (stableDependenciesViolations.hasViolations()) {
+            return Optional.of(stableDependenciesChecker.toException(stableDependenciesViolations));
+        }
+        if (stableAbstractionsViolations.hasViolations()) {
+            return Optional.of(stableAbstractionsChecker.toException(stableAbstractionsViolations));
+        }
+        return acyclicDependenciesViolation;
+    }
+
+    /**
+     * Logs every dependency cycle.
+     *
+     * @return the violation naming the components of all the cycles, if any
+     */
+    private Optional<MojoExecutionException> checkCycles(List<List<String>> cycles) {
+        if (cycles.isEmpty()) {
+            return Optional.empty();
+        }
+        List<String> components = new ArrayList<>();
+        for (List<String> cycle : cycles) {
+            getLog().error(String.format("Acyclic Dependencies Principle violation: %s depend on each other", String.join(", ", cycle)));
+            components.addAll(cycle);
+        }
+        return Optional.of(new AcyclicDependenciesPrincipleViolation(components));
+    }
+
+    private void logViolations(String principle, String metric, ViolationCheckResult result) {
+        for (Violation violation : result.getViolations()) {
+            getLog().error(String.format("%s violation: %s (%s %s) depends on %s (%s %s), delta %s",
+                    principle,
+                    violation.getOuterComponent(), metric, violation.getOuterMetric(),
+                    violation.getInnerComponent(), metric, violation.getInnerMetric(),
+                    violation.getDelta()));
+        }
     }
 }
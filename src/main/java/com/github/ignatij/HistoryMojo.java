@@ -0,0 +1,88 @@
+package com.github.ignatij;
+
+import com.github.ignatij.history.BuildSummary;
+import com.github.ignatij.history.MetricsHistory;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Shows the trend of the distance from the main sequence over the latest builds kept in the metrics history
+ * (see the {@code history.file} of the {@code check} goal), and the modules whose distance grew in every one of the
+ * latest builds.
+ */
+@Mojo(name = "history", aggregator = true)
+public class HistoryMojo extends AbstractMojo {
+
+    @Parameter(property = "history.file", required = true)
+    private File historyFile;
+
+    /**
+     * The number of latest builds whose statistics are shown.
+     */
+    @Parameter(property = "history.builds", defaultValue = "10")
+    private Integer builds = 10;
+
+    /**
+     * The number of consecutive builds in which the distance of a module has to grow to be reported as a regression.
+     */
+    @Parameter(property = "history.regressionBuilds", defaultValue = "3")
+    private Integer regressionBuilds = 3;
+
+    @Parameter(property = "history.failOnRegression", defaultValue = "false")
+    private Boolean failOnRegression = false;
+
+    public void execute() throws MojoExecutionException {
+        MetricsHistory history;
+        try {
+            history = MetricsHistory.read(historyFile);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to read the metrics history: " + historyFile.getAbsolutePath(), e);
+        }
+        if (history.size() == 0) {
+            getLog().warn("No builds in the metrics history: " + historyFile.getAbsolutePath());
+            return;
+        }
+        logTrend(history);
+        if (history.size() <= regressionBuilds) {
+            getLog().info(String.format("The metrics history has %d builds, the regressions over %d builds are not checked", history.size(), regressionBuilds));
+            return;
+        }
+        List<String> regressions = history.getGrowingDistances(regressionBuilds);
+        if (regressions.isEmpty()) {
+            getLog().info(String.format("No distance from the main sequence grew in each of the last %d builds", regressionBuilds));
+            return;
+        }
+        getLog().warn(String.format("The distance from the main sequence grew in each of the last %d builds for %d modules:", regressionBuilds, regressions.size()));
+        int firstBuild = history.size() - regressionBuilds - 1;
+        int lastBuild = history.size() - 1;
+        for (String module : regressions) {
+            getLog().warn(String.format("%s: %.4f -> %.4f", module,
+                    history.getDistance(firstBuild, module).getAsDouble(), history.getDistance(lastBuild, module).getAsDouble()));
+        }
+        if (failOnRegression) {
+            throw new MojoExecutionException(String.format("The distance from the main sequence grew in each of the last %d builds for: %s",
+                    regressionBuilds, String.join(", ", regressions)));
+        }
+    }
+
+    private void logTrend(MetricsHistory history) {
+        getLog().info(String.format("%-24s %8s %8s %8s %8s %8s", "BUILD", "MODULES", "MEAN", "P50", "P90", "P99"));
+        for (int build = Math.max(0, history.size() - builds); build < history.size(); build++) {
+            BuildSummary summary = history.getSummary(build);
+            getLog().info(String.format("%-24s %8d %8.4f %8.4f %8.4f %8.4f",
+                    Instant.ofEpochMilli(summary.getTimestamp()),
+                    summary.getComponentCount(),
+                    summary.getMean(),
+                    summary.getMedian(),
+                    summary.getP90(),
+                    summary.getP99()));
+        }
+    }
+}
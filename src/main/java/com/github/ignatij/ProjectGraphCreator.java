@@ -1,43 +1,81 @@
 package com.github.ignatij;
 
+import com.github.ignatij.profile.ExecutionProfile;
+import com.github.ignatij.profile.ModuleBuildEvent;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.project.ProjectBuildingRequest;
 
 import java.io.File;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 class ProjectGraphCreator {
 
     private final ProjectBuildingRequest buildingRequest;
     private final ProjectBuilder projectBuilder;
+    private final int threads;
+    private final Map<File, MavenProject> builtProjects;
+    private final ExecutionProfile profile;
 
     ProjectGraphCreator(final ProjectBuildingRequest buildingRequest,
                         final ProjectBuilder projectBuilder) {
+        this(buildingRequest, projectBuilder, 1, new ConcurrentHashMap<>(), new ExecutionProfile());
+    }
+
+    /**
+     * @param threads       the size of the worker pool that builds the module models,
+     *                      a value of 1 builds them one after another on the calling thread
+     * @param builtProjects the module models that were already built, keyed by their POM file,
+     *                      where the newly built module models are added as well
+     * @param profile       where the time spent building every module model is recorded
+     */
+    ProjectGraphCreator(final ProjectBuildingRequest buildingRequest,
+                        final ProjectBuilder projectBuilder,
+                        final int threads,
+                        final Map<File, MavenProject> builtProjects,
+                        final ExecutionProfile profile) {
         this.buildingRequest = buildingRequest;
         this.projectBuilder = projectBuilder;
+        this.threads = threads;
+        this.builtProjects = builtProjects;
+        this.profile = profile;
     }
 
     private static final String POM_FILE_NAME = "pom.xml";
 
     Map<MavenProject, List<String>> createProjectGraph(MavenProject project) throws ProjectBuildingException {
-        return createProjectGraph(new LinkedHashMap<>(), project);
+        if (threads <= 1) {
+            return createProjectGraph(new LinkedHashMap<>(), project);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Map<MavenProject, List<String>> projectGraph = new LinkedHashMap<>();
+            for (Future<ModuleNode> module : submitModules(executor, project)) {
+                createProjectGraph(projectGraph, module, project);
+            }
+            return projectGraph;
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     private Map<MavenProject, List<String>> createProjectGraph(Map<MavenProject, List<String>> projectGraph,
                                                                MavenProject project) throws ProjectBuildingException {
         for (String module : project.getModules()) {
-            buildingRequest.setProject(null);
-            File directory = getFile(new File(project.getBasedir().getAbsolutePath()), module);
-            File pomFile = getFile(directory, POM_FILE_NAME);
-            MavenProject mavenProject = projectBuilder.build(pomFile, buildingRequest)
-                    .getProject();
+            File pomFile = getPomFile(project, module);
+            MavenProject mavenProject = buildProject(pomFile, buildingRequest);
             if (!mavenProject.getModules().isEmpty()) {
                 createProjectGraph(projectGraph, mavenProject);
             } else {
@@ -47,6 +85,78 @@ class ProjectGraphCreator {
         return projectGraph;
     }
 
+    /**
+     * Walks the module tree in declaration order, waiting for each module model to be built by the worker pool,
+     * so the resulting graph has the same ordering as the sequential creation.
+     */
+    private void createProjectGraph(Map<MavenProject, List<String>> projectGraph,
+                                    Future<ModuleNode> module,
+                                    MavenProject aggregator) throws ProjectBuildingException {
+        ModuleNode node = await(module, aggregator);
+        if (!node.project.getModules().isEmpty()) {
+            for (Future<ModuleNode> submodule : node.modules) {
+                createProjectGraph(projectGraph, submodule, node.project);
+            }
+        } else {
+            createProjectGraphDependencies(projectGraph, node.project);
+        }
+    }
+
+    /**
+     * Every module is built with its own copy of the building request, because the builder stores the
+     * resulting project in the request. Aggregator modules submit their own modules as soon as they are built,
+     * without waiting on them, so the workers never block on each other.
+     */
+    private List<Future<ModuleNode>> submitModules(ExecutorService executor, MavenProject project) {
+        List<Future<ModuleNode>> modules = new ArrayList<>();
+        for (String module : project.getModules()) {
+            File pomFile = getPomFile(project, module);
+            modules.add(executor.submit(() -> {
+                MavenProject mavenProject = buildProject(pomFile, new DefaultProjectBuildingRequest(buildingRequest));
+                return new ModuleNode(mavenProject, submitModules(executor, mavenProject));
+            }));
+        }
+        return modules;
+    }
+
+    private MavenProject buildProject(File pomFile, ProjectBuildingRequest request) throws ProjectBuildingException {
+        File key = pomFile.getAbsoluteFile();
+        MavenProject mavenProject = builtProjects.get(key);
+        if (mavenProject == null) {
+            ModuleBuildEvent event = new ModuleBuildEvent();
+            event.begin();
+            long start = System.nanoTime();
+            request.setProject(null);
+            mavenProject = projectBuilder.build(pomFile, request).getProject();
+            builtProjects.put(key, mavenProject);
+            profile.getModule(mavenProject.getArtifactId()).addBuildTime(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.pomFile = key.getPath();
+                event.module = mavenProject.getArtifactId();
+                event.commit();
+            }
+        }
+        return mavenProject;
+    }
+
+    private static ModuleNode await(Future<ModuleNode> module, MavenProject aggregator) throws ProjectBuildingException {
+        try {
+            return module.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProjectBuildingException(aggregator.getId(), "Interrupted while building the modules", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ProjectBuildingException) {
+                throw (ProjectBuildingException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ProjectBuildingException(aggregator.getId(), "Error while building the modules", e.getCause());
+        }
+    }
+
     private void createProjectGraphDependencies(Map<MavenProject, List<String>> projectGraph,
                                                 MavenProject mavenProject) {
         if (projectGraph.containsKey(mavenProject)) {
@@ -57,7 +167,7 @@ class ProjectGraphCreator {
         projectGraph.put(mavenProject, projectDependencies);
     }
 
-    private static List<String> getProjectDependencies(MavenProject mavenProject) {
+    static List<String> getProjectDependencies(MavenProject mavenProject) {
         List<Dependency> dependencies = mavenProject.getDependencies();
         return dependencies
                 .stream()
@@ -66,12 +176,22 @@ class ProjectGraphCreator {
                 .collect(Collectors.toList());
     }
 
-    private static File getFile(File dir, String fileName) {
-        File[] files = dir.listFiles();
-        assert files != null;
-        return Arrays.stream(files)
-                .filter(file -> file.getName().equals(fileName))
-                .findFirst()
-                .orElse(null);
+    /**
+     * @return the POM file of the module, which is either a directory containing a pom.xml file or the POM file itself,
+     * the same as Maven resolves the modules
+     */
+    private static File getPomFile(MavenProject project, String module) {
+        File file = new File(project.getBasedir().getAbsolutePath(), module);
+        return file.isDirectory() ? new File(file, POM_FILE_NAME) : file;
+    }
+
+    private static final class ModuleNode {
+        private final MavenProject project;
+        private final List<Future<ModuleNode>> modules;
+
+        private ModuleNode(MavenProject project, List<Future<ModuleNode>> modules) {
+            this.project = project;
+            this.modules = modules;
+        }
     }
 }
@@ -0,0 +1,57 @@
+package com.github.ignatij;
+
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Creates the project graph out of the projects that Maven already loaded for the reactor,
+ * without building any module model again.
+ */
+class ReactorProjectGraphCreator {
+
+    private final Map<File, MavenProject> reactorProjects = new HashMap<>();
+
+    ReactorProjectGraphCreator(final List<MavenProject> reactorProjects) {
+        for (MavenProject reactorProject : reactorProjects) {
+            this.reactorProjects.put(reactorProject.getBasedir().getAbsoluteFile(), reactorProject);
+        }
+    }
+
+    /**
+     * @return the project graph, or empty if any of the (transitive) modules of the project is not part of the reactor,
+     * i.e. the plugin is not running in a full reactor build
+     */
+    Optional<Map<MavenProject, List<String>>> createProjectGraph(MavenProject project) {
+        Map<MavenProject, List<String>> projectGraph = new LinkedHashMap<>();
+        return createProjectGraph(projectGraph, project) ? Optional.of(projectGraph) : Optional.empty();
+    }
+
+    private boolean createProjectGraph(Map<MavenProject, List<String>> projectGraph, MavenProject project) {
+        for (String module : project.getModules()) {
+            MavenProject mavenProject = reactorProjects.get(getModuleDirectory(project, module));
+            if (mavenProject == null) {
+                return false;
+            }
+            if (!mavenProject.getModules().isEmpty()) {
+                if (!createProjectGraph(projectGraph, mavenProject)) {
+                    return false;
+                }
+            } else if (!projectGraph.containsKey(mavenProject)) {
+                projectGraph.put(mavenProject, ProjectGraphCreator.getProjectDependencies(mavenProject));
+            }
+        }
+        return true;
+    }
+
+    private static File getModuleDirectory(MavenProject project, String module) {
+        File moduleFile = new File(project.getBasedir(), module).toPath().normalize().toFile();
+        // a module can also point directly to the pom file of the module
+        return moduleFile.isFile() ? moduleFile.getParentFile() : moduleFile;
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.ignatij;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.SessionData;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The results shared by all the executions of the plugin within a Maven session,
+ * so nested aggregators do not build and scan the same modules again.
+ */
+class SessionCache {
+    private static final String KEY = SessionCache.class.getName();
+
+    private final Map<File, MavenProject> projects = new ConcurrentHashMap<>();
+    private final Map<String, Double> abstractionLevels = new ConcurrentHashMap<>();
+    private final Set<String> analysedPomFiles = ConcurrentHashMap.newKeySet();
+    private final Set<String> historyFiles = ConcurrentHashMap.newKeySet();
+
+    static SessionCache of(MavenSession session) {
+        SessionData data = session.getRepositorySession().getData();
+        while (true) {
+            Object cache = data.get(KEY);
+            if (cache instanceof SessionCache) {
+                return (SessionCache) cache;
+            }
+            if (cache != null) {
+                // stored by another version of the plugin, loaded by another class realm
+                return new SessionCache();
+            }
+            SessionCache newCache = new SessionCache();
+            if (data.set(KEY, null, newCache)) {
+                return newCache;
+            }
+        }
+    }
+
+    /**
+     * @return the module models built in the session, keyed by their POM file
+     */
+    Map<File, MavenProject> getProjects() {
+        return projects;
+    }
+
+    /**
+     * @return the abstraction levels calculated in the session, keyed by the POM file of the module and the abstraction source
+     */
+    Map<String, Double> getAbstractionLevels() {
+        return abstractionLevels;
+    }
+
+    /**
+     * @return the POM files of the aggregators and modules already analysed in the session
+     */
+    Set<String> getAnalysedPomFiles() {
+        return analysedPomFiles;
+    }
+
+    /**
+     * @return the absolute paths of the metrics history files a build was appended to in the session
+     */
+    Set<String> getHistoryFiles() {
+        return historyFiles;
+    }
+}
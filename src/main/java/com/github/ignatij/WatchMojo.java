@@ -0,0 +1,210 @@
+package com.github.ignatij;
+
+import com.github.ignatij.graph.ModuleDescriptor;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.ProjectBuildingException;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Runs the analysis once, then watches the POM files and the scanned directories of the modules and runs it again
+ * after every batch of changes, until the build is stopped. Only the modules with changed files are scanned again,
+ * and the module models are only built again when a POM file changed. The violations are logged, without stopping
+ * the watch.
+ */
+@Mojo(name = "watch", requiresDirectInvocation = true, requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class WatchMojo extends DependencyManagementMetricsMojo {
+
+    /**
+     * The time in milliseconds without any change after which a batch of changes is analysed.
+     */
+    @Parameter(property = "watch.debounce", defaultValue = "200")
+    private Long debounce = 200L;
+
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (project.getModules().isEmpty()) {
+            return;
+        }
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            daemonReactor = new DaemonCache.Reactor();
+            // the analyses of the edits in between the builds are not part of the history of the builds
+            historyFile = null;
+            analyse();
+            // the models in the reactor are not updated when a POM file changes
+            reuseReactorProjects = false;
+            watch(watchService);
+            while (true) {
+                Set<Path> changedFiles = awaitChanges(watchService);
+                Set<String> changedModules = getChangedModules(changedFiles);
+                Set<Path> pomFiles = getPomFiles();
+                boolean pomFilesChanged = changedFiles.stream().anyMatch(pomFiles::contains);
+                if (changedModules.isEmpty() && !pomFilesChanged) {
+                    continue;
+                }
+                getLog().info(String.format("%d files changed in %d modules, analysing the modules again", changedFiles.size(), changedModules.size()));
+                Map<String, Double> abstractionLevels = new HashMap<>();
+                for (int i = 0; i < moduleGraph.size(); i++) {
+                    abstractionLevels.put(moduleGraph.getModule(i).getPomFile(), abstractionPerComponent[i]);
+                }
+                abstractionLevels.keySet().removeAll(changedModules);
+                knownAbstractionLevels = abstractionLevels;
+                if (aggregate) {
+                    invalidateSessionCache(changedModules, pomFilesChanged);
+                }
+                analyse();
+                if (pomFilesChanged) {
+                    watch(watchService);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            getLog().info("Stopped watching the modules");
+        } catch (ProjectBuildingException e) {
+            throw new MojoExecutionException("Error while building project", e);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error while reading the source files", e);
+        }
+    }
+
+    /**
+     * Drops the abstraction levels of the changed modules shared within the session, and the module models when
+     * a POM file changed, as a POM file also changes the models of the modules inheriting from it.
+     */
+    private void invalidateSessionCache(Set<String> changedModules, boolean pomFilesChanged) {
+        SessionCache sessionCache = SessionCache.of(session);
+        sessionCache.getAbstractionLevels().keySet().removeIf(key -> changedModules.contains(key.substring(0, key.lastIndexOf(';'))));
+        if (pomFilesChanged) {
+            sessionCache.getProjects().clear();
+        }
+    }
+
+    private void analyse() throws MojoExecutionException, ProjectBuildingException, IOException {
+        Optional<MojoExecutionException> violation = analyse(null);
+        if (violation.isPresent()) {
+            getLog().error(violation.get().getMessage());
+        }
+    }
+
+    /**
+     * Watches the directories of the POM files and every directory under the scanned roots of the modules,
+     * as the watch service does not watch the subdirectories of a directory.
+     */
+    private void watch(WatchService watchService) throws MojoExecutionException, IOException {
+        watchedDirectories.keySet().forEach(WatchKey::cancel);
+        watchedDirectories.clear();
+        for (Path pomFile : getPomFiles()) {
+            register(watchService, pomFile.getParent());
+        }
+        for (ModuleDescriptor module : moduleGraph.getModules()) {
+            for (String root : getAbstractionSource().getRoots(module)) {
+                registerAll(watchService, Paths.get(root));
+            }
+        }
+        getLog().info(String.format("Watching %d directories for changes", watchedDirectories.size()));
+    }
+
+    private void registerAll(WatchService watchService, Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+                register(watchService, directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void register(WatchService watchService, Path directory) throws IOException {
+        Path absoluteDirectory = directory.toAbsolutePath().normalize();
+        if (!watchedDirectories.containsValue(absoluteDirectory)) {
+            watchedDirectories.put(absoluteDirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), absoluteDirectory);
+        }
+    }
+
+    /**
+     * Waits for a change, then collects the changes until none happened for the {@link #debounce} time,
+     * so the files saved together are analysed together.
+     *
+     * @return the changed files and directories
+     */
+    private Set<Path> awaitChanges(WatchService watchService) throws InterruptedException, IOException {
+        Set<Path> changedFiles = new HashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            Path directory = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (directory == null) {
+                    continue;
+                }
+                if (event.kind() == OVERFLOW) {
+                    changedFiles.add(directory);
+                    continue;
+                }
+                Path file = directory.resolve((Path) event.context());
+                changedFiles.add(file);
+                if (event.kind() == ENTRY_CREATE && Files.isDirectory(file)) {
+                    registerAll(watchService, file);
+                }
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+            key = watchService.poll(debounce, TimeUnit.MILLISECONDS);
+        }
+        return changedFiles;
+    }
+
+    /**
+     * @return the POM files of the modules whose scanned roots or POM file contain any of the changed files
+     */
+    private Set<String> getChangedModules(Set<Path> changedFiles) throws MojoExecutionException {
+        Set<String> changedModules = new HashSet<>();
+        for (ModuleDescriptor module : moduleGraph.getModules()) {
+            for (Path changedFile : changedFiles) {
+                if (changedFile.toString().equals(module.getPomFile()) || isUnderRoots(changedFile, module)) {
+                    changedModules.add(module.getPomFile());
+                    break;
+                }
+            }
+        }
+        return changedModules;
+    }
+
+    private boolean isUnderRoots(Path changedFile, ModuleDescriptor module) throws MojoExecutionException {
+        for (String root : getAbstractionSource().getRoots(module)) {
+            if (changedFile.startsWith(Paths.get(root).toAbsolutePath())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
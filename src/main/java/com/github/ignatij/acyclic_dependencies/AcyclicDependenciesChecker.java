@@ -0,0 +1,39 @@
+package com.github.ignatij.acyclic_dependencies;
+
+import com.github.ignatij.graph.ModuleDescriptor;
+import com.github.ignatij.graph.ModuleGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AcyclicDependenciesChecker {
+
+    private final ModuleGraph moduleGraph;
+
+    public AcyclicDependenciesChecker(ModuleGraph moduleGraph) {
+        this.moduleGraph = moduleGraph;
+    }
+
+    /**
+     * Finds the dependency cycles between the components.
+     * Dependencies on artifacts that are not part of the graph are ignored.
+     *
+     * @return the components of every cycle, in the order of the graph
+     */
+    public List<List<ModuleDescriptor>> findCycles() {
+        int[][] dependencies = new int[moduleGraph.size()][];
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            dependencies[i] = moduleGraph.getDependencies(i);
+        }
+
+        List<List<ModuleDescriptor>> cycles = new ArrayList<>();
+        for (int[] cycle : StronglyConnectedComponents.findCycles(dependencies)) {
+            List<ModuleDescriptor> cycleComponents = new ArrayList<>(cycle.length);
+            for (int component : cycle) {
+                cycleComponents.add(moduleGraph.getModule(component));
+            }
+            cycles.add(cycleComponents);
+        }
+        return cycles;
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.ignatij.acyclic_dependencies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds the dependency cycles of a graph whose components are indexed from 0, as the strongly connected components
+ * with more than one component, or with a component depending on itself.
+ * <p>
+ * Runs Tarjan's algorithm in linear time, keeping the depth-first search on explicit arrays instead of the call stack,
+ * so deep graphs, such as the package graphs of large projects, do not overflow the stack.
+ */
+public final class StronglyConnectedComponents {
+
+    private StronglyConnectedComponents() {
+    }
+
+    /**
+     * @param dependencies the indexes of the components every component depends on
+     * @return the components of every cycle, in ascending order, ordered by their first component
+     */
+    public static List<int[]> findCycles(int[][] dependencies) {
+        int size = dependencies.length;
+        int[] index = new int[size];
+        int[] lowLink = new int[size];
+        boolean[] onStack = new boolean[size];
+        Arrays.fill(index, -1);
+        // the components visited and not yet assigned to a strongly connected component
+        int[] stack = new int[size];
+        int stackSize = 0;
+        // the path of the depth-first search, with the next dependency to visit of every component on the path
+        int[] path = new int[size];
+        int[] nextDependency = new int[size];
+        int pathSize = 0;
+        int nextIndex = 0;
+
+        List<int[]> cycles = new ArrayList<>();
+        for (int root = 0; root < size; root++) {
+            if (index[root] >= 0) {
+                continue;
+            }
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            path[pathSize] = root;
+            nextDependency[pathSize++] = 0;
+
+            while (pathSize > 0) {
+                int component = path[pathSize - 1];
+                if (nextDependency[pathSize - 1] < dependencies[component].length) {
+                    int dependency = dependencies[component][nextDependency[pathSize - 1]++];
+                    if (index[dependency] < 0) {
+                        index[dependency] = lowLink[dependency] = nextIndex++;
+                        stack[stackSize++] = dependency;
+                        onStack[dependency] = true;
+                        path[pathSize] = dependency;
+                        nextDependency[pathSize++] = 0;
+                    } else if (onStack[dependency]) {
+                        lowLink[component] = Math.min(lowLink[component], index[dependency]);
+                    }
+                    continue;
+                }
+
+                pathSize--;
+                if (pathSize > 0) {
+                    int dependent = path[pathSize - 1];
+                    lowLink[dependent] = Math.min(lowLink[dependent], lowLink[component]);
+                }
+                if (lowLink[component] == index[component]) {
+                    int start = stackSize;
+                    do {
+                        onStack[stack[--start]] = false;
+                    } while (stack[start] != component);
+                    if (stackSize - start > 1 || dependsOnItself(dependencies, component)) {
+                        int[] cycle = Arrays.copyOfRange(stack, start, stackSize);
+                        Arrays.sort(cycle);
+                        cycles.add(cycle);
+                    }
+                    stackSize = start;
+                }
+            }
+        }
+        cycles.sort(Comparator.comparingInt(cycle -> cycle[0]));
+        return cycles;
+    }
+
+    private static boolean dependsOnItself(int[][] dependencies, int component) {
+        for (int dependency : dependencies[component]) {
+            if (dependency == component) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
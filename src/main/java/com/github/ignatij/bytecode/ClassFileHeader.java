@@ -0,0 +1,82 @@
+package com.github.ignatij.bytecode;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The header of a class file, up to and including the access flags of the class.
+ * The class file is streamed and only read up to the access flags, skipping over the constant pool.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se17/html/jvms-4.html">The class File Format</a>
+ */
+public class ClassFileHeader {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    public static final int ACC_INTERFACE = 0x0200;
+    public static final int ACC_ABSTRACT = 0x0400;
+    public static final int ACC_SYNTHETIC = 0x1000;
+    public static final int ACC_MODULE = 0x8000;
+
+    private final int accessFlags;
+    private final long length;
+
+    private ClassFileHeader(int accessFlags, long length) {
+        this.accessFlags = accessFlags;
+        this.length = length;
+    }
+
+    public static ClassFileHeader read(Path classFile) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(classFile)))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a class file: " + classFile);
+            }
+            // minor and major version
+            skipFully(input, 4);
+            long constantPoolLength = ConstantPool.skip(input);
+            // magic, versions, constant pool and access flags
+            return new ClassFileHeader(input.readUnsignedShort(), 8 + constantPoolLength + 2);
+        } catch (EOFException e) {
+            throw new IOException("Truncated class file: " + classFile, e);
+        }
+    }
+
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    /**
+     * @return the number of bytes of the class file the header was read from
+     */
+    public long getLength() {
+        return length;
+    }
+
+    public boolean isAbstract() {
+        return (accessFlags & (ACC_INTERFACE | ACC_ABSTRACT)) != 0;
+    }
+
+    public boolean isSynthetic() {
+        return (accessFlags & ACC_SYNTHETIC) != 0;
+    }
+
+    public boolean isModule() {
+        return (accessFlags & ACC_MODULE) != 0;
+    }
+
+    static void skipFully(DataInputStream input, int bytes) throws IOException {
+        int remaining = bytes;
+        while (remaining > 0) {
+            int skipped = input.skipBytes(remaining);
+            if (skipped == 0) {
+                // skipBytes does not distinguish the end of the stream
+                input.readByte();
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.github.ignatij.bytecode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads the packages or the classes a class refers to out of its class file, without building a model of the class.
+ * The class file is read into a reusable per-thread buffer and the constant pool is indexed by offsets, so only the
+ * names of the referenced classes are decoded, and only up to their package when reading the packages.
+ * <p>
+ * The references are taken from the class constants (e.g. the super class, the interfaces and the owners of the
+ * fields and methods used), from the descriptors of the fields and methods used or declared, from the method types,
+ * from the generic signatures and from the types of the annotations. The compile-time constants of other classes are
+ * inlined by the compiler, so using them leaves no reference behind.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se17/html/jvms-4.html">The class File Format</a>
+ */
+public class ClassReferenceReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    private static final String DEFAULT_PACKAGE = "";
+
+    private static final byte[] SIGNATURE = "Signature".getBytes(StandardCharsets.UTF_8);
+
+    private final NameTable names;
+    private final ReferenceGranularity granularity;
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    public ClassReferenceReader(NameTable packageNames) {
+        this(packageNames, ReferenceGranularity.PACKAGE);
+    }
+
+    /**
+     * @param names       where the names of the packages or of the classes are interned
+     * @param granularity whether the packages or the classes are read
+     */
+    public ClassReferenceReader(NameTable names, ReferenceGranularity granularity) {
+        this.names = names;
+        this.granularity = granularity;
+    }
+
+    public ClassReferences read(Path classFile) throws IOException {
+        Buffers buffers = this.buffers.get();
+        int length = buffers.readFully(classFile);
+        try {
+            return read(buffers, length);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file: " + classFile, e);
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage() + ": " + classFile, e);
+        }
+    }
+
+    private ClassReferences read(Buffers buffers, int length) throws IOException {
+        byte[] bytes = buffers.bytes;
+        if (readInt(bytes, 0) != MAGIC) {
+            throw new IllegalStateException("Not a class file");
+        }
+        int count = readUnsignedShort(bytes, 8);
+        int[] offsets = buffers.offsets(count);
+        int offset = 10;
+        for (int i = 1; i < count; i++) {
+            offsets[i] = offset;
+            int tag = bytes[offset] & 0xFF;
+            if (tag == ConstantPool.CONSTANT_UTF8) {
+                offset += 3 + readUnsignedShort(bytes, offset + 1);
+            } else {
+                offset += 1 + ConstantPool.size(tag);
+                if (tag == ConstantPool.CONSTANT_LONG || tag == ConstantPool.CONSTANT_DOUBLE) {
+                    // 8-byte constants take up two entries
+                    i++;
+                }
+            }
+        }
+        if (offset + 6 > length) {
+            throw new IllegalStateException("Truncated class file");
+        }
+        int accessFlags = readUnsignedShort(bytes, offset);
+        int thisClass = readUnsignedShort(bytes, offset + 2);
+        int id = names.intern(getName(bytes, offsets[readUnsignedShort(bytes, offsets[thisClass] + 1)]));
+        References references = buffers.references(id);
+
+        for (int i = 1; i < count; i++) {
+            int entry = offsets[i];
+            int tag = bytes[entry] & 0xFF;
+            if (tag == ConstantPool.CONSTANT_CLASS) {
+                addClassName(bytes, offsets[readUnsignedShort(bytes, entry + 1)], references);
+            } else if (tag == ConstantPool.CONSTANT_NAME_AND_TYPE) {
+                addDescriptor(bytes, offsets[readUnsignedShort(bytes, entry + 3)], references);
+            } else if (tag == ConstantPool.CONSTANT_METHOD_TYPE) {
+                addDescriptor(bytes, offsets[readUnsignedShort(bytes, entry + 1)], references);
+            } else if (tag == ConstantPool.CONSTANT_UTF8 && isFieldDescriptor(bytes, entry)) {
+                // the types of the annotations and of their enum and class values are only kept as descriptors
+                addDescriptor(bytes, entry, references);
+            } else if (tag == ConstantPool.CONSTANT_LONG || tag == ConstantPool.CONSTANT_DOUBLE) {
+                i++;
+            }
+        }
+
+        // access flags, this class, super class, interfaces
+        offset += 6;
+        offset += 2 + 2 * readUnsignedShort(bytes, offset);
+        // fields and methods
+        for (int member = 0; member < 2; member++) {
+            int members = readUnsignedShort(bytes, offset);
+            offset += 2;
+            for (int i = 0; i < members; i++) {
+                addDescriptor(bytes, offsets[readUnsignedShort(bytes, offset + 4)], references);
+                offset = readAttributes(bytes, offsets, offset + 6, references);
+            }
+        }
+        readAttributes(bytes, offsets, offset, references);
+        return new ClassReferences(id, accessFlags, references.toArray());
+    }
+
+    /**
+     * Adds the references of the generic signature among the attributes and skips over the rest.
+     *
+     * @return the offset after the attributes
+     */
+    private int readAttributes(byte[] bytes, int[] offsets, int offset, References references) {
+        int attributes = readUnsignedShort(bytes, offset);
+        offset += 2;
+        for (int attribute = 0; attribute < attributes; attribute++) {
+            if (isSignature(bytes, offsets[readUnsignedShort(bytes, offset)])) {
+                addDescriptor(bytes, offsets[readUnsignedShort(bytes, offset + 6)], references);
+            }
+            offset += 6 + readInt(bytes, offset + 2);
+        }
+        return offset;
+    }
+
+    private static boolean isSignature(byte[] bytes, int utf8) {
+        return readUnsignedShort(bytes, utf8 + 1) == SIGNATURE.length
+                && Arrays.equals(bytes, utf8 + 3, utf8 + 3 + SIGNATURE.length, SIGNATURE, 0, SIGNATURE.length);
+    }
+
+    /**
+     * @return whether the UTF-8 constant has the form of a class type descriptor, such as {@code Ljava/lang/Deprecated;}
+     */
+    private static boolean isFieldDescriptor(byte[] bytes, int utf8) {
+        int length = readUnsignedShort(bytes, utf8 + 1);
+        return length > 2 && bytes[utf8 + 3] == 'L' && bytes[utf8 + 2 + length] == ';';
+    }
+
+    /**
+     * @param utf8 the offset of the UTF-8 constant holding an internal class name, or an array descriptor
+     */
+    private void addClassName(byte[] bytes, int utf8, References references) {
+        if (bytes[utf8 + 3] == '[') {
+            addDescriptor(bytes, utf8, references);
+            return;
+        }
+        addName(bytes, utf8 + 3, utf8 + 3 + readUnsignedShort(bytes, utf8 + 1), references);
+    }
+
+    /**
+     * Adds every class in a field or method descriptor, such as {@code (ILjava/lang/String;)[Ljava/util/List;},
+     * or in a generic signature, such as {@code <T:Ljava/lang/Object;>Ljava/util/List<TT;>;}.
+     */
+    private void addDescriptor(byte[] bytes, int utf8, References references) {
+        int end = utf8 + 3 + readUnsignedShort(bytes, utf8 + 1);
+        for (int i = utf8 + 3; i < end; i++) {
+            byte b = bytes[i];
+            if (b == 'L') {
+                int start = i + 1;
+                while (i < end && bytes[i] != ';' && bytes[i] != '<' && bytes[i] != ':') {
+                    i++;
+                }
+                // a type parameter named like a class type, such as <L:Ljava/lang/Object;>, ends with a colon
+                if (i == end || bytes[i] != ':') {
+                    addName(bytes, start, i, references);
+                }
+            } else if (b == 'T' || b == '.') {
+                // a type variable, or the inner class of a parameterized type, both without a package
+                while (i + 1 < end && bytes[i + 1] != ';' && bytes[i + 1] != '<' && bytes[i + 1] != ':') {
+                    i++;
+                }
+            }
+        }
+    }
+
+    private void addName(byte[] bytes, int start, int end, References references) {
+        if (granularity == ReferenceGranularity.PACKAGE) {
+            int lastSlash = lastSlash(bytes, start, end);
+            if (lastSlash < 0) {
+                references.add(names.intern(DEFAULT_PACKAGE));
+                return;
+            }
+            end = lastSlash;
+        }
+        int hash = hash(bytes, start, end);
+        int id = references.lookup(bytes, start, end, hash);
+        if (id < 0) {
+            id = names.intern(new String(bytes, start, end - start, StandardCharsets.UTF_8).replace('/', '.'));
+            references.remember(bytes, start, end, hash, id);
+        }
+        references.add(id);
+    }
+
+    private String getName(byte[] bytes, int utf8) {
+        int start = utf8 + 3;
+        int end = start + readUnsignedShort(bytes, utf8 + 1);
+        if (granularity == ReferenceGranularity.PACKAGE) {
+            int lastSlash = lastSlash(bytes, start, end);
+            if (lastSlash < 0) {
+                return DEFAULT_PACKAGE;
+            }
+            end = lastSlash;
+        }
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8).replace('/', '.');
+    }
+
+    private static int lastSlash(byte[] bytes, int start, int end) {
+        for (int i = end - 1; i >= start; i--) {
+            if (bytes[i] == '/') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int readUnsignedShort(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (readUnsignedShort(bytes, offset) << 16) | readUnsignedShort(bytes, offset + 2);
+    }
+
+    /**
+     * The buffers reused by a thread for every class file it reads.
+     */
+    private static final class Buffers {
+        private byte[] bytes = new byte[INITIAL_BUFFER_SIZE];
+        private int[] offsets = new int[1024];
+        private final References references = new References();
+
+        private int readFully(Path classFile) throws IOException {
+            try (InputStream input = Files.newInputStream(classFile)) {
+                int length = 0;
+                int read;
+                while ((read = input.read(bytes, length, bytes.length - length)) != -1) {
+                    length += read;
+                    if (length == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                    }
+                }
+                return length;
+            }
+        }
+
+        private int[] offsets(int count) {
+            if (offsets.length < count) {
+                offsets = new int[Math.max(count, offsets.length * 2)];
+            }
+            return offsets;
+        }
+
+        private References references(int id) {
+            references.clear(id);
+            return references;
+        }
+    }
+
+    /**
+     * The distinct packages or classes referred to by a class, together with a small cache of the names already
+     * decoded for the class, so every name is decoded and interned once per class. The cache is a table with open
+     * addressing of the indexes of the cached names, which are compared by their bytes in the class file.
+     */
+    private static final class References {
+        private static final int EMPTY = -1;
+
+        private int ownId;
+        private final IntSet ids = new IntSet();
+
+        private int[] cacheSlots = emptySlots(128);
+        private int[] cachedHashes = new int[64];
+        private int[] cachedStarts = new int[64];
+        private int[] cachedEnds = new int[64];
+        private int[] cachedIds = new int[64];
+        private int cached;
+
+        private void clear(int ownId) {
+            this.ownId = ownId;
+            ids.clear();
+            if (cached > 0) {
+                Arrays.fill(cacheSlots, EMPTY);
+                cached = 0;
+            }
+        }
+
+        private void add(int id) {
+            if (id != ownId) {
+                ids.add(id);
+            }
+        }
+
+        private int lookup(byte[] bytes, int start, int end, int hash) {
+            int mask = cacheSlots.length - 1;
+            for (int slot = IntSet.mix(hash) & mask; cacheSlots[slot] != EMPTY; slot = (slot + 1) & mask) {
+                int i = cacheSlots[slot];
+                if (cachedHashes[i] == hash
+                        && Arrays.equals(bytes, start, end, bytes, cachedStarts[i], cachedEnds[i])) {
+                    return cachedIds[i];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Caches a name that {@link #lookup} did not find.
+         */
+        private void remember(byte[] bytes, int start, int end, int hash, int id) {
+            if (cached == cachedHashes.length) {
+                cachedHashes = Arrays.copyOf(cachedHashes, cached * 2);
+                cachedStarts = Arrays.copyOf(cachedStarts, cached * 2);
+                cachedEnds = Arrays.copyOf(cachedEnds, cached * 2);
+                cachedIds = Arrays.copyOf(cachedIds, cached * 2);
+                // keeps the table at most half full
+                cacheSlots = emptySlots(cacheSlots.length * 2);
+                for (int i = 0; i < cached; i++) {
+                    insert(i);
+                }
+            }
+            cachedHashes[cached] = hash;
+            cachedStarts[cached] = start;
+            cachedEnds[cached] = end;
+            cachedIds[cached] = id;
+            insert(cached++);
+        }
+
+        private void insert(int i) {
+            int mask = cacheSlots.length - 1;
+            int slot = IntSet.mix(cachedHashes[i]) & mask;
+            while (cacheSlots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            cacheSlots[slot] = i;
+        }
+
+        private int[] toArray() {
+            return ids.toArray();
+        }
+
+        private static int[] emptySlots(int capacity) {
+            int[] slots = new int[capacity];
+            Arrays.fill(slots, EMPTY);
+            return slots;
+        }
+    }
+}
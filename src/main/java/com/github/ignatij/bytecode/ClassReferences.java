@@ -0,0 +1,43 @@
+package com.github.ignatij.bytecode;
+
+/**
+ * The package of a class and the packages it refers to, or the class itself and the classes it refers to,
+ * depending on the {@link ReferenceGranularity}, as ids of a {@link NameTable}.
+ */
+public class ClassReferences {
+    private final int id;
+    private final int accessFlags;
+    private final int[] referencedIds;
+
+    ClassReferences(int id, int accessFlags, int[] referencedIds) {
+        this.id = id;
+        this.accessFlags = accessFlags;
+        this.referencedIds = referencedIds;
+    }
+
+    /**
+     * @return the package of the class, or the class itself
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the distinct packages or classes referred to, other than the package of the class or the class itself
+     */
+    public int[] getReferencedIds() {
+        return referencedIds;
+    }
+
+    public boolean isAbstract() {
+        return (accessFlags & (ClassFileHeader.ACC_INTERFACE | ClassFileHeader.ACC_ABSTRACT)) != 0;
+    }
+
+    public boolean isSynthetic() {
+        return (accessFlags & ClassFileHeader.ACC_SYNTHETIC) != 0;
+    }
+
+    public boolean isModule() {
+        return (accessFlags & ClassFileHeader.ACC_MODULE) != 0;
+    }
+}
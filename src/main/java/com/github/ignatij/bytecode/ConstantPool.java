@@ -0,0 +1,83 @@
+package com.github.ignatij.bytecode;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+final class ConstantPool {
+    static final int CONSTANT_UTF8 = 1;
+    static final int CONSTANT_INTEGER = 3;
+    static final int CONSTANT_FLOAT = 4;
+    static final int CONSTANT_LONG = 5;
+    static final int CONSTANT_DOUBLE = 6;
+    static final int CONSTANT_CLASS = 7;
+    static final int CONSTANT_STRING = 8;
+    static final int CONSTANT_FIELDREF = 9;
+    static final int CONSTANT_METHODREF = 10;
+    static final int CONSTANT_INTERFACE_METHODREF = 11;
+    static final int CONSTANT_NAME_AND_TYPE = 12;
+    static final int CONSTANT_METHOD_HANDLE = 15;
+    static final int CONSTANT_METHOD_TYPE = 16;
+    static final int CONSTANT_DYNAMIC = 17;
+    static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    static final int CONSTANT_MODULE = 19;
+    static final int CONSTANT_PACKAGE = 20;
+
+    private ConstantPool() {
+    }
+
+    /**
+     * Skips over the constant pool, including its count.
+     *
+     * @return the size of the constant pool in bytes
+     */
+    static long skip(DataInputStream input) throws IOException {
+        int count = input.readUnsignedShort();
+        long bytes = 2;
+        for (int i = 1; i < count; i++) {
+            int tag = input.readUnsignedByte();
+            if (tag == CONSTANT_UTF8) {
+                int length = input.readUnsignedShort();
+                ClassFileHeader.skipFully(input, length);
+                bytes += 3 + length;
+            } else {
+                ClassFileHeader.skipFully(input, size(tag));
+                bytes += 1 + size(tag);
+                if (tag == CONSTANT_LONG || tag == CONSTANT_DOUBLE) {
+                    // 8-byte constants take up two entries
+                    i++;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the size of a constant with a fixed size, excluding its tag
+     */
+    static int size(int tag) throws IOException {
+        switch (tag) {
+            case CONSTANT_CLASS:
+            case CONSTANT_STRING:
+            case CONSTANT_METHOD_TYPE:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                return 2;
+            case CONSTANT_METHOD_HANDLE:
+                return 3;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                return 4;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                return 8;
+            default:
+                throw new IOException("Unknown constant pool tag: " + tag);
+        }
+    }
+}
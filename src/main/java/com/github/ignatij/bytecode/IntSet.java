@@ -0,0 +1,72 @@
+package com.github.ignatij.bytecode;
+
+import java.util.Arrays;
+
+/**
+ * A set of non-negative ints with open addressing, avoiding the boxing of a {@code Set<Integer>}.
+ */
+public class IntSet {
+    private static final int EMPTY = -1;
+
+    private int[] slots = emptySlots(16);
+    private int size;
+
+    public void add(int value) {
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        int mask = slots.length - 1;
+        int slot = mix(value) & mask;
+        while (slots[slot] != EMPTY) {
+            if (slots[slot] == value) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+        size++;
+    }
+
+    /**
+     * Empties the set, keeping its capacity.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(slots, EMPTY);
+            size = 0;
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[size];
+        int i = 0;
+        for (int slot : slots) {
+            if (slot != EMPTY) {
+                values[i++] = slot;
+            }
+        }
+        return values;
+    }
+
+    private void grow() {
+        int[] previous = slots;
+        slots = emptySlots(previous.length * 2);
+        size = 0;
+        for (int value : previous) {
+            if (value != EMPTY) {
+                add(value);
+            }
+        }
+    }
+
+    static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int[] emptySlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+}
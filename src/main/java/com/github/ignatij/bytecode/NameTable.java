@@ -0,0 +1,43 @@
+package com.github.ignatij.bytecode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns names to dense int ids, so the names read from many class files are kept once and compared as ints.
+ * Thread-safe: the ids are handed out under a lock, while the lookups of known names are lock-free.
+ */
+public class NameTable {
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (names) {
+            id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                names.add(name);
+                ids.put(name, id);
+            }
+            return id;
+        }
+    }
+
+    public String getName(int id) {
+        synchronized (names) {
+            return names.get(id);
+        }
+    }
+
+    public int size() {
+        synchronized (names) {
+            return names.size();
+        }
+    }
+}
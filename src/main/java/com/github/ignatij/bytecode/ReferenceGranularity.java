@@ -0,0 +1,9 @@
+package com.github.ignatij.bytecode;
+
+/**
+ * Whether the {@link ClassReferenceReader} reads the packages or the classes a class refers to.
+ */
+public enum ReferenceGranularity {
+    PACKAGE,
+    CLASS
+}
@@ -0,0 +1,82 @@
+package com.github.ignatij.file_tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Visits the files of a directory tree within a fork/join pool, forking a new scan for every subdirectory.
+ * A missing directory has no files. The I/O errors of the visitor are thrown again by {@link #join(ForkJoinTask)}.
+ */
+public class FileTreeScan extends RecursiveAction {
+
+    /**
+     * Visits the files of the scanned directories, from any of the threads of the pool.
+     */
+    public interface FileVisitor {
+        void visitFile(File file) throws IOException;
+
+        /**
+         * Called once the files of a directory were visited, with the time spent on that directory, where the time
+         * spent on its subdirectories is left out, as the joining thread runs other scans meanwhile.
+         */
+        default void directoryVisited(long nanos) {
+        }
+    }
+
+    private final File directory;
+    private final Predicate<String> fileNameFilter;
+    private final FileVisitor visitor;
+
+    /**
+     * @param fileNameFilter which of the files are visited, by their name
+     */
+    public FileTreeScan(File directory, Predicate<String> fileNameFilter, FileVisitor visitor) {
+        this.directory = directory;
+        this.fileNameFilter = fileNameFilter;
+        this.visitor = visitor;
+    }
+
+    /**
+     * Waits for the scan to complete, throwing the I/O error of the visitor, if any.
+     */
+    public static void join(ForkJoinTask<?> scan) throws IOException {
+        try {
+            scan.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    protected void compute() {
+        long start = System.nanoTime();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<FileTreeScan> subdirectoryScans = new ArrayList<>();
+        for (File file : files) {
+            if (file.isDirectory()) {
+                FileTreeScan subdirectoryScan = new FileTreeScan(file, fileNameFilter, visitor);
+                subdirectoryScan.fork();
+                subdirectoryScans.add(subdirectoryScan);
+            } else if (fileNameFilter.test(file.getName())) {
+                try {
+                    visitor.visitFile(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        visitor.directoryVisited(System.nanoTime() - start);
+        for (FileTreeScan subdirectoryScan : subdirectoryScans) {
+            subdirectoryScan.join();
+        }
+    }
+}
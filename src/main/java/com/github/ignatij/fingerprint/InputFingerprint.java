@@ -0,0 +1,192 @@
+package com.github.ignatij.fingerprint;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The fingerprint of the inputs of a run: the settings of the analysis, the content of the POM files,
+ * and the stamps of the files scanned for every module.
+ * <p>
+ * The POM files are the ones of the modules, of the aggregators in between and of their parents read from the file
+ * system, and the settings include the profiles and the user properties the module models are built with. A change in
+ * the module structure or in the dependencies between the modules changes one of these, unless it comes from a parent
+ * resolved from a repository, so a matching fingerprint means the previous report is still valid.
+ */
+public class InputFingerprint {
+    private static final int MAGIC = 0x444D4D46;
+    private static final int VERSION = 1;
+
+    public enum Violations {
+        NOT_CHECKED,
+        NONE,
+        FOUND
+    }
+
+    private final String settings;
+    private final Map<String, String> pomFiles;
+    private final Map<String, ModuleFingerprint> modules;
+    private final Violations violations;
+
+    /**
+     * @param settings   the settings of the analysis that change its results
+     * @param pomFiles   the digest of the content of every POM file, keyed by its path
+     * @param modules    the fingerprint of every module
+     * @param violations the outcome of the violation check
+     */
+    public InputFingerprint(String settings,
+                            Map<String, String> pomFiles,
+                            List<ModuleFingerprint> modules,
+                            Violations violations) {
+        this.settings = settings;
+        this.pomFiles = pomFiles;
+        this.modules = new LinkedHashMap<>();
+        for (ModuleFingerprint module : modules) {
+            this.modules.put(module.getPomFile(), module);
+        }
+        this.violations = violations;
+    }
+
+    /**
+     * @return the fingerprint of the previous run, or empty if there was none or it is unreadable
+     */
+    public static Optional<InputFingerprint> load(File fingerprintFile) {
+        if (!fingerprintFile.isFile()) {
+            return Optional.empty();
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(fingerprintFile.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return Optional.empty();
+            }
+            String settings = input.readUTF();
+            Violations violations = Violations.values()[input.readUnsignedByte()];
+            int pomFileCount = input.readInt();
+            Map<String, String> pomFiles = new LinkedHashMap<>();
+            for (int i = 0; i < pomFileCount; i++) {
+                pomFiles.put(input.readUTF(), input.readUTF());
+            }
+            int moduleCount = input.readInt();
+            List<ModuleFingerprint> modules = new ArrayList<>(moduleCount);
+            for (int i = 0; i < moduleCount; i++) {
+                String pomFile = input.readUTF();
+                int rootCount = input.readInt();
+                List<String> roots = new ArrayList<>(rootCount);
+                for (int j = 0; j < rootCount; j++) {
+                    roots.add(input.readUTF());
+                }
+                modules.add(new ModuleFingerprint(pomFile, roots, input.readUTF(), input.readDouble()));
+            }
+            return Optional.of(new InputFingerprint(settings, pomFiles, modules, violations));
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void save(File fingerprintFile) throws IOException {
+        Path target = fingerprintFile.toPath().toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), fingerprintFile.getName(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeUTF(settings);
+                output.writeByte(violations.ordinal());
+                output.writeInt(pomFiles.size());
+                for (Map.Entry<String, String> pomFile : pomFiles.entrySet()) {
+                    output.writeUTF(pomFile.getKey());
+                    output.writeUTF(pomFile.getValue());
+                }
+                output.writeInt(modules.size());
+                for (ModuleFingerprint module : modules.values()) {
+                    output.writeUTF(module.getPomFile());
+                    output.writeInt(module.getRoots().size());
+                    for (String root : module.getRoots()) {
+                        output.writeUTF(root);
+                    }
+                    output.writeUTF(module.getSourceStamp());
+                    output.writeDouble(module.getAbstraction());
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public Violations getViolations() {
+        return violations;
+    }
+
+    /**
+     * @return the paths of the POM files of the project, its modules and the aggregators in between
+     */
+    public Set<String> getPomFiles() {
+        return pomFiles.keySet();
+    }
+
+    /**
+     * @return whether none of the POM files changed since the fingerprint was taken
+     */
+    public boolean isModuleStructureUnchanged() throws IOException {
+        for (Map.Entry<String, String> pomFile : pomFiles.entrySet()) {
+            if (!SourceStamp.ofContent(Paths.get(pomFile.getKey())).equals(pomFile.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether none of the scanned files of any module changed since the fingerprint was taken
+     */
+    public boolean isSourcesUnchanged(String fileExtension) throws IOException {
+        for (ModuleFingerprint module : modules.values()) {
+            if (!SourceStamp.of(module.getRoots(), fileExtension).equals(module.getSourceStamp())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the abstraction level of the module, if the module was scanned with the same roots,
+     * regardless of whether its files changed since
+     */
+    public Optional<Double> getAbstraction(String pomFile, List<String> roots) {
+        ModuleFingerprint module = modules.get(pomFile);
+        if (module == null || !module.getRoots().equals(roots)) {
+            return Optional.empty();
+        }
+        return Optional.of(module.getAbstraction());
+    }
+
+    /**
+     * @return the abstraction level of the module, if the module was scanned with the same roots and the files are unchanged
+     */
+    public Optional<Double> getAbstraction(String pomFile, List<String> roots, String sourceStamp) {
+        ModuleFingerprint module = modules.get(pomFile);
+        if (module == null || !module.getRoots().equals(roots) || !Objects.equals(module.getSourceStamp(), sourceStamp)) {
+            return Optional.empty();
+        }
+        return Optional.of(module.getAbstraction());
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.ignatij.fingerprint;
+
+import java.util.List;
+
+/**
+ * The inputs of the abstraction level of a module, together with the abstraction level calculated out of them.
+ */
+public class ModuleFingerprint {
+    private final String pomFile;
+    private final List<String> roots;
+    private final String sourceStamp;
+    private final double abstraction;
+
+    public ModuleFingerprint(String pomFile, List<String> roots, String sourceStamp, double abstraction) {
+        this.pomFile = pomFile;
+        this.roots = roots;
+        this.sourceStamp = sourceStamp;
+        this.abstraction = abstraction;
+    }
+
+    public String getPomFile() {
+        return pomFile;
+    }
+
+    public List<String> getRoots() {
+        return roots;
+    }
+
+    public String getSourceStamp() {
+        return sourceStamp;
+    }
+
+    public double getAbstraction() {
+        return abstraction;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.ignatij.fingerprint;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Digests of the inputs of the analysis, calculated without reading the source files themselves.
+ */
+public final class SourceStamp {
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    private SourceStamp() {
+    }
+
+    /**
+     * @return a digest of the path, size and modification time of every file with the given extension under the roots
+     */
+    public static String of(List<String> roots, String fileExtension) throws IOException {
+        List<String> files = new ArrayList<>();
+        for (String root : roots) {
+            Path rootPath = Paths.get(root);
+            if (!Files.isDirectory(rootPath)) {
+                continue;
+            }
+            Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (file.getFileName().toString().endsWith(fileExtension)) {
+                        files.add(file + "\0" + attributes.size() + "\0" + attributes.lastModifiedTime().toMillis());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        // the order of the directory listings is not guaranteed
+        files.sort(null);
+        MessageDigest digest = newDigest();
+        for (String file : files) {
+            digest.update(file.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return a digest of the content of the file, or an empty string if the file does not exist
+     */
+    public static String ofContent(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return "";
+        }
+        return toHex(newDigest().digest(Files.readAllBytes(file)));
+    }
+
+    /**
+     * @return the size and the modification time of the file, or an empty string if the file does not exist
+     */
+    public static String ofAttributes(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return "";
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.ignatij.git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The ignore rules of the {@code .gitignore} files of the work tree and of {@code info/exclude}, with the patterns
+ * described in {@code gitignore(5)}. The global excludes file configured with {@code core.excludesFile} is not read.
+ */
+class GitIgnore {
+    private static final String IGNORE_FILE = ".gitignore";
+
+    private final Path workTree;
+    private final List<Rule> excludeRules;
+    private final Map<String, List<Rule>> rulesPerDirectory = new HashMap<>();
+
+    GitIgnore(Path workTree, Path commonDirectory) throws IOException {
+        this.workTree = workTree;
+        this.excludeRules = readRules(commonDirectory.resolve("info").resolve("exclude"), "");
+    }
+
+    /**
+     * The rules of the deepest directory take precedence, and within a file the last matching rule does. A path in an
+     * ignored directory is not checked here, so the directories have to be checked from the top.
+     *
+     * @param path the path relative to the work tree, separated by slashes
+     * @return whether the file or directory is ignored
+     */
+    boolean isIgnored(String path, boolean directory) throws IOException {
+        for (int slash = path.lastIndexOf('/'); ; slash = path.lastIndexOf('/', slash - 1)) {
+            String parent = slash < 0 ? "" : path.substring(0, slash + 1);
+            Boolean ignored = match(getRules(parent), path.substring(parent.length()), directory);
+            if (ignored != null) {
+                return ignored;
+            }
+            if (slash < 0) {
+                break;
+            }
+        }
+        Boolean ignored = match(excludeRules, path, directory);
+        return ignored != null && ignored;
+    }
+
+    /**
+     * @return whether the last matching rule ignores the path, or null if no rule matches
+     */
+    private static Boolean match(List<Rule> rules, String path, boolean directory) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        for (int i = rules.size() - 1; i >= 0; i--) {
+            Rule rule = rules.get(i);
+            if ((!rule.directoryOnly || directory) && rule.pattern.matcher(rule.anchored ? path : name).matches()) {
+                return !rule.negated;
+            }
+        }
+        return null;
+    }
+
+    private List<Rule> getRules(String directory) throws IOException {
+        List<Rule> rules = rulesPerDirectory.get(directory);
+        if (rules == null) {
+            rules = readRules(workTree.resolve(directory).resolve(IGNORE_FILE), directory);
+            rulesPerDirectory.put(directory, rules);
+        }
+        return rules;
+    }
+
+    private static List<Rule> readRules(Path file, String directory) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        List<Rule> rules = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            Rule rule = Rule.parse(line);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        return rules;
+    }
+
+    private static class Rule {
+        private final Pattern pattern;
+        private final boolean negated;
+        private final boolean directoryOnly;
+        /**
+         * Whether the pattern matches the path relative to the directory of its file, instead of the name at any level.
+         */
+        private final boolean anchored;
+
+        private Rule(Pattern pattern, boolean negated, boolean directoryOnly, boolean anchored) {
+            this.pattern = pattern;
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.anchored = anchored;
+        }
+
+        /**
+         * @return the rule of the line, or null for a blank line or a comment
+         */
+        private static Rule parse(String line) {
+            int end = line.length();
+            // the trailing spaces are ignored unless escaped
+            while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            String pattern = line.substring(0, end);
+            if (pattern.isEmpty() || pattern.startsWith("#")) {
+                return null;
+            }
+            boolean negated = pattern.startsWith("!");
+            if (negated) {
+                pattern = pattern.substring(1);
+            }
+            boolean directoryOnly = pattern.endsWith("/");
+            if (directoryOnly) {
+                pattern = pattern.substring(0, pattern.length() - 1);
+            }
+            boolean anchored = pattern.contains("/");
+            if (pattern.startsWith("/")) {
+                pattern = pattern.substring(1);
+            }
+            if (pattern.isEmpty()) {
+                return null;
+            }
+            return new Rule(Pattern.compile(toRegex(pattern)), negated, directoryOnly, anchored);
+        }
+
+        private static String toRegex(String pattern) {
+            StringBuilder regex = new StringBuilder();
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                if (pattern.startsWith("**/", i) && (i == 0 || pattern.charAt(i - 1) == '/')) {
+                    // any number of directories, including none
+                    regex.append("(?:.*/)?");
+                    i += 3;
+                } else if (pattern.startsWith("**", i) && i + 2 == pattern.length() && i > 0 && pattern.charAt(i - 1) == '/') {
+                    // everything inside the directory
+                    regex.append(".*");
+                    i += 2;
+                } else if (c == '*') {
+                    regex.append("[^/]*");
+                    i++;
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                    i++;
+                } else if (c == '[' && pattern.indexOf(']', i + 2) > 0) {
+                    int close = pattern.indexOf(']', i + 2);
+                    String characters = pattern.substring(i + 1, close);
+                    regex.append('[');
+                    if (characters.startsWith("!") || characters.startsWith("^")) {
+                        regex.append('^');
+                        characters = characters.substring(1);
+                    }
+                    regex.append(characters.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                    i = close + 1;
+                } else if (c == '\\' && i + 1 < pattern.length()) {
+                    regex.append(Pattern.quote(String.valueOf(pattern.charAt(i + 1))));
+                    i += 2;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                    i++;
+                }
+            }
+            return regex.toString();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.ignatij.git;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The entries of the index (the staging area) in the versions 2 to 4, with the stat data git recorded for
+ * every tracked file, so a file whose stat data is unchanged does not need to be read to know its object id.
+ */
+class GitIndex {
+    private static final int MAGIC = 0x44495243;
+    private static final int EXTENDED_FLAG = 0x4000;
+    private static final int GITLINK_MODE = 0xE000;
+
+    private final List<Entry> entries;
+
+    private GitIndex(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    static GitIndex read(Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return new GitIndex(List.of());
+        }
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        int version = index.getInt(4);
+        if (index.getInt(0) != MAGIC || version < 2 || version > 4) {
+            throw new IOException("Unsupported index " + indexFile);
+        }
+        int entryCount = index.getInt(8);
+        List<Entry> entries = new ArrayList<>(entryCount);
+        int position = 12;
+        byte[] previousPath = new byte[0];
+        for (int i = 0; i < entryCount; i++) {
+            int start = position;
+            long mtimeSeconds = Integer.toUnsignedLong(index.getInt(position + 8));
+            int mtimeNanos = index.getInt(position + 12);
+            int mode = index.getInt(position + 24);
+            long size = Integer.toUnsignedLong(index.getInt(position + 36));
+            String id = ObjectIds.toHex(index.array(), position + 40);
+            int flags = index.getShort(position + 60) & 0xFFFF;
+            position += 62;
+            if (version >= 3 && (flags & EXTENDED_FLAG) != 0) {
+                position += 2;
+            }
+            byte[] path;
+            if (version == 4) {
+                // the path is the previous path without its last bytes, followed by a new suffix
+                int next = index.get(position++) & 0xFF;
+                int removed = next & 0x7F;
+                while ((next & 0x80) != 0) {
+                    next = index.get(position++) & 0xFF;
+                    removed = ((removed + 1) << 7) | (next & 0x7F);
+                }
+                int end = ObjectDatabase.indexOf(index.array(), (byte) 0, position);
+                byte[] prefix = Arrays.copyOf(previousPath, previousPath.length - removed);
+                path = Arrays.copyOf(prefix, prefix.length + end - position);
+                System.arraycopy(index.array(), position, path, prefix.length, end - position);
+                position = end + 1;
+            } else {
+                int end = ObjectDatabase.indexOf(index.array(), (byte) 0, position);
+                path = Arrays.copyOfRange(index.array(), position, end);
+                // the entries are padded with 1 to 8 zero bytes to a multiple of 8 bytes
+                position = start + ((end - start + 8) & ~7);
+            }
+            previousPath = path;
+            int stage = (flags >> 12) & 0x3;
+            if ((mode & 0xF000) != GITLINK_MODE) {
+                entries.add(new Entry(new String(path, StandardCharsets.UTF_8), id, mtimeSeconds, mtimeNanos, size, stage));
+            }
+        }
+        return new GitIndex(entries);
+    }
+
+    /**
+     * @return the entries of the tracked files, without the submodules
+     */
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    static class Entry {
+        private final String path;
+        private final String id;
+        private final long mtimeSeconds;
+        private final int mtimeNanos;
+        private final long size;
+        private final int stage;
+
+        private Entry(String path, String id, long mtimeSeconds, int mtimeNanos, long size, int stage) {
+            this.path = path;
+            this.id = id;
+            this.mtimeSeconds = mtimeSeconds;
+            this.mtimeNanos = mtimeNanos;
+            this.size = size;
+            this.stage = stage;
+        }
+
+        /**
+         * @return the path of the file relative to the work tree, separated by slashes
+         */
+        String getPath() {
+            return path;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        /**
+         * @return whether the file has the modification time and size recorded in the index, where the size is
+         * compared in its lower 32 bits and the nanoseconds only when git recorded them
+         */
+        boolean isStatUnchanged(long fileMtimeSeconds, int fileMtimeNanos, long fileSize) {
+            return mtimeSeconds == fileMtimeSeconds
+                    && (mtimeNanos == 0 || mtimeNanos == fileMtimeNanos)
+                    && size == (fileSize & 0xFFFFFFFFL);
+        }
+
+        /**
+         * @return 0 for a merged file, or the side of a conflict
+         */
+        int getStage() {
+            return stage;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.ignatij.git;
+
+/**
+ * The type and the content of an object of the object database.
+ */
+class GitObject {
+    static final int COMMIT = 1;
+    static final int TREE = 2;
+    static final int BLOB = 3;
+    static final int TAG = 4;
+
+    private final int type;
+    private final byte[] content;
+
+    GitObject(int type, byte[] content) {
+        this.type = type;
+        this.content = content;
+    }
+
+    int getType() {
+        return type;
+    }
+
+    byte[] getContent() {
+        return content;
+    }
+}
@@ -0,0 +1,359 @@
+package com.github.ignatij.git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A git repository read directly from its {@code .git} directory, without running git or accessing the network.
+ * Supports the loose and packed references and objects, the alternate object directories, linked work trees,
+ * and the index in the versions 2 to 4.
+ */
+public class GitRepository {
+    private static final String GIT_DIRECTORY = ".git";
+    private static final Pattern ANCESTOR = Pattern.compile("([~^])(\\d*)");
+
+    private final Path workTree;
+    private final Path gitDirectory;
+    private final Path commonDirectory;
+    private final ObjectDatabase objects;
+
+    private GitRepository(Path workTree, Path gitDirectory, Path commonDirectory) throws IOException {
+        this.workTree = workTree;
+        this.gitDirectory = gitDirectory;
+        this.commonDirectory = commonDirectory;
+        this.objects = new ObjectDatabase(commonDirectory.resolve("objects"));
+    }
+
+    /**
+     * @return the repository whose work tree contains the directory, or empty if the directory is not part of any
+     */
+    public static Optional<GitRepository> find(Path directory) throws IOException {
+        for (Path current = directory.toAbsolutePath().normalize(); current != null; current = current.getParent()) {
+            Path git = current.resolve(GIT_DIRECTORY);
+            Path gitDirectory;
+            if (Files.isDirectory(git)) {
+                gitDirectory = git;
+            } else if (Files.isRegularFile(git)) {
+                // a linked work tree or a submodule, whose git directory is elsewhere
+                String content = new String(Files.readAllBytes(git), StandardCharsets.UTF_8).trim();
+                if (!content.startsWith("gitdir:")) {
+                    continue;
+                }
+                gitDirectory = current.resolve(content.substring("gitdir:".length()).trim()).normalize();
+            } else {
+                continue;
+            }
+            Path commonDirectoryFile = gitDirectory.resolve("commondir");
+            Path commonDirectory = Files.isRegularFile(commonDirectoryFile)
+                    ? gitDirectory.resolve(new String(Files.readAllBytes(commonDirectoryFile), StandardCharsets.UTF_8).trim()).normalize()
+                    : gitDirectory;
+            return Optional.of(new GitRepository(current, gitDirectory, commonDirectory));
+        }
+        return Optional.empty();
+    }
+
+    public Path getWorkTree() {
+        return workTree;
+    }
+
+    /**
+     * Compares the files of the work tree with the files of the commit, the same as {@code git diff --name-only <revision>}:
+     * the files that are not tracked are left out, see {@link #getUntrackedFiles(Collection)}.
+     *
+     * @param revision a commit id, a branch, a tag or another reference, optionally followed by {@code ~n} or {@code ^n}
+     * @return the absolute paths of the files added, modified or deleted in the work tree since the commit
+     * @throws IllegalArgumentException if the revision does not exist
+     */
+    public Set<Path> getChangedFiles(String revision) throws IOException {
+        Map<String, String> committedFiles = new HashMap<>();
+        readTree(getTree(resolve(revision)), "", committedFiles);
+
+        Path indexFile = gitDirectory.resolve("index");
+        // the files modified in the same second as the index are compared by their content, as git does
+        long indexSeconds = Files.isRegularFile(indexFile) ? Files.getLastModifiedTime(indexFile).toInstant().getEpochSecond() : 0;
+        Set<Path> changedFiles = new LinkedHashSet<>();
+        Set<String> trackedFiles = new HashSet<>();
+        for (GitIndex.Entry entry : GitIndex.read(indexFile).getEntries()) {
+            trackedFiles.add(entry.getPath());
+            Path file = workTree.resolve(entry.getPath());
+            if (entry.getStage() != 0 || !Objects.equals(getWorkTreeId(file, entry, indexSeconds), committedFiles.get(entry.getPath()))) {
+                changedFiles.add(file);
+            }
+        }
+        for (String committedFile : committedFiles.keySet()) {
+            if (!trackedFiles.contains(committedFile)) {
+                changedFiles.add(workTree.resolve(committedFile));
+            }
+        }
+        return changedFiles;
+    }
+
+    /**
+     * Finds the files that are neither tracked nor ignored, the same as {@code git ls-files --others --exclude-standard},
+     * without descending into the ignored directories.
+     *
+     * @param directories the directories to search, where the ones outside the work tree are left out
+     * @return the absolute paths of the untracked files
+     */
+    public Set<Path> getUntrackedFiles(Collection<Path> directories) throws IOException {
+        Set<String> trackedFiles = new HashSet<>();
+        for (GitIndex.Entry entry : GitIndex.read(gitDirectory.resolve("index")).getEntries()) {
+            trackedFiles.add(entry.getPath());
+        }
+        GitIgnore ignore = new GitIgnore(workTree, commonDirectory);
+        Set<Path> untrackedFiles = new LinkedHashSet<>();
+        for (Path directory : directories) {
+            Path absoluteDirectory = directory.toAbsolutePath().normalize();
+            if (!absoluteDirectory.startsWith(workTree) || !Files.isDirectory(absoluteDirectory)
+                    || isInIgnoredDirectory(ignore, absoluteDirectory)) {
+                continue;
+            }
+            Files.walkFileTree(absoluteDirectory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                    String path = toRelativePath(dir);
+                    if (path.equals(GIT_DIRECTORY) || path.endsWith("/" + GIT_DIRECTORY)
+                            || (!dir.equals(absoluteDirectory) && ignore.isIgnored(path, true))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    String path = toRelativePath(file);
+                    if (!trackedFiles.contains(path) && !ignore.isIgnored(path, false)) {
+                        untrackedFiles.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return untrackedFiles;
+    }
+
+    /**
+     * @return whether the directory or one of its parents inside the work tree is ignored
+     */
+    private boolean isInIgnoredDirectory(GitIgnore ignore, Path directory) throws IOException {
+        Path relativeDirectory = workTree.relativize(directory);
+        for (int i = 1; i <= relativeDirectory.getNameCount() && !relativeDirectory.toString().isEmpty(); i++) {
+            if (ignore.isIgnored(toRelativePath(workTree.resolve(relativeDirectory.subpath(0, i))), true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the path relative to the work tree, separated by slashes as in the index
+     */
+    private String toRelativePath(Path file) {
+        Path relativePath = workTree.relativize(file);
+        StringBuilder path = new StringBuilder();
+        for (Path name : relativePath) {
+            if (path.length() > 0) {
+                path.append('/');
+            }
+            path.append(name);
+        }
+        return path.toString();
+    }
+
+    /**
+     * @param revision a commit id, a branch, a tag or another reference, optionally followed by {@code ~n} or {@code ^n},
+     *                 where a commit id can be abbreviated to its first 4 or more digits as long as it is unique and
+     *                 no reference has the same name
+     * @return the id of the commit the revision points to
+     * @throws IllegalArgumentException if the revision does not exist
+     */
+    public String resolve(String revision) throws IOException {
+        Matcher ancestors = ANCESTOR.matcher(revision);
+        int nameEnd = ancestors.find() ? ancestors.start() : revision.length();
+        String name = revision.substring(0, nameEnd);
+        String id = ObjectIds.isHex(name) ? name.toLowerCase(Locale.ROOT) : resolveReference(name);
+        if (id == null && ObjectIds.isAbbreviatedHex(name)) {
+            id = resolveAbbreviatedId(name.toLowerCase(Locale.ROOT), revision);
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown revision " + revision);
+        }
+        id = peel(id);
+        ancestors.reset();
+        int position = nameEnd;
+        while (position < revision.length()) {
+            if (!ancestors.find(position) || ancestors.start() != position) {
+                throw new IllegalArgumentException("Unknown revision " + revision);
+            }
+            int count = ancestors.group(2).isEmpty() ? 1 : Integer.parseInt(ancestors.group(2));
+            if (ancestors.group(1).equals("~")) {
+                for (int i = 0; i < count; i++) {
+                    id = getParent(id, 1, revision);
+                }
+            } else if (count > 0) {
+                id = getParent(id, count, revision);
+            }
+            position = ancestors.end();
+        }
+        return id;
+    }
+
+    /**
+     * @return the id of the only object starting with the prefix, or null if there is none
+     * @throws IllegalArgumentException if several objects start with the prefix
+     */
+    private String resolveAbbreviatedId(String prefix, String revision) throws IOException {
+        Set<String> ids = objects.findIds(prefix);
+        if (ids.size() > 1) {
+            throw new IllegalArgumentException("Ambiguous revision " + revision + ", matching " + String.join(", ", ids));
+        }
+        return ids.isEmpty() ? null : ids.iterator().next();
+    }
+
+    private String resolveReference(String name) throws IOException {
+        List<String> candidates = List.of(name, "refs/" + name, "refs/tags/" + name, "refs/heads/" + name,
+                "refs/remotes/" + name, "refs/remotes/" + name + "/HEAD");
+        for (String candidate : candidates) {
+            String id = readReference(candidate, 0);
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the id the reference points to, following the symbolic references, or null if it does not exist
+     */
+    private String readReference(String reference, int depth) throws IOException {
+        if (depth > 5) {
+            throw new IOException("Too many levels of symbolic references at " + reference);
+        }
+        for (Path directory : List.of(gitDirectory, commonDirectory)) {
+            Path file = directory.resolve(reference);
+            if (Files.isRegularFile(file)) {
+                String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+                if (content.startsWith("ref:")) {
+                    return readReference(content.substring("ref:".length()).trim(), depth + 1);
+                }
+                return ObjectIds.isHex(content) ? content : null;
+            }
+        }
+        Path packedReferences = commonDirectory.resolve("packed-refs");
+        if (Files.isRegularFile(packedReferences)) {
+            for (String line : Files.readAllLines(packedReferences, StandardCharsets.UTF_8)) {
+                if (line.length() > 41 && line.charAt(40) == ' ' && line.substring(41).equals(reference)) {
+                    return line.substring(0, 40);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the commit an annotated tag points to, or the id itself when it is not a tag
+     */
+    private String peel(String id) throws IOException {
+        GitObject object = objects.read(ObjectIds.fromHex(id));
+        while (object.getType() == GitObject.TAG) {
+            id = getHeader(object, "object", 1);
+            object = objects.read(ObjectIds.fromHex(id));
+        }
+        if (object.getType() != GitObject.COMMIT) {
+            throw new IllegalArgumentException(id + " is not a commit");
+        }
+        return id;
+    }
+
+    private String getParent(String commit, int n, String revision) throws IOException {
+        String parent = getHeader(objects.read(ObjectIds.fromHex(commit), GitObject.COMMIT), "parent", n);
+        if (parent == null) {
+            throw new IllegalArgumentException("Unknown revision " + revision);
+        }
+        return parent;
+    }
+
+    private String getTree(String commit) throws IOException {
+        return getHeader(objects.read(ObjectIds.fromHex(commit), GitObject.COMMIT), "tree", 1);
+    }
+
+    /**
+     * @return the value of the {@code n}-th header with the name, or null if there are fewer
+     */
+    private static String getHeader(GitObject object, String name, int n) {
+        String content = new String(object.getContent(), StandardCharsets.UTF_8);
+        int found = 0;
+        for (String line : content.split("\n")) {
+            if (line.isEmpty()) {
+                // the message follows the headers
+                break;
+            }
+            if (line.startsWith(name + " ") && ++found == n) {
+                return line.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collects the id of every file of the tree, keyed by its path, leaving out the submodules.
+     */
+    private void readTree(String tree, String prefix, Map<String, String> files) throws IOException {
+        byte[] content = objects.read(ObjectIds.fromHex(tree), GitObject.TREE).getContent();
+        int position = 0;
+        while (position < content.length) {
+            int space = ObjectDatabase.indexOf(content, (byte) ' ', position);
+            int end = ObjectDatabase.indexOf(content, (byte) 0, space);
+            String mode = new String(content, position, space - position, StandardCharsets.US_ASCII);
+            String path = prefix + new String(content, space + 1, end - space - 1, StandardCharsets.UTF_8);
+            String id = ObjectIds.toHex(content, end + 1);
+            position = end + 21;
+            if (mode.equals("40000")) {
+                readTree(id, path + "/", files);
+            } else if (!mode.equals("160000")) {
+                files.put(path, id);
+            }
+        }
+    }
+
+    /**
+     * @return the id of the file in the work tree, taken from the index when its stat data is unchanged,
+     * or null if the file does not exist
+     */
+    private static String getWorkTreeId(Path file, GitIndex.Entry entry, long indexSeconds) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return null;
+        }
+        Instant modified = attributes.lastModifiedTime().toInstant();
+        if (entry.isStatUnchanged(modified.getEpochSecond(), modified.getNano(), attributes.size())
+                && modified.getEpochSecond() < indexSeconds) {
+            return entry.getId();
+        }
+        if (attributes.isSymbolicLink()) {
+            return ObjectIds.ofBlob(Files.readSymbolicLink(file).toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return attributes.isRegularFile() ? ObjectIds.ofBlob(Files.readAllBytes(file)) : null;
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.ignatij.git;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads the objects of a repository out of the loose objects and the pack files of its object directories,
+ * including the alternate object directories.
+ */
+class ObjectDatabase {
+    private static final String[] TYPES = {"", "commit", "tree", "blob", "tag"};
+
+    private final List<Path> objectDirectories = new ArrayList<>();
+    private List<PackFile> packFiles;
+
+    ObjectDatabase(Path objectDirectory) throws IOException {
+        objectDirectories.add(objectDirectory);
+        Path alternates = objectDirectory.resolve("info").resolve("alternates");
+        if (Files.isRegularFile(alternates)) {
+            for (String alternate : Files.readAllLines(alternates, StandardCharsets.UTF_8)) {
+                if (!alternate.isEmpty() && !alternate.startsWith("#")) {
+                    objectDirectories.add(objectDirectory.resolve(alternate).normalize());
+                }
+            }
+        }
+    }
+
+    GitObject read(byte[] id) throws IOException {
+        String hex = ObjectIds.toHex(id);
+        for (Path objectDirectory : objectDirectories) {
+            Path looseObject = objectDirectory.resolve(hex.substring(0, 2)).resolve(hex.substring(2));
+            if (Files.isRegularFile(looseObject)) {
+                return readLooseObject(looseObject);
+            }
+        }
+        for (PackFile packFile : getPackFiles()) {
+            long offset = packFile.findOffset(id);
+            if (offset >= 0) {
+                return packFile.read(offset, this);
+            }
+        }
+        throw new IOException("Missing object " + hex);
+    }
+
+    /**
+     * @param prefix the first hexadecimal digits of an id, in lower case, at least 2 of them
+     * @return the ids of the loose and packed objects starting with the prefix
+     */
+    Set<String> findIds(String prefix) throws IOException {
+        Set<String> ids = new TreeSet<>();
+        for (Path objectDirectory : objectDirectories) {
+            Path fanOutDirectory = objectDirectory.resolve(prefix.substring(0, 2));
+            if (!Files.isDirectory(fanOutDirectory)) {
+                continue;
+            }
+            try (DirectoryStream<Path> looseObjects = Files.newDirectoryStream(fanOutDirectory, prefix.substring(2) + "*")) {
+                for (Path looseObject : looseObjects) {
+                    String id = prefix.substring(0, 2) + looseObject.getFileName();
+                    if (ObjectIds.isHex(id)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        for (PackFile packFile : getPackFiles()) {
+            packFile.findIds(prefix, ids);
+        }
+        return ids;
+    }
+
+    GitObject read(byte[] id, int expectedType) throws IOException {
+        GitObject object = read(id);
+        if (object.getType() != expectedType) {
+            throw new IOException(String.format("Object %s is a %s, not a %s",
+                    ObjectIds.toHex(id), TYPES[object.getType()], TYPES[expectedType]));
+        }
+        return object;
+    }
+
+    /**
+     * Reads a loose object, made of a header with the type and the size, followed by the content, compressed together.
+     */
+    private static GitObject readLooseObject(Path looseObject) throws IOException {
+        byte[] object;
+        try (InputStream input = new InflaterInputStream(Files.newInputStream(looseObject))) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            input.transferTo(output);
+            object = output.toByteArray();
+        }
+        int space = indexOf(object, (byte) ' ', 0);
+        int end = indexOf(object, (byte) 0, space);
+        if (space < 0 || end < 0) {
+            throw new IOException("Corrupt object " + looseObject);
+        }
+        String type = new String(object, 0, space, StandardCharsets.US_ASCII);
+        for (int i = 1; i < TYPES.length; i++) {
+            if (TYPES[i].equals(type)) {
+                byte[] content = new byte[object.length - end - 1];
+                System.arraycopy(object, end + 1, content, 0, content.length);
+                return new GitObject(i, content);
+            }
+        }
+        throw new IOException("Unknown object type " + type + " of " + looseObject);
+    }
+
+    private List<PackFile> getPackFiles() throws IOException {
+        if (packFiles == null) {
+            List<PackFile> packs = new ArrayList<>();
+            for (Path objectDirectory : objectDirectories) {
+                Path packDirectory = objectDirectory.resolve("pack");
+                if (!Files.isDirectory(packDirectory)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> indexFiles = Files.newDirectoryStream(packDirectory, "*.idx")) {
+                    for (Path indexFile : indexFiles) {
+                        String name = indexFile.getFileName().toString();
+                        Path packFile = packDirectory.resolve(name.substring(0, name.length() - ".idx".length()) + ".pack");
+                        if (Files.isRegularFile(packFile)) {
+                            packs.add(PackFile.open(indexFile, packFile));
+                        }
+                    }
+                }
+            }
+            packFiles = packs;
+        }
+        return packFiles;
+    }
+
+    static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = Math.max(from, 0); i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
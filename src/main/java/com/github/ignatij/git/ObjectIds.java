@@ -0,0 +1,69 @@
+package com.github.ignatij.git;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Conversions of the 20 byte SHA-1 object ids.
+ */
+final class ObjectIds {
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+    private static final int MIN_ABBREVIATED_LENGTH = 4;
+
+    private ObjectIds() {
+    }
+
+    static boolean isHex(String value) {
+        return value.length() == 40 && isHexDigits(value);
+    }
+
+    /**
+     * @return whether the value can be the abbreviation of an id, made of 4 to 40 hexadecimal digits as in git
+     */
+    static boolean isAbbreviatedHex(String value) {
+        return value.length() >= MIN_ABBREVIATED_LENGTH && value.length() <= 40 && isHexDigits(value);
+    }
+
+    private static boolean isHexDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static byte[] fromHex(String hex) {
+        byte[] id = new byte[20];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = (byte) ((Character.digit(hex.charAt(i * 2), 16) << 4) | Character.digit(hex.charAt(i * 2 + 1), 16));
+        }
+        return id;
+    }
+
+    static String toHex(byte[] bytes) {
+        return toHex(bytes, 0);
+    }
+
+    static String toHex(byte[] bytes, int offset) {
+        StringBuilder hex = new StringBuilder(40);
+        for (int i = offset; i < offset + 20; i++) {
+            hex.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16)).append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @return the id of a blob with the content, as calculated by {@code git hash-object}
+     */
+    static String ofBlob(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return toHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.github.ignatij.git;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A pack file together with its version 2 index, both memory-mapped.
+ */
+class PackFile {
+    private static final int INDEX_MAGIC = 0xFF744F63;
+    private static final int PACK_MAGIC = 0x5041434B;
+    private static final int OFS_DELTA = 6;
+    private static final int REF_DELTA = 7;
+    private static final int MAX_CACHED_BASES = 256;
+
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer pack;
+    private final int objectCount;
+    private final Path packFile;
+    // the recently read objects by their offset, as the same bases are read again for every delta of a chain
+    private final Map<Long, GitObject> cachedBases = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GitObject> eldest) {
+            return size() > MAX_CACHED_BASES;
+        }
+    };
+
+    private PackFile(MappedByteBuffer index, MappedByteBuffer pack, Path packFile) {
+        this.index = index;
+        this.pack = pack;
+        this.objectCount = index.getInt(8 + 255 * 4);
+        this.packFile = packFile;
+    }
+
+    static PackFile open(Path indexFile, Path packFile) throws IOException {
+        MappedByteBuffer index = map(indexFile);
+        if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != 2) {
+            throw new IOException("Unsupported pack index " + indexFile);
+        }
+        MappedByteBuffer pack = map(packFile);
+        if (pack.getInt(0) != PACK_MAGIC) {
+            throw new IOException("Not a pack file " + packFile);
+        }
+        return new PackFile(index, pack, packFile);
+    }
+
+    /**
+     * @return the offset of the object in the pack, or -1 if the pack does not contain the object
+     */
+    long findOffset(byte[] id) {
+        int first = id[0] & 0xFF;
+        int low = first == 0 ? 0 : index.getInt(8 + (first - 1) * 4);
+        int high = index.getInt(8 + first * 4) - 1;
+        int idsStart = 8 + 256 * 4;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(idsStart + middle * 20, id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                int offsetsStart = idsStart + objectCount * 24;
+                int offset = index.getInt(offsetsStart + middle * 4);
+                if (offset >= 0) {
+                    return offset;
+                }
+                // the offsets above 2 GB are kept in a separate table of 8 byte offsets
+                return index.getLong(offsetsStart + objectCount * 4 + (offset & 0x7FFFFFFF) * 8);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param prefix the first hexadecimal digits of the ids, in lower case
+     * @param ids receives the ids of the objects of the pack starting with the prefix
+     */
+    void findIds(String prefix, Set<String> ids) {
+        byte[] lowestId = ObjectIds.fromHex(prefix + "0".repeat(40 - prefix.length()));
+        int first = lowestId[0] & 0xFF;
+        int low = first == 0 ? 0 : index.getInt(8 + (first - 1) * 4);
+        int high = index.getInt(8 + first * 4);
+        int idsStart = 8 + 256 * 4;
+        // the first id not lower than the prefix followed by zeros
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(idsStart + middle * 20, lowestId) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        byte[] id = new byte[20];
+        for (int i = low; i < objectCount; i++) {
+            ((ByteBuffer) index.duplicate().position(idsStart + i * 20)).get(id);
+            String hex = ObjectIds.toHex(id);
+            if (!hex.startsWith(prefix)) {
+                break;
+            }
+            ids.add(hex);
+        }
+    }
+
+    /**
+     * @param database where the base objects of the deltas referring to their id are read from
+     */
+    GitObject read(long offset, ObjectDatabase database) throws IOException {
+        int position = (int) offset;
+        int header = pack.get(position++) & 0xFF;
+        int type = (header >> 4) & 0x7;
+        long size = header & 0xF;
+        int shift = 4;
+        while ((header & 0x80) != 0) {
+            header = pack.get(position++) & 0xFF;
+            size |= (long) (header & 0x7F) << shift;
+            shift += 7;
+        }
+        if (type == OFS_DELTA) {
+            int next = pack.get(position++) & 0xFF;
+            long distance = next & 0x7F;
+            while ((next & 0x80) != 0) {
+                next = pack.get(position++) & 0xFF;
+                distance = ((distance + 1) << 7) | (next & 0x7F);
+            }
+            GitObject base = readBase(offset - distance, database);
+            return new GitObject(base.getType(), applyDelta(base.getContent(), inflate(position, size)));
+        }
+        if (type == REF_DELTA) {
+            byte[] baseId = new byte[20];
+            ((ByteBuffer) pack.duplicate().position(position)).get(baseId);
+            GitObject base = database.read(baseId);
+            return new GitObject(base.getType(), applyDelta(base.getContent(), inflate(position + 20, size)));
+        }
+        return new GitObject(type, inflate(position, size));
+    }
+
+    private GitObject readBase(long offset, ObjectDatabase database) throws IOException {
+        GitObject base = cachedBases.get(offset);
+        if (base == null) {
+            base = read(offset, database);
+            cachedBases.put(offset, base);
+        }
+        return base;
+    }
+
+    private byte[] inflate(int position, long size) throws IOException {
+        byte[] content = new byte[Math.toIntExact(size)];
+        Inflater inflater = new Inflater();
+        try {
+            ByteBuffer input = pack.duplicate();
+            input.position(position);
+            inflater.setInput(input);
+            int length = 0;
+            while (length < content.length && !inflater.finished()) {
+                int inflated = inflater.inflate(content, length, content.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != content.length) {
+                throw new IOException("Truncated object in " + packFile);
+            }
+            return content;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt object in " + packFile, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Builds the object out of its base and a delta of copy and insert instructions.
+     */
+    private byte[] applyDelta(byte[] base, byte[] delta) throws IOException {
+        int[] position = {0};
+        readSize(delta, position);
+        byte[] result = new byte[Math.toIntExact(readSize(delta, position))];
+        int length = 0;
+        int i = position[0];
+        while (i < delta.length) {
+            int instruction = delta[i++] & 0xFF;
+            if ((instruction & 0x80) != 0) {
+                int copyOffset = 0;
+                int copySize = 0;
+                for (int bit = 0; bit < 4; bit++) {
+                    if ((instruction & (1 << bit)) != 0) {
+                        copyOffset |= (delta[i++] & 0xFF) << (bit * 8);
+                    }
+                }
+                for (int bit = 0; bit < 3; bit++) {
+                    if ((instruction & (0x10 << bit)) != 0) {
+                        copySize |= (delta[i++] & 0xFF) << (bit * 8);
+                    }
+                }
+                if (copySize == 0) {
+                    copySize = 0x10000;
+                }
+                System.arraycopy(base, copyOffset, result, length, copySize);
+                length += copySize;
+            } else if (instruction != 0) {
+                System.arraycopy(delta, i, result, length, instruction);
+                i += instruction;
+                length += instruction;
+            } else {
+                throw new IOException("Corrupt delta in " + packFile);
+            }
+        }
+        return length == result.length ? result : Arrays.copyOf(result, length);
+    }
+
+    private static long readSize(byte[] delta, int[] position) {
+        long size = 0;
+        int shift = 0;
+        int next;
+        do {
+            next = delta[position[0]++] & 0xFF;
+            size |= (long) (next & 0x7F) << shift;
+            shift += 7;
+        } while ((next & 0x80) != 0);
+        return size;
+    }
+
+    private int compare(int position, byte[] id) {
+        for (int i = 0; i < 20; i++) {
+            int difference = (index.get(position + i) & 0xFF) - (id[i] & 0xFF);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Pack files larger than 2 GB are not supported: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+}
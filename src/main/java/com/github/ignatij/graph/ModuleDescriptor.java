@@ -0,0 +1,99 @@
+package com.github.ignatij.graph;
+
+import org.apache.maven.project.MavenProject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The few properties of a module the analysis needs, copied out of its model, so the model itself can be released.
+ */
+public final class ModuleDescriptor {
+    private final String name;
+    private final String artifactId;
+    private final String pomFile;
+    private final String basedir;
+    private final List<String> compileSourceRoots;
+    private final String outputDirectory;
+    private final List<String> parentPomFiles;
+
+    public ModuleDescriptor(String name,
+                            String artifactId,
+                            String pomFile,
+                            String basedir,
+                            List<String> compileSourceRoots,
+                            String outputDirectory,
+                            List<String> parentPomFiles) {
+        this.name = name;
+        this.artifactId = artifactId;
+        this.pomFile = pomFile;
+        this.basedir = basedir;
+        this.compileSourceRoots = List.copyOf(compileSourceRoots);
+        this.outputDirectory = outputDirectory;
+        this.parentPomFiles = List.copyOf(parentPomFiles);
+    }
+
+    public static ModuleDescriptor of(MavenProject mavenProject) {
+        return new ModuleDescriptor(mavenProject.getName(),
+                mavenProject.getArtifactId(),
+                mavenProject.getFile() != null ? mavenProject.getFile().toPath().toAbsolutePath().toString() : null,
+                mavenProject.getBasedir() != null ? mavenProject.getBasedir().toPath().toAbsolutePath().toString() : null,
+                mavenProject.getCompileSourceRoots(),
+                mavenProject.getBuild().getOutputDirectory(),
+                getParentPomFiles(mavenProject));
+    }
+
+    /**
+     * @return the absolute paths of the POM files of the parents read from the file system, from the closest one,
+     * up to the first parent resolved from a repository
+     */
+    public static List<String> getParentPomFiles(MavenProject mavenProject) {
+        List<String> parentPomFiles = new ArrayList<>();
+        for (MavenProject child = mavenProject; child != null && child.getParentFile() != null; child = child.getParent()) {
+            parentPomFiles.add(child.getParentFile().toPath().toAbsolutePath().normalize().toString());
+        }
+        return parentPomFiles;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    /**
+     * @return the absolute path of the POM file of the module
+     */
+    public String getPomFile() {
+        return pomFile;
+    }
+
+    /**
+     * @return the absolute path of the directory of the module
+     */
+    public String getBasedir() {
+        return basedir;
+    }
+
+    public List<String> getCompileSourceRoots() {
+        return compileSourceRoots;
+    }
+
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * @return the absolute paths of the POM files of the parents of the module read from the file system
+     */
+    public List<String> getParentPomFiles() {
+        return parentPomFiles;
+    }
+
+    @Override
+    public String toString() {
+        return artifactId;
+    }
+}
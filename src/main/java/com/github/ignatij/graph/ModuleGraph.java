@@ -0,0 +1,137 @@
+package com.github.ignatij.graph;
+
+import org.apache.maven.project.MavenProject;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The modules and the dependencies between them in a compact form: the modules are indexed from 0 in the order of
+ * the project graph they were created from, with a {@link ModuleDescriptor} each, and the dependencies are kept as
+ * the indexes of the modules depended on, in one array per graph (compressed sparse rows).
+ * <p>
+ * The dependencies are resolved by artifact id, where the first module with an artifact id stands for all the modules
+ * with that artifact id, and the dependencies on artifacts outside the graph are only counted.
+ * Once created, the graph keeps no reference to the Maven models of the modules.
+ */
+public final class ModuleGraph {
+    private final ModuleDescriptor[] modules;
+    // the first module with the same artifact id as every module
+    private final int[] artifactModules;
+    // the dependencies of module i are dependencies[dependencyOffsets[i]] to dependencies[dependencyOffsets[i + 1] - 1]
+    private final int[] dependencyOffsets;
+    private final int[] dependencies;
+    private final int[] declaredDependencies;
+    private final Map<String, Integer> moduleIndex;
+
+    private ModuleGraph(ModuleDescriptor[] modules,
+                        int[] artifactModules,
+                        int[] dependencyOffsets,
+                        int[] dependencies,
+                        int[] declaredDependencies,
+                        Map<String, Integer> moduleIndex) {
+        this.modules = modules;
+        this.artifactModules = artifactModules;
+        this.dependencyOffsets = dependencyOffsets;
+        this.dependencies = dependencies;
+        this.declaredDependencies = declaredDependencies;
+        this.moduleIndex = moduleIndex;
+    }
+
+    /**
+     * @param projectGraph the artifact ids of the dependencies of every module
+     */
+    public static ModuleGraph of(Map<MavenProject, List<String>> projectGraph) {
+        int size = projectGraph.size();
+        ModuleDescriptor[] modules = new ModuleDescriptor[size];
+        int[] artifactModules = new int[size];
+        Map<String, Integer> moduleIndex = new HashMap<>();
+        int i = 0;
+        int declaredDependencyCount = 0;
+        for (Map.Entry<MavenProject, List<String>> module : projectGraph.entrySet()) {
+            modules[i] = ModuleDescriptor.of(module.getKey());
+            Integer artifactModule = moduleIndex.putIfAbsent(modules[i].getArtifactId(), i);
+            artifactModules[i] = artifactModule != null ? artifactModule : i;
+            declaredDependencyCount += module.getValue().size();
+            i++;
+        }
+
+        int[] dependencyOffsets = new int[size + 1];
+        int[] dependencies = new int[declaredDependencyCount];
+        int[] declaredDependencies = new int[size];
+        int offset = 0;
+        i = 0;
+        for (List<String> moduleDependencies : projectGraph.values()) {
+            dependencyOffsets[i] = offset;
+            declaredDependencies[i] = moduleDependencies.size();
+            for (String dependency : moduleDependencies) {
+                Integer dependencyIndex = moduleIndex.get(dependency);
+                if (dependencyIndex != null) {
+                    dependencies[offset++] = dependencyIndex;
+                }
+            }
+            i++;
+        }
+        dependencyOffsets[size] = offset;
+        return new ModuleGraph(modules, artifactModules, dependencyOffsets, Arrays.copyOf(dependencies, offset),
+                declaredDependencies, moduleIndex);
+    }
+
+    public int size() {
+        return modules.length;
+    }
+
+    public ModuleDescriptor getModule(int module) {
+        return modules[module];
+    }
+
+    public List<ModuleDescriptor> getModules() {
+        return Collections.unmodifiableList(Arrays.asList(modules));
+    }
+
+    /**
+     * @return the index of the first module with the artifact id, or -1 if there is none
+     */
+    public int indexOf(String artifactId) {
+        return moduleIndex.getOrDefault(artifactId, -1);
+    }
+
+    /**
+     * @return the first module with the same artifact id as the module, which is the module itself unless an
+     * earlier module has the same artifact id
+     */
+    public int getArtifactModule(int module) {
+        return artifactModules[module];
+    }
+
+    /**
+     * @return the number of dependencies of the module on the modules of the graph
+     */
+    public int getDependencyCount(int module) {
+        return dependencyOffsets[module + 1] - dependencyOffsets[module];
+    }
+
+    /**
+     * @return the index of the {@code n}-th dependency of the module on the modules of the graph
+     */
+    public int getDependency(int module, int n) {
+        return dependencies[dependencyOffsets[module] + n];
+    }
+
+    /**
+     * @return the indexes of the modules the module depends on
+     */
+    public int[] getDependencies(int module) {
+        return Arrays.copyOfRange(dependencies, dependencyOffsets[module], dependencyOffsets[module + 1]);
+    }
+
+    /**
+     * @return the number of dependencies declared by the module, including the ones on artifacts outside the graph
+     */
+    public int getDeclaredDependencyCount(int module) {
+        return declaredDependencies[module];
+    }
+}
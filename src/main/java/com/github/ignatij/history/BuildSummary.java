@@ -0,0 +1,59 @@
+package com.github.ignatij.history;
+
+/**
+ * The statistics of the distance from the main sequence of the components of a build in the {@link MetricsHistory}.
+ */
+public class BuildSummary {
+    private final long timestamp;
+    private final int componentCount;
+    private final double mean;
+    private final double variance;
+    private final double median;
+    private final double p90;
+    private final double p99;
+
+    BuildSummary(long timestamp, int componentCount, double mean, double variance, double median, double p90, double p99) {
+        this.timestamp = timestamp;
+        this.componentCount = componentCount;
+        this.mean = mean;
+        this.variance = variance;
+        this.median = median;
+        this.p90 = p90;
+        this.p99 = p99;
+    }
+
+    /**
+     * @return the time of the build in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getVariance() {
+        return variance;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(variance);
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+}
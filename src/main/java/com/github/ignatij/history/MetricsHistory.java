@@ -0,0 +1,359 @@
+package com.github.ignatij.history;
+
+import com.github.ignatij.statistic.DistanceStatistics;
+import com.github.ignatij.statistic.Point;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * The metrics of the past builds, kept in an append-only file of fixed-width records together with a file of the
+ * component names, so a build only appends its own records and the history of thousands of builds is read by
+ * mapping the file into memory, without parsing it.
+ * <p>
+ * Every record is 32 bytes long and starts with a tag. A build is a {@code BUILD} record with the time of the build,
+ * the number of components and the mean and the variance of the distance from the main sequence, followed by
+ * a {@code QUANTILES} record with the 50th, 90th and 99th percentiles of the distance, and by one record per component
+ * with the id of its name, its instability, its abstraction level and its distance. The names are interned:
+ * the id of a name is its line in the names file, which only grows by the names not seen before.
+ */
+public class MetricsHistory {
+    private static final int MAGIC = 0x444D4D48;
+    private static final int VERSION = 1;
+    private static final int RECORD_SIZE = 32;
+    private static final int BUILD = -1;
+    private static final int QUANTILES = -2;
+    private static final String NAMES_FILE_EXTENSION = ".names";
+
+    private final ByteBuffer records;
+    private final int[] buildOffsets;
+    private final List<String> names;
+    private final Map<String, Integer> nameIds;
+
+    private MetricsHistory(ByteBuffer records, int[] buildOffsets, List<String> names) {
+        this.records = records;
+        this.buildOffsets = buildOffsets;
+        this.names = names;
+        this.nameIds = new HashMap<>();
+        for (int id = 0; id < names.size(); id++) {
+            nameIds.put(names.get(id), id);
+        }
+    }
+
+    /**
+     * @return the builds of the history, or an empty history if the file does not exist
+     * @throws IOException if the file is not a metrics history, or does not match its names file
+     */
+    public static MetricsHistory read(File historyFile) throws IOException {
+        Path recordsFile = historyFile.toPath();
+        if (!Files.isRegularFile(recordsFile)) {
+            return new MetricsHistory(ByteBuffer.allocate(0), new int[0], List.of());
+        }
+        ByteBuffer records;
+        try (FileChannel channel = FileChannel.open(recordsFile, StandardOpenOption.READ)) {
+            records = map(channel, historyFile);
+        }
+        int[] buildOffsets = findBuilds(records, historyFile);
+        List<String> names = readNames(getNamesFile(historyFile));
+        // the end of the last complete build is kept after its offset
+        buildOffsets = Arrays.copyOf(buildOffsets, buildOffsets.length - 1);
+        checkNameIds(records, buildOffsets, names.size(), historyFile);
+        return new MetricsHistory(records, buildOffsets, names);
+    }
+
+    /**
+     * Appends a build with the metrics of the components, creating the files when they do not exist. The records of
+     * a build that was interrupted while being appended are replaced, and concurrent builds append one after the other.
+     *
+     * @param timestamp the time of the build in milliseconds since the epoch
+     */
+    public static void append(File historyFile, long timestamp, List<Point> points, DistanceStatistics statistics) throws IOException {
+        Path recordsFile = historyFile.toPath().toAbsolutePath();
+        Files.createDirectories(recordsFile.getParent());
+        try (FileChannel channel = FileChannel.open(recordsFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            long end;
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(RECORD_SIZE).putInt(MAGIC).putInt(VERSION);
+                writeFully(channel, (ByteBuffer) header.position(RECORD_SIZE).flip(), 0);
+                end = RECORD_SIZE;
+            } else {
+                end = findEnd(channel, historyFile);
+                if (end < channel.size()) {
+                    channel.truncate(end);
+                }
+            }
+            // the new names are appended before the records referring to them
+            int[] ids = internNames(getNamesFile(historyFile), points);
+            ByteBuffer build = ByteBuffer.allocate((2 + points.size()) * RECORD_SIZE);
+            build.putInt(BUILD).putInt(points.size()).putLong(timestamp)
+                    .putDouble(statistics.getMean()).putDouble(statistics.getVariance());
+            build.putInt(QUANTILES).putInt(0)
+                    .putDouble(statistics.getQuantile(0.5)).putDouble(statistics.getQuantile(0.9)).putDouble(statistics.getQuantile(0.99));
+            for (int i = 0; i < points.size(); i++) {
+                Point point = points.get(i);
+                build.putInt(ids[i]).putInt(0).putDouble(point.getX()).putDouble(point.getY()).putDouble(point.distance());
+            }
+            writeFully(channel, (ByteBuffer) build.flip(), end);
+        }
+    }
+
+    /**
+     * @return the number of builds, ordered from the oldest to the latest one
+     */
+    public int size() {
+        return buildOffsets.length;
+    }
+
+    public BuildSummary getSummary(int build) {
+        int offset = buildOffsets[build];
+        return new BuildSummary(records.getLong(offset + 8),
+                records.getInt(offset + 4),
+                records.getDouble(offset + 16),
+                records.getDouble(offset + 24),
+                records.getDouble(offset + RECORD_SIZE + 8),
+                records.getDouble(offset + RECORD_SIZE + 16),
+                records.getDouble(offset + RECORD_SIZE + 24));
+    }
+
+    /**
+     * @return the instability and the abstraction level of every component of the build, in the order they were analysed
+     */
+    public List<Point> getPoints(int build) {
+        int offset = buildOffsets[build];
+        int componentCount = records.getInt(offset + 4);
+        List<Point> points = new ArrayList<>(componentCount);
+        for (int i = 0; i < componentCount; i++) {
+            int record = offset + (2 + i) * RECORD_SIZE;
+            points.add(new Point(names.get(records.getInt(record)), records.getDouble(record + 8), records.getDouble(record + 16)));
+        }
+        return points;
+    }
+
+    /**
+     * @return the distance of the component from the main sequence in the build, or empty if it was not part of the build
+     */
+    public OptionalDouble getDistance(int build, String component) {
+        Integer id = nameIds.get(component);
+        if (id == null) {
+            return OptionalDouble.empty();
+        }
+        int offset = buildOffsets[build];
+        int componentCount = records.getInt(offset + 4);
+        for (int i = 0; i < componentCount; i++) {
+            int record = offset + (2 + i) * RECORD_SIZE;
+            if (records.getInt(record) == id) {
+                return OptionalDouble.of(records.getDouble(record + 24));
+            }
+        }
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * @param builds the number of consecutive builds
+     * @return the components whose distance from the main sequence grew in every one of the latest builds compared to
+     * the build before it, or an empty list if the history has fewer builds
+     */
+    public List<String> getGrowingDistances(int builds) {
+        if (builds < 1 || size() <= builds) {
+            return List.of();
+        }
+        double[] previous = getDistances(size() - builds - 1);
+        boolean[] growing = new boolean[names.size()];
+        Arrays.fill(growing, true);
+        for (int build = size() - builds; build < size(); build++) {
+            double[] current = getDistances(build);
+            for (int id = 0; id < growing.length; id++) {
+                // the components missing from one of the builds have a NaN distance, which never grows
+                growing[id] &= current[id] > previous[id];
+            }
+            previous = current;
+        }
+        List<String> components = new ArrayList<>();
+        for (int id = 0; id < growing.length; id++) {
+            if (growing[id]) {
+                components.add(names.get(id));
+            }
+        }
+        return components;
+    }
+
+    /**
+     * @return the distance of every component of the build by the id of its name, NaN for the missing components
+     */
+    private double[] getDistances(int build) {
+        double[] distances = new double[names.size()];
+        Arrays.fill(distances, Double.NaN);
+        int offset = buildOffsets[build];
+        int componentCount = records.getInt(offset + 4);
+        for (int i = 0; i < componentCount; i++) {
+            int record = offset + (2 + i) * RECORD_SIZE;
+            distances[records.getInt(record)] = records.getDouble(record + 24);
+        }
+        return distances;
+    }
+
+    /**
+     * @return the offsets of the complete builds, followed by the offset where the last complete build ends
+     */
+    private static int[] findBuilds(ByteBuffer records, File historyFile) throws IOException {
+        if (records.limit() < RECORD_SIZE || records.getInt(0) != MAGIC || records.getInt(4) != VERSION) {
+            throw new IOException("Not a metrics history file: " + historyFile.getAbsolutePath());
+        }
+        int[] buildOffsets = new int[16];
+        int buildCount = 0;
+        int offset = RECORD_SIZE;
+        while (offset + RECORD_SIZE <= records.limit() && records.getInt(offset) == BUILD) {
+            if (records.getInt(offset + 4) < 0) {
+                throw new IOException("Not a metrics history file: " + historyFile.getAbsolutePath());
+            }
+            long length = (2L + records.getInt(offset + 4)) * RECORD_SIZE;
+            if (offset + length > records.limit()) {
+                break;
+            }
+            if (buildCount + 1 == buildOffsets.length) {
+                buildOffsets = Arrays.copyOf(buildOffsets, buildOffsets.length * 2);
+            }
+            buildOffsets[buildCount++] = offset;
+            offset += length;
+        }
+        buildOffsets[buildCount] = offset;
+        return Arrays.copyOf(buildOffsets, buildCount + 1);
+    }
+
+    /**
+     * Checks that every component record refers to a line of the names file, so the names and the distances per name
+     * id can be read without checking every id again.
+     */
+    private static void checkNameIds(ByteBuffer records, int[] buildOffsets, int nameCount, File historyFile) throws IOException {
+        for (int offset : buildOffsets) {
+            int componentCount = records.getInt(offset + 4);
+            for (int i = 0; i < componentCount; i++) {
+                int id = records.getInt(offset + (2 + i) * RECORD_SIZE);
+                if (id < 0 || id >= nameCount) {
+                    throw new IOException("Not a metrics history file, or its names file is missing lines: " + historyFile.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the end of the last complete build by reading the header and the {@code BUILD} records through the channel,
+     * as a file cannot be truncated while it is mapped on some platforms.
+     */
+    private static long findEnd(FileChannel channel, File historyFile) throws IOException {
+        long size = channel.size();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        if (!readFully(channel, record, 0) || record.getInt(0) != MAGIC || record.getInt(4) != VERSION) {
+            throw new IOException("Not a metrics history file: " + historyFile.getAbsolutePath());
+        }
+        long offset = RECORD_SIZE;
+        while (readFully(channel, record, offset) && record.getInt(0) == BUILD) {
+            if (record.getInt(4) < 0) {
+                throw new IOException("Not a metrics history file: " + historyFile.getAbsolutePath());
+            }
+            long length = (2L + record.getInt(4)) * RECORD_SIZE;
+            if (offset + length > size) {
+                break;
+            }
+            offset += length;
+        }
+        return offset;
+    }
+
+    /**
+     * @return whether the buffer was filled, reading from the position, or false if the channel ends before
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    /**
+     * @return the id of the name of every point, appending the new names to the names file
+     */
+    private static int[] internNames(Path namesFile, List<Point> points) throws IOException {
+        byte[] content = Files.isRegularFile(namesFile) ? Files.readAllBytes(namesFile) : new byte[0];
+        List<String> names = readNames(content);
+        Map<String, Integer> nameIds = new HashMap<>();
+        for (int id = 0; id < names.size(); id++) {
+            nameIds.put(names.get(id), id);
+        }
+        StringBuilder newNames = new StringBuilder();
+        int[] ids = new int[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            String name = points.get(i).getComponent();
+            Integer id = nameIds.get(name);
+            if (id == null) {
+                id = nameIds.size();
+                nameIds.put(name, id);
+                newNames.append(name).append('\n');
+            }
+            ids[i] = id;
+        }
+        try (FileChannel channel = FileChannel.open(namesFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // a name cut off by an interrupted build is never referred to, so it is written again
+            int end = getCompleteLinesLength(content);
+            channel.truncate(end);
+            writeFully(channel, ByteBuffer.wrap(newNames.toString().getBytes(StandardCharsets.UTF_8)), end);
+        }
+        return ids;
+    }
+
+    private static List<String> readNames(Path namesFile) throws IOException {
+        return Files.isRegularFile(namesFile) ? readNames(Files.readAllBytes(namesFile)) : List.of();
+    }
+
+    /**
+     * @return the names on the complete lines of the names file
+     */
+    private static List<String> readNames(byte[] content) {
+        int length = getCompleteLinesLength(content);
+        return length == 0 ? List.of() : Arrays.asList(new String(content, 0, length - 1, StandardCharsets.UTF_8).split("\n", -1));
+    }
+
+    private static int getCompleteLinesLength(byte[] content) {
+        int length = content.length;
+        while (length > 0 && content[length - 1] != '\n') {
+            length--;
+        }
+        return length;
+    }
+
+    private static Path getNamesFile(File historyFile) {
+        return historyFile.toPath().toAbsolutePath().resolveSibling(historyFile.getName() + NAMES_FILE_EXTENSION);
+    }
+
+    private static ByteBuffer map(FileChannel channel, File historyFile) throws IOException {
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("Metrics history files larger than 2 GB are not supported: " + historyFile.getAbsolutePath());
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
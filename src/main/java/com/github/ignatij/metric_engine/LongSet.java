@@ -0,0 +1,100 @@
+package com.github.ignatij.metric_engine;
+
+import java.util.Arrays;
+
+/**
+ * A set of non-negative longs with open addressing and backward shift deletion, avoiding the boxing of a {@code Set<Long>}.
+ */
+class LongSet {
+    private static final long EMPTY = -1;
+
+    private long[] slots = emptySlots(16);
+    private int size;
+
+    boolean add(long value) {
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        int slot = find(value);
+        if (slots[slot] == value) {
+            return false;
+        }
+        slots[slot] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(long value) {
+        int slot = find(value);
+        if (slots[slot] != value) {
+            return false;
+        }
+        // moves the following values of the same run back, so every value stays reachable from its home slot
+        int mask = slots.length - 1;
+        int next = (slot + 1) & mask;
+        while (slots[next] != EMPTY) {
+            int home = mix(slots[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                slots[slot] = slots[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[slot] = EMPTY;
+        size--;
+        return true;
+    }
+
+    boolean contains(long value) {
+        return slots[find(value)] == value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        long[] values = new long[size];
+        int i = 0;
+        for (long slot : slots) {
+            if (slot != EMPTY) {
+                values[i++] = slot;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return the slot of the value, or the empty slot where it would be added
+     */
+    private int find(long value) {
+        int mask = slots.length - 1;
+        int slot = mix(value) & mask;
+        while (slots[slot] != EMPTY && slots[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] previous = slots;
+        slots = emptySlots(previous.length * 2);
+        size = 0;
+        for (long value : previous) {
+            if (value != EMPTY) {
+                add(value);
+            }
+        }
+    }
+
+    static int mix(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static long[] emptySlots(int capacity) {
+        long[] slots = new long[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+}
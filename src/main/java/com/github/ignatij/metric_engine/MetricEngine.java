@@ -0,0 +1,294 @@
+package com.github.ignatij.metric_engine;
+
+import com.github.ignatij.graph.ModuleGraph;
+import com.github.ignatij.stable_dependencies.ComponentCoupling;
+import com.github.ignatij.statistic.Point;
+import com.github.ignatij.violation.Violation;
+import com.github.ignatij.violation.ViolationCheckResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static com.github.ignatij.stable_abstractions.StableAbstractionsChecker.STABLE_ABSTRACTIONS_VIOLATION;
+import static com.github.ignatij.stable_dependencies.StableDependenciesChecker.STABLE_DEPENDENCIES_VIOLATION;
+
+/**
+ * Keeps the metrics of the modules and the violations of the Stable Dependencies and Stable Abstractions Principles
+ * up to date while the modules, the dependencies between them and their class counts change, for replaying what-if
+ * scenarios without analysing the whole graph again.
+ * <p>
+ * Every change only re-evaluates the dependencies of the modules whose metrics it changes: adding or removing
+ * a dependency re-evaluates the dependencies of its two modules, changing the class counts of a module re-evaluates
+ * the dependencies of that module. The modules are identified by their name, and a dependency between two modules
+ * is counted once.
+ * <p>
+ * An engine is not thread-safe.
+ */
+public class MetricEngine {
+    private final Map<String, Integer> moduleIds = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private int[][] dependencies = new int[16][];
+    private int[] dependencyCounts = new int[16];
+    private int[][] dependents = new int[16][];
+    private int[] dependentCounts = new int[16];
+    private long[] externalDependencies = new long[16];
+    private double[] instability = new double[16];
+    private double[] abstraction = new double[16];
+    // the dependencies violating the principles, as the id of the outer module in the high and of the inner module in the low 32 bits
+    private final LongSet stableDependenciesViolations = new LongSet();
+    private final LongSet stableAbstractionsViolations = new LongSet();
+
+    /**
+     * @return an engine with the modules and the dependencies of the graph, where the dependencies on artifacts
+     * outside the graph count as external dependencies and every module has no classes
+     */
+    public static MetricEngine of(ModuleGraph moduleGraph) {
+        MetricEngine engine = new MetricEngine();
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            engine.addModule(moduleGraph.getModule(i).getName());
+        }
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            String module = moduleGraph.getModule(i).getName();
+            for (int n = 0; n < moduleGraph.getDependencyCount(i); n++) {
+                engine.addDependency(module, moduleGraph.getModule(moduleGraph.getDependency(i, n)).getName());
+            }
+            int internalDependencies = engine.dependencyCounts[engine.getId(module)];
+            engine.setExternalDependencies(module, moduleGraph.getDeclaredDependencyCount(i) - internalDependencies);
+        }
+        return engine;
+    }
+
+    /**
+     * Adds a module without any dependency or class.
+     *
+     * @throws IllegalArgumentException if there is a module with the same name
+     */
+    public void addModule(String module) {
+        if (moduleIds.containsKey(module)) {
+            throw new IllegalArgumentException("Module " + module + " already exists");
+        }
+        int id = names.size();
+        names.add(module);
+        moduleIds.put(module, id);
+        if (id == dependencyCounts.length) {
+            int capacity = id * 2;
+            dependencies = Arrays.copyOf(dependencies, capacity);
+            dependencyCounts = Arrays.copyOf(dependencyCounts, capacity);
+            dependents = Arrays.copyOf(dependents, capacity);
+            dependentCounts = Arrays.copyOf(dependentCounts, capacity);
+            externalDependencies = Arrays.copyOf(externalDependencies, capacity);
+            instability = Arrays.copyOf(instability, capacity);
+            abstraction = Arrays.copyOf(abstraction, capacity);
+        }
+        dependencies[id] = new int[4];
+        dependents[id] = new int[4];
+    }
+
+    /**
+     * Removes the module together with its dependencies and the dependencies on it.
+     */
+    public void removeModule(String module) {
+        int id = getId(module);
+        while (dependencyCounts[id] > 0) {
+            removeDependency(id, dependencies[id][dependencyCounts[id] - 1]);
+        }
+        while (dependentCounts[id] > 0) {
+            removeDependency(dependents[id][dependentCounts[id] - 1], id);
+        }
+        // the id is not reused, the name can be added again as a new module
+        moduleIds.remove(module);
+        names.set(id, null);
+        dependencies[id] = null;
+        dependents[id] = null;
+        externalDependencies[id] = 0;
+        instability[id] = 0;
+        abstraction[id] = 0;
+    }
+
+    /**
+     * Adds a dependency of the outer module on the inner module, if it does not exist yet.
+     */
+    public void addDependency(String outerModule, String innerModule) {
+        int outer = getId(outerModule);
+        int inner = getId(innerModule);
+        if (indexOf(dependencies[outer], dependencyCounts[outer], inner) >= 0) {
+            return;
+        }
+        dependencies[outer] = append(dependencies[outer], dependencyCounts[outer]++, inner);
+        dependents[inner] = append(dependents[inner], dependentCounts[inner]++, outer);
+        updateInstability(outer);
+        updateInstability(inner);
+        checkStableAbstractions(outer, inner);
+    }
+
+    public void removeDependency(String outerModule, String innerModule) {
+        removeDependency(getId(outerModule), getId(innerModule));
+    }
+
+    /**
+     * @param dependencies the number of dependencies of the module on artifacts that are not modules of the engine,
+     *                     which count as efferent couplings
+     */
+    public void setExternalDependencies(String module, long dependencies) {
+        int id = getId(module);
+        externalDependencies[id] = dependencies;
+        updateInstability(id);
+    }
+
+    /**
+     * Sets the number of abstract and concrete classes of the module, out of which its abstraction level is calculated.
+     */
+    public void setClassCounts(String module, long abstractClasses, long concreteClasses) {
+        int id = getId(module);
+        abstraction[id] = abstractClasses == 0 && concreteClasses == 0 ? 0 : (double) abstractClasses / (abstractClasses + concreteClasses);
+        forEachDependency(id, this::checkStableAbstractions);
+    }
+
+    public ComponentCoupling getCoupling(String module) {
+        int id = getId(module);
+        return new ComponentCoupling(dependentCounts[id], getEfferentCouplings(id));
+    }
+
+    public double getInstability(String module) {
+        return instability[getId(module)];
+    }
+
+    public double getAbstraction(String module) {
+        return abstraction[getId(module)];
+    }
+
+    /**
+     * @return the distance of the module from the main sequence, D = |A + I - 1|
+     */
+    public double getDistance(String module) {
+        int id = getId(module);
+        return Math.abs(abstraction[id] + instability[id] - 1);
+    }
+
+    /**
+     * @return the point of every module, in the order the modules were added
+     */
+    public List<Point> getPoints() {
+        List<Point> points = new ArrayList<>(moduleIds.size());
+        for (int id = 0; id < names.size(); id++) {
+            if (names.get(id) != null) {
+                points.add(new Point(names.get(id), dependentCounts[id], getEfferentCouplings(id), instability[id], abstraction[id]));
+            }
+        }
+        return points;
+    }
+
+    public ViolationCheckResult getStableDependenciesViolations() {
+        return toViolations(stableDependenciesViolations, instability);
+    }
+
+    public ViolationCheckResult getStableAbstractionsViolations() {
+        return toViolations(stableAbstractionsViolations, abstraction);
+    }
+
+    private void removeDependency(int outer, int inner) {
+        int index = indexOf(dependencies[outer], dependencyCounts[outer], inner);
+        if (index < 0) {
+            return;
+        }
+        // the order of the dependencies does not matter, so the last one takes the place of the removed one
+        dependencies[outer][index] = dependencies[outer][--dependencyCounts[outer]];
+        int dependentIndex = indexOf(dependents[inner], dependentCounts[inner], outer);
+        dependents[inner][dependentIndex] = dependents[inner][--dependentCounts[inner]];
+        stableDependenciesViolations.remove(toEdge(outer, inner));
+        stableAbstractionsViolations.remove(toEdge(outer, inner));
+        updateInstability(outer);
+        updateInstability(inner);
+    }
+
+    private void updateInstability(int id) {
+        instability[id] = new ComponentCoupling(dependentCounts[id], getEfferentCouplings(id)).getInstability();
+        forEachDependency(id, this::checkStableDependencies);
+    }
+
+    private void checkStableDependencies(int outer, int inner) {
+        check(stableDependenciesViolations, instability, STABLE_DEPENDENCIES_VIOLATION, outer, inner);
+    }
+
+    private void checkStableAbstractions(int outer, int inner) {
+        check(stableAbstractionsViolations, abstraction, STABLE_ABSTRACTIONS_VIOLATION, outer, inner);
+    }
+
+    private static void check(LongSet violations,
+                              double[] metric,
+                              BiFunction<Double, Double, Boolean> calculateViolation,
+                              int outer,
+                              int inner) {
+        if (calculateViolation.apply(metric[outer], metric[inner])) {
+            violations.add(toEdge(outer, inner));
+        } else {
+            violations.remove(toEdge(outer, inner));
+        }
+    }
+
+    /**
+     * Calls the action with every dependency of the module and every dependency on the module.
+     */
+    private void forEachDependency(int id, DependencyAction action) {
+        for (int n = 0; n < dependencyCounts[id]; n++) {
+            action.apply(id, dependencies[id][n]);
+        }
+        for (int n = 0; n < dependentCounts[id]; n++) {
+            action.apply(dependents[id][n], id);
+        }
+    }
+
+    /**
+     * @return the violations ordered by the modules in the order they were added
+     */
+    private ViolationCheckResult toViolations(LongSet violations, double[] metric) {
+        long[] edges = violations.toArray();
+        Arrays.sort(edges);
+        List<Violation> result = new ArrayList<>(edges.length);
+        for (long edge : edges) {
+            int outer = (int) (edge >>> 32);
+            int inner = (int) edge;
+            result.add(new Violation(names.get(outer), names.get(inner), metric[outer], metric[inner]));
+        }
+        return new ViolationCheckResult(result);
+    }
+
+    private long getEfferentCouplings(int id) {
+        return dependencyCounts[id] + externalDependencies[id];
+    }
+
+    private int getId(String module) {
+        Integer id = moduleIds.get(module);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown module " + module);
+        }
+        return id;
+    }
+
+    private static long toEdge(int outer, int inner) {
+        return ((long) outer << 32) | inner;
+    }
+
+    private static int indexOf(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] append(int[] values, int size, int value) {
+        int[] result = size == values.length ? Arrays.copyOf(values, size * 2) : values;
+        result[size] = value;
+        return result;
+    }
+
+    private interface DependencyAction {
+        void apply(int outer, int inner);
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.ignatij.package_metrics;
+
+import com.github.ignatij.bytecode.ClassReferences;
+import com.github.ignatij.bytecode.IntSet;
+
+/**
+ * The classes of a package and the packages they refer to, accumulated from the threads scanning the class files.
+ */
+class PackageAccumulator {
+    private long classes;
+    private long abstractClasses;
+    private final IntSet referencedPackageIds = new IntSet();
+
+    synchronized void add(ClassReferences references) {
+        // synthetic classes refer to other packages on behalf of the package, but are not counted for its abstraction
+        if (!references.isSynthetic()) {
+            classes++;
+            if (references.isAbstract()) {
+                abstractClasses++;
+            }
+        }
+        for (int referencedPackageId : references.getReferencedIds()) {
+            referencedPackageIds.add(referencedPackageId);
+        }
+    }
+
+    synchronized double getAbstractionLevel() {
+        return classes == 0 ? 0 : (double) abstractClasses / classes;
+    }
+
+    synchronized int[] getReferencedPackageIds() {
+        return referencedPackageIds.toArray();
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.ignatij.package_metrics;
+
+import com.github.ignatij.acyclic_dependencies.StronglyConnectedComponents;
+import com.github.ignatij.statistic.Point;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The packages of the analysed classes and the dependencies between them, with the couplings, the instability
+ * and the abstraction level of every package. The packages are ordered by their name.
+ * <p>
+ * Only the packages containing analysed classes are components, so references to the packages of the libraries
+ * and of the JDK are left out, the same way only the modules of the project are components at the module level.
+ */
+public class PackageGraph {
+    private final String[] names;
+    private final int[][] dependencies;
+    private final long[] afferentCouplings;
+    private final double[] abstraction;
+
+    PackageGraph(String[] names, int[][] dependencies, double[] abstraction) {
+        this.names = names;
+        this.dependencies = dependencies;
+        this.abstraction = abstraction;
+        this.afferentCouplings = new long[names.length];
+        for (int[] packageDependencies : dependencies) {
+            for (int dependency : packageDependencies) {
+                afferentCouplings[dependency]++;
+            }
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return the names of the packages every package depends on
+     */
+    public Map<String, List<String>> getDependencies() {
+        Map<String, List<String>> packageDependencies = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            List<String> dependencyNames = new ArrayList<>(dependencies[i].length);
+            for (int dependency : dependencies[i]) {
+                dependencyNames.add(names[dependency]);
+            }
+            packageDependencies.put(names[i], dependencyNames);
+        }
+        return packageDependencies;
+    }
+
+    public Map<String, Double> getInstability() {
+        Map<String, Double> instability = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            instability.put(names[i], getInstability(i));
+        }
+        return instability;
+    }
+
+    public Map<String, Double> getAbstraction() {
+        Map<String, Double> packageAbstraction = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            packageAbstraction.put(names[i], abstraction[i]);
+        }
+        return packageAbstraction;
+    }
+
+    /**
+     * @return the packages of every dependency cycle, ordered by their name
+     */
+    public List<List<String>> getCycles() {
+        List<List<String>> cycles = new ArrayList<>();
+        for (int[] cycle : StronglyConnectedComponents.findCycles(dependencies)) {
+            List<String> cycleNames = new ArrayList<>(cycle.length);
+            for (int i : cycle) {
+                cycleNames.add(names[i]);
+            }
+            cycles.add(cycleNames);
+        }
+        return cycles;
+    }
+
+    public List<Point> getPoints() {
+        List<Point> points = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            points.add(new Point(names[i], afferentCouplings[i], dependencies[i].length, getInstability(i), abstraction[i]));
+        }
+        return points;
+    }
+
+    private double getInstability(int i) {
+        long efferentCouplings = dependencies[i].length;
+        return efferentCouplings == 0 ? 0 : (double) efferentCouplings / (afferentCouplings[i] + efferentCouplings);
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.ignatij.package_metrics;
+
+import com.github.ignatij.bytecode.ClassReferenceReader;
+import com.github.ignatij.bytecode.ClassReferences;
+import com.github.ignatij.bytecode.NameTable;
+import com.github.ignatij.file_tree.FileTreeScan;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Creates the {@link PackageGraph} out of the compiled classes, reading the packages every class refers to out of
+ * its constant pool. The class directories are scanned in parallel, forking a new scan for every subdirectory.
+ */
+public class PackageMetricsAnalyzer {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final String MODULE_INFO_CLASS = "module-info.class";
+    private static final String PACKAGE_INFO_CLASS = "package-info.class";
+
+    private final List<File> classDirectories;
+    private final int parallelism;
+    private final NameTable packageNames = new NameTable();
+    private final ClassReferenceReader reader = new ClassReferenceReader(packageNames);
+    private final Map<Integer, PackageAccumulator> packages = new ConcurrentHashMap<>();
+
+    /**
+     * @param classDirectories the output directories of the modules, where the missing ones are skipped
+     * @param parallelism      the number of threads reading the class files
+     */
+    public PackageMetricsAnalyzer(List<File> classDirectories, int parallelism) {
+        this.classDirectories = classDirectories;
+        this.parallelism = parallelism;
+    }
+
+    public PackageGraph analyze() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<Void>> scans = new ArrayList<>();
+            for (File classDirectory : classDirectories) {
+                scans.add(pool.submit(new FileTreeScan(classDirectory,
+                        name -> name.endsWith(CLASS_FILE_EXTENSION) && !name.equals(MODULE_INFO_CLASS) && !name.equals(PACKAGE_INFO_CLASS),
+                        this::addClass)));
+            }
+            for (ForkJoinTask<Void> scan : scans) {
+                FileTreeScan.join(scan);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return createPackageGraph();
+    }
+
+    private PackageGraph createPackageGraph() {
+        Integer[] packageIds = packages.keySet().toArray(new Integer[0]);
+        Arrays.sort(packageIds, Comparator.comparing(packageNames::getName));
+        // the index of every package in the graph by its id, or -1 for the packages without analysed classes
+        int[] indexes = new int[packageNames.size()];
+        Arrays.fill(indexes, -1);
+        for (int i = 0; i < packageIds.length; i++) {
+            indexes[packageIds[i]] = i;
+        }
+
+        String[] names = new String[packageIds.length];
+        int[][] dependencies = new int[packageIds.length][];
+        double[] abstraction = new double[packageIds.length];
+        for (int i = 0; i < packageIds.length; i++) {
+            PackageAccumulator accumulator = packages.get(packageIds[i]);
+            names[i] = packageNames.getName(packageIds[i]);
+            abstraction[i] = accumulator.getAbstractionLevel();
+            dependencies[i] = Arrays.stream(accumulator.getReferencedPackageIds())
+                    .map(referencedPackageId -> indexes[referencedPackageId])
+                    .filter(index -> index >= 0)
+                    .sorted()
+                    .toArray();
+        }
+        return new PackageGraph(names, dependencies, abstraction);
+    }
+
+    private void addClass(File classFile) throws IOException {
+        ClassReferences references = reader.read(classFile.toPath());
+        if (!references.isModule()) {
+            packages.computeIfAbsent(references.getId(), id -> new PackageAccumulator()).add(references);
+        }
+    }
+}
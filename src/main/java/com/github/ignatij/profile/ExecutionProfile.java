@@ -0,0 +1,123 @@
+package com.github.ignatij.profile;
+
+import com.github.ignatij.writer.JsonStrings;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * The time spent in every phase of the analysis and on every module, reported as a one-line summary
+ * and as a JSON file listing the modules from the slowest to the fastest one.
+ */
+public class ExecutionProfile {
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<String, ModuleProfile> modules = new ConcurrentHashMap<>();
+
+    /**
+     * Starts measuring a phase, until the returned timer is closed.
+     */
+    public PhaseTimer startPhase(Phase phase) {
+        return new PhaseTimer(this, phase);
+    }
+
+    /**
+     * @param startNanos the {@link System#nanoTime()} at the start of the phase
+     */
+    synchronized void endPhase(Phase phase, long startNanos) {
+        phaseNanos.merge(phase, System.nanoTime() - startNanos, Long::sum);
+    }
+
+    public ModuleProfile getModule(String module) {
+        return modules.computeIfAbsent(module, ModuleProfile::new);
+    }
+
+    public synchronized long getPhaseNanos(Phase phase) {
+        return phaseNanos.getOrDefault(phase, 0L);
+    }
+
+    public synchronized long getTotalNanos() {
+        return phaseNanos.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @return the total time, the time of every phase and the files read, on a single line
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder()
+                .append(getTotalNanos() / NANOS_PER_MILLI).append(" ms (");
+        for (Phase phase : Phase.values()) {
+            if (phase.ordinal() > 0) {
+                summary.append(", ");
+            }
+            summary.append(phase.getLabel()).append(' ').append(getPhaseNanos(phase) / NANOS_PER_MILLI).append(" ms");
+        }
+        return summary.append("), visited ").append(sum(ModuleProfile::getFilesVisited))
+                .append(" files, read ").append(formatBytes(sum(ModuleProfile::getBytesRead)))
+                .append(", ").append(sum(ModuleProfile::getCacheHits)).append(" cache hits")
+                .toString();
+    }
+
+    public void write(File profileFile) throws IOException {
+        List<ModuleProfile> slowestFirst = new ArrayList<>(modules.values());
+        slowestFirst.sort(Comparator.comparingLong(ModuleProfile::getNanos).reversed()
+                .thenComparing(ModuleProfile::getModule));
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"totalNanos\": ").append(getTotalNanos()).append(",\n");
+        json.append("  \"phaseNanos\": {");
+        for (Phase phase : Phase.values()) {
+            json.append(phase.ordinal() > 0 ? ", " : "")
+                    .append('"').append(phase.getLabel()).append("\": ").append(getPhaseNanos(phase));
+        }
+        json.append("},\n");
+        json.append("  \"filesVisited\": ").append(sum(ModuleProfile::getFilesVisited)).append(",\n");
+        json.append("  \"bytesRead\": ").append(sum(ModuleProfile::getBytesRead)).append(",\n");
+        json.append("  \"cacheHits\": ").append(sum(ModuleProfile::getCacheHits)).append(",\n");
+        json.append("  \"modules\": [");
+        for (int i = 0; i < slowestFirst.size(); i++) {
+            ModuleProfile module = slowestFirst.get(i);
+            json.append(i > 0 ? "," : "").append("\n    {")
+                    .append("\"module\": ");
+            JsonStrings.quote(module.getModule(), json);
+            json.append(", \"nanos\": ").append(module.getNanos())
+                    .append(", \"buildNanos\": ").append(module.getBuildNanos())
+                    .append(", \"scanNanos\": ").append(module.getScanNanos())
+                    .append(", \"filesVisited\": ").append(module.getFilesVisited())
+                    .append(", \"bytesRead\": ").append(module.getBytesRead())
+                    .append(", \"cacheHits\": ").append(module.getCacheHits())
+                    .append('}');
+        }
+        json.append(slowestFirst.isEmpty() ? "]\n" : "\n  ]\n").append("}\n");
+
+        File directory = profileFile.getAbsoluteFile().getParentFile();
+        if (directory != null) {
+            Files.createDirectories(directory.toPath());
+        }
+        Files.write(profileFile.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long sum(ToLongFunction<ModuleProfile> counter) {
+        return modules.values().stream().mapToLong(counter).sum();
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return bytes / 1024 + " KB";
+        }
+        return bytes / (1024 * 1024) + " MB";
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.ignatij.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.github.ignatij.ModuleBuild")
+@Label("Dependency Metrics Module Build")
+@Description("The model of a module being built out of its POM file")
+@Category({"Maven", "Dependency Metrics"})
+@Enabled(false)
+@StackTrace(false)
+public final class ModuleBuildEvent extends Event {
+
+    @Label("POM File")
+    public String pomFile;
+
+    @Label("Module")
+    public String module;
+}
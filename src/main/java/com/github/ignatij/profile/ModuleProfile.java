@@ -0,0 +1,74 @@
+package com.github.ignatij.profile;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The time spent on a module and the files read for it. The counters are updated concurrently by the threads
+ * building the module models and scanning the source trees.
+ */
+public class ModuleProfile {
+    private final String module;
+    private final LongAdder buildNanos = new LongAdder();
+    private final LongAdder scanNanos = new LongAdder();
+    private final LongAdder filesVisited = new LongAdder();
+    private final LongAdder filesClassified = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+
+    ModuleProfile(String module) {
+        this.module = module;
+    }
+
+    public void addBuildTime(long nanos) {
+        buildNanos.add(nanos);
+    }
+
+    /**
+     * The time is summed up over all the threads scanning the module, so it can be higher than the wall time of the scan.
+     */
+    public void addScanTime(long nanos) {
+        scanNanos.add(nanos);
+    }
+
+    public void fileVisited() {
+        filesVisited.increment();
+    }
+
+    /**
+     * A file classified by reading it, as opposed to taking its classification from the cache.
+     */
+    public void fileClassified() {
+        filesClassified.increment();
+    }
+
+    public void addBytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    public String getModule() {
+        return module;
+    }
+
+    public long getNanos() {
+        return getBuildNanos() + getScanNanos();
+    }
+
+    public long getBuildNanos() {
+        return buildNanos.sum();
+    }
+
+    public long getScanNanos() {
+        return scanNanos.sum();
+    }
+
+    public long getFilesVisited() {
+        return filesVisited.sum();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getCacheHits() {
+        return filesVisited.sum() - filesClassified.sum();
+    }
+}
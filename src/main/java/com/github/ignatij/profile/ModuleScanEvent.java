@@ -0,0 +1,32 @@
+package com.github.ignatij.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.github.ignatij.ModuleScan")
+@Label("Dependency Metrics Module Scan")
+@Description("The files of a module being scanned for its abstraction level")
+@Category({"Maven", "Dependency Metrics"})
+@Enabled(false)
+@StackTrace(false)
+public final class ModuleScanEvent extends Event {
+
+    @Label("Module")
+    public String module;
+
+    @Label("Files Visited")
+    public long filesVisited;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytesRead;
+
+    @Label("Cache Hits")
+    public long cacheHits;
+}
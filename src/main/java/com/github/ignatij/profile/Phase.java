@@ -0,0 +1,23 @@
+package com.github.ignatij.profile;
+
+/**
+ * The phases of the analysis, in the order they run.
+ */
+public enum Phase {
+    GRAPH("graph"),
+    INSTABILITY("instability"),
+    ABSTRACTION("abstraction"),
+    PACKAGES("packages"),
+    WRITE("write"),
+    VIOLATIONS("violations");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.ignatij.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.github.ignatij.Phase")
+@Label("Dependency Metrics Phase")
+@Description("A phase of the dependency management metrics analysis")
+@Category({"Maven", "Dependency Metrics"})
+@Enabled(false)
+@StackTrace(false)
+public final class PhaseEvent extends Event {
+
+    @Label("Phase")
+    public String phase;
+}
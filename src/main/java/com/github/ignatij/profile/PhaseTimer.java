@@ -0,0 +1,27 @@
+package com.github.ignatij.profile;
+
+/**
+ * Measures a phase from its start until it is closed, recording it in the profile and as a {@link PhaseEvent}.
+ */
+public final class PhaseTimer implements AutoCloseable {
+    private final ExecutionProfile profile;
+    private final Phase phase;
+    private final long start = System.nanoTime();
+    private final PhaseEvent event = new PhaseEvent();
+
+    PhaseTimer(ExecutionProfile profile, Phase phase) {
+        this.profile = profile;
+        this.phase = phase;
+        event.begin();
+    }
+
+    @Override
+    public void close() {
+        profile.endPhase(phase, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.getLabel();
+            event.commit();
+        }
+    }
+}
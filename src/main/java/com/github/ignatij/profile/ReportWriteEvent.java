@@ -0,0 +1,26 @@
+package com.github.ignatij.profile;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.github.ignatij.ReportWrite")
+@Label("Dependency Metrics Report Write")
+@Description("A report of the dependency management metrics being written")
+@Category({"Maven", "Dependency Metrics"})
+@Enabled(false)
+@StackTrace(false)
+public final class ReportWriteEvent extends Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+}
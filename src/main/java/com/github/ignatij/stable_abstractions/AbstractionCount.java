@@ -0,0 +1,30 @@
+package com.github.ignatij.stable_abstractions;
+
+/**
+ * The number of abstract and regular files found in the source tree of a module.
+ */
+class AbstractionCount {
+    private final long abstractFiles;
+    private final long regularFiles;
+
+    AbstractionCount(long abstractFiles, long regularFiles) {
+        this.abstractFiles = abstractFiles;
+        this.regularFiles = regularFiles;
+    }
+
+    long getAbstractFiles() {
+        return abstractFiles;
+    }
+
+    long getRegularFiles() {
+        return regularFiles;
+    }
+
+    Double getAbstractionLevel() {
+        if (abstractFiles == 0 && regularFiles == 0) {
+            // not a Java project
+            return (double) 0;
+        }
+        return (double) abstractFiles / (regularFiles + abstractFiles);
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.ignatij.stable_abstractions;
+
+import com.github.ignatij.bytecode.ClassFileHeader;
+import com.github.ignatij.graph.ModuleDescriptor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+
+/**
+ * Where the abstraction level of a component is calculated from.
+ */
+public enum AbstractionSource {
+    /**
+     * The source files in the compile source roots, where a file containing the abstract or interface keywords is abstract.
+     */
+    SOURCE(".java"),
+    /**
+     * The compiled classes in the output directory, where a class with the ACC_ABSTRACT or ACC_INTERFACE flag is abstract.
+     * The anonymous and local classes are not counted, while the member classes are counted on their own, unlike in
+     * their source file.
+     */
+    BYTECODE(".class");
+
+    private static final String ABSTRACT_JAVA_KEYWORD = "abstract";
+    private static final String INTERFACE_JAVA_KEYWORD = "interface";
+    private static final String PACKAGE_INFO_CLASS = "package-info.class";
+    private static final KeywordScanner ABSTRACTION_KEYWORDS = new KeywordScanner(ABSTRACT_JAVA_KEYWORD, INTERFACE_JAVA_KEYWORD);
+
+    private final String fileExtension;
+
+    AbstractionSource(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public static AbstractionSource of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public List<String> getRoots(ModuleDescriptor module) {
+        if (this == BYTECODE) {
+            return Collections.singletonList(module.getOutputDirectory());
+        }
+        return module.getCompileSourceRoots();
+    }
+
+    /**
+     * @param bytesRead receives the number of bytes read from the file
+     */
+    FileClassification classify(Path file, LongConsumer bytesRead) throws IOException {
+        if (this == BYTECODE) {
+            return classifyClassFile(file, bytesRead);
+        }
+        return ABSTRACTION_KEYWORDS.containsAny(file, bytesRead) ? FileClassification.ABSTRACT : FileClassification.REGULAR;
+    }
+
+    private static FileClassification classifyClassFile(Path file, LongConsumer bytesRead) throws IOException {
+        String fileName = file.getFileName().toString();
+        if (fileName.equals(PACKAGE_INFO_CLASS) || isAnonymousOrLocal(fileName)) {
+            return FileClassification.IGNORED;
+        }
+        ClassFileHeader header = ClassFileHeader.read(file);
+        bytesRead.accept(header.getLength());
+        if (header.isModule() || header.isSynthetic()) {
+            return FileClassification.IGNORED;
+        }
+        return header.isAbstract() ? FileClassification.ABSTRACT : FileClassification.REGULAR;
+    }
+
+    /**
+     * javac does not flag the anonymous and local classes as synthetic, but names them after their enclosing class
+     * followed by a number, as in {@code Outer$1} and {@code Outer$1Local}, which a member class name cannot start with.
+     */
+    private static boolean isAnonymousOrLocal(String classFileName) {
+        for (int dollar = classFileName.indexOf('$'); dollar >= 0; dollar = classFileName.indexOf('$', dollar + 1)) {
+            if (dollar + 1 < classFileName.length() && Character.isDigit(classFileName.charAt(dollar + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
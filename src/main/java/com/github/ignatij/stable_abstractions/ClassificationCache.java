@@ -0,0 +1,171 @@
+package com.github.ignatij.stable_abstractions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The classification of the files, keyed by their path and reused as long as the size and the modification time
+ * of a file stay the same. Within a run the classification of a file is reused when it is part of several roots.
+ * <p>
+ * Only the files classified in a run and the files under the roots of the modules that were not scanned in it are
+ * saved or kept in memory for the next run, so files that no longer exist are dropped from the cache.
+ */
+public class ClassificationCache {
+    private static final int MAGIC = 0x444D4D43;
+    private static final int VERSION = 1;
+
+    private final Map<String, Entry> previousRun;
+    private final Map<String, Entry> currentRun = new ConcurrentHashMap<>();
+    private final Set<Path> keptRoots = new HashSet<>();
+
+    private ClassificationCache(Map<String, Entry> previousRun) {
+        this.previousRun = previousRun;
+    }
+
+    public static ClassificationCache empty() {
+        return new ClassificationCache(Map.of());
+    }
+
+    /**
+     * Loads the cache saved by a previous run, starting with an empty cache when the file is missing or unreadable.
+     */
+    public static ClassificationCache load(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return empty();
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return empty();
+            }
+            int size = input.readInt();
+            Map<String, Entry> entries = new ConcurrentHashMap<>(size);
+            FileClassification[] classifications = FileClassification.values();
+            for (int i = 0; i < size; i++) {
+                String path = input.readUTF();
+                entries.put(path, new Entry(input.readLong(), input.readLong(), classifications[input.readUnsignedByte()]));
+            }
+            return new ClassificationCache(entries);
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            return empty();
+        }
+    }
+
+    /**
+     * @return the cache for the next run kept in memory, with the same entries as the ones {@link #save(File) saved},
+     * so the files that no longer exist are dropped from memory as well
+     */
+    public ClassificationCache nextRun() {
+        return new ClassificationCache(new ConcurrentHashMap<>(getRetainedEntries()));
+    }
+
+    /**
+     * Reads and classifies the file outside of the map, so the threads classifying other files are never blocked by it.
+     * When two threads classify the same file at once, the classification of the first one is kept.
+     */
+    FileClassification classify(Path file, Classifier classifier) throws IOException {
+        String path = file.toAbsolutePath().normalize().toString();
+        Entry entry = currentRun.get(path);
+        if (entry == null) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            Entry previous = previousRun.get(path);
+            entry = previous != null && previous.size == size && previous.lastModified == lastModified
+                    ? previous
+                    : new Entry(size, lastModified, classifier.classify(file));
+            Entry concurrent = currentRun.putIfAbsent(path, entry);
+            if (concurrent != null) {
+                entry = concurrent;
+            }
+        }
+        return entry.classification;
+    }
+
+    /**
+     * Saves the entries of the previous run for the files under the roots as well, for the modules that were not
+     * scanned in this run.
+     */
+    public void keepPreviousEntries(Collection<String> roots) {
+        for (String root : roots) {
+            keptRoots.add(Paths.get(root).toAbsolutePath().normalize());
+        }
+    }
+
+    public void save(File cacheFile) throws IOException {
+        Map<String, Entry> entries = getRetainedEntries();
+        Path target = cacheFile.toPath();
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temporary = Files.createTempFile(target.toAbsolutePath().getParent(), cacheFile.getName(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(entry.getValue().size);
+                    output.writeLong(entry.getValue().lastModified);
+                    output.writeByte(entry.getValue().classification.ordinal());
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @return the entries of the files classified in this run, and of the previous run under the kept roots
+     */
+    private Map<String, Entry> getRetainedEntries() {
+        Map<String, Entry> entries = new HashMap<>(currentRun);
+        if (!keptRoots.isEmpty()) {
+            for (Map.Entry<String, Entry> previous : previousRun.entrySet()) {
+                if (!entries.containsKey(previous.getKey()) && isUnderKeptRoot(Paths.get(previous.getKey()))) {
+                    entries.put(previous.getKey(), previous.getValue());
+                }
+            }
+        }
+        return entries;
+    }
+
+    private boolean isUnderKeptRoot(Path file) {
+        for (Path directory = file.getParent(); directory != null; directory = directory.getParent()) {
+            if (keptRoots.contains(directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    interface Classifier {
+        FileClassification classify(Path file) throws IOException;
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final FileClassification classification;
+
+        private Entry(long size, long lastModified, FileClassification classification) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.classification = classification;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.github.ignatij.stable_abstractions;
+
+enum FileClassification {
+    ABSTRACT,
+    REGULAR,
+    /**
+     * The file does not define a component's class, e.g. a module descriptor.
+     */
+    IGNORED
+}
@@ -0,0 +1,78 @@
+package com.github.ignatij.stable_abstractions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Searches files for ASCII keywords on the raw bytes, without decoding them.
+ * This is equivalent to searching the decoded UTF-8 text, as multi-byte UTF-8 sequences never contain ASCII bytes.
+ * <p>
+ * Each thread reads through its own reusable buffer, keeping the last bytes of a chunk for the next one,
+ * so keywords spanning two chunks are found as well.
+ */
+class KeywordScanner {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final byte[][] keywords;
+    private final int overlap;
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+
+    KeywordScanner(String... keywords) {
+        this.keywords = new byte[keywords.length][];
+        int longestKeyword = 0;
+        for (int i = 0; i < keywords.length; i++) {
+            this.keywords[i] = keywords[i].getBytes(StandardCharsets.US_ASCII);
+            longestKeyword = Math.max(longestKeyword, this.keywords[i].length);
+        }
+        this.overlap = Math.max(longestKeyword - 1, 0);
+    }
+
+    /**
+     * @param bytesRead receives the number of bytes read from the file
+     * @return whether the file contains any of the keywords, reading the file only up to the first occurrence
+     */
+    boolean containsAny(Path file, LongConsumer bytesRead) throws IOException {
+        ByteBuffer buffer = buffers.get();
+        buffer.clear();
+        byte[] bytes = buffer.array();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            while ((read = channel.read(buffer)) != -1) {
+                bytesRead.accept(read);
+                int limit = buffer.position();
+                if (containsAny(bytes, limit)) {
+                    return true;
+                }
+                int carried = Math.min(overlap, limit);
+                System.arraycopy(bytes, limit - carried, bytes, 0, carried);
+                buffer.position(carried);
+            }
+        }
+        return false;
+    }
+
+    private boolean containsAny(byte[] bytes, int limit) {
+        for (int i = 0; i < limit; i++) {
+            for (byte[] keyword : keywords) {
+                if (bytes[i] == keyword[0] && i + keyword.length <= limit && matches(bytes, i, keyword)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(byte[] bytes, int offset, byte[] keyword) {
+        for (int i = 1; i < keyword.length; i++) {
+            if (bytes[offset + i] != keyword[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,74 +1,138 @@
 package com.github.ignatij.stable_abstractions;
 
-import org.apache.maven.project.MavenProject;
+import com.github.ignatij.file_tree.FileTreeScan;
+import com.github.ignatij.graph.ModuleDescriptor;
+import com.github.ignatij.profile.ExecutionProfile;
+import com.github.ignatij.profile.ModuleProfile;
+import com.github.ignatij.profile.ModuleScanEvent;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 
 public class StableAbstractionsChecker {
 
-    private static final String JAVA_FILE_EXTENSION = ".java";
-    private static final String ABSTRACT_JAVA_KEYWORD = "abstract";
-    private static final String INTERFACE_JAVA_KEYWORD = "interface";
-
 
     public static final BiFunction<Double, Double, Boolean> STABLE_ABSTRACTIONS_VIOLATION =
             (outerComponentMetric, innerComponentMetric) -> Double.compare(outerComponentMetric, innerComponentMetric) > 0;
 
-    private final Map<MavenProject, List<String>> projectGraph;
-
-    private Long abstractFiles = 0L;
-    private Long regularFiles = 0L;
+    private final List<ModuleDescriptor> modules;
+    private final int parallelism;
+    private final AbstractionSource abstractionSource;
+    private final ClassificationCache classificationCache;
+    private final ExecutionProfile profile;
 
-    public StableAbstractionsChecker(Map<MavenProject, List<String>> projectGraph) {
-        this.projectGraph = projectGraph;
+    /**
+     * @param parallelism         the number of threads scanning the source trees of the modules
+     * @param abstractionSource   whether the source files or the compiled classes are scanned
+     * @param classificationCache the classification of the files kept by the caller, where the files classified
+     *                            in this run are added
+     * @param profile             where the time spent on every module and the files read for it are recorded
+     */
+    public StableAbstractionsChecker(List<ModuleDescriptor> modules,
+                                     int parallelism,
+                                     AbstractionSource abstractionSource,
+                                     ClassificationCache classificationCache,
+                                     ExecutionProfile profile) {
+        this.modules = modules;
+        this.parallelism = parallelism;
+        this.abstractionSource = abstractionSource;
+        this.classificationCache = classificationCache;
+        this.profile = profile;
     }
 
-    public Map<MavenProject, Double> calculateAbstractionLevel() throws IOException {
-        Map<MavenProject, Double> abstractionLevel = new LinkedHashMap<>();
-        for (MavenProject mavenProject : projectGraph.keySet()) {
-            double abstraction = calculateAbstractionLevel(mavenProject);
-            abstractionLevel.put(mavenProject, abstraction);
+    /**
+     * @return the abstraction level of every module, in the order of the modules
+     */
+    public double[] calculateAbstractionLevel() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<AbstractionCount>> scans = new ArrayList<>(modules.size());
+            for (ModuleDescriptor module : modules) {
+                scans.add(pool.submit(new ModuleScan(module, classificationCache)));
+            }
+
+            double[] abstractionLevel = new double[modules.size()];
+            for (int i = 0; i < scans.size(); i++) {
+                abstractionLevel[i] = join(scans.get(i)).getAbstractionLevel();
+            }
+            return abstractionLevel;
+        } finally {
+            pool.shutdownNow();
         }
-        return abstractionLevel;
     }
 
-    private Double calculateAbstractionLevel(MavenProject mavenProject) throws IOException {
-        List<String> sourceDirectories = mavenProject.getCompileSourceRoots();
-        abstractFiles = 0L;
-        regularFiles = 0L;
-        for (String sourceDirectory : sourceDirectories) {
-            calculate(new File(sourceDirectory));
-        }
-        if (abstractFiles.equals(regularFiles) && abstractFiles.equals(0L)) {
-            // not a Java project
-            return (double) 0;
+    private static AbstractionCount join(ForkJoinTask<AbstractionCount> scan) throws IOException {
+        try {
+            return scan.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        return (double) abstractFiles / (regularFiles + abstractFiles);
     }
 
-    private void calculate(File root) throws IOException {
-        Queue<File> queue = new ArrayDeque<>();
-        queue.add(root);
+    /**
+     * Counts the files of a module, forking a new scan for every root of the module.
+     */
+    private class ModuleScan extends RecursiveTask<AbstractionCount> {
+        private final ModuleDescriptor module;
+        private final ClassificationCache cache;
 
-        while (!queue.isEmpty()) {
-            File curr = queue.poll();
-            File[] files = curr.listFiles();
-            if (files != null && files.length != 0) {
-                queue.addAll(Arrays.asList(files));
-            } else {
-                if (curr.getName().endsWith(JAVA_FILE_EXTENSION)) {
-                    List<String> lines = Files.readAllLines(curr.toPath());
-                    if (lines.stream().anyMatch(line -> line.contains(ABSTRACT_JAVA_KEYWORD) || line.contains(INTERFACE_JAVA_KEYWORD))) {
-                        abstractFiles++;
-                    } else {
-                        regularFiles++;
+        private ModuleScan(ModuleDescriptor module, ClassificationCache cache) {
+            this.module = module;
+            this.cache = cache;
+        }
+
+        @Override
+        protected AbstractionCount compute() {
+            ModuleScanEvent event = new ModuleScanEvent();
+            event.begin();
+            ModuleProfile moduleProfile = profile.getModule(module.getArtifactId());
+            LongAdder abstractFiles = new LongAdder();
+            LongAdder regularFiles = new LongAdder();
+            FileTreeScan.FileVisitor visitor = new FileTreeScan.FileVisitor() {
+                @Override
+                public void visitFile(File file) throws IOException {
+                    moduleProfile.fileVisited();
+                    FileClassification classification = cache.classify(file.toPath(), path -> {
+                        moduleProfile.fileClassified();
+                        return abstractionSource.classify(path, moduleProfile::addBytesRead);
+                    });
+                    if (classification == FileClassification.ABSTRACT) {
+                        abstractFiles.increment();
+                    } else if (classification == FileClassification.REGULAR) {
+                        regularFiles.increment();
                     }
                 }
+
+                @Override
+                public void directoryVisited(long nanos) {
+                    moduleProfile.addScanTime(nanos);
+                }
+            };
+            List<FileTreeScan> rootScans = new ArrayList<>();
+            for (String root : abstractionSource.getRoots(module)) {
+                FileTreeScan rootScan = new FileTreeScan(new File(root), name -> name.endsWith(abstractionSource.getFileExtension()), visitor);
+                rootScan.fork();
+                rootScans.add(rootScan);
+            }
+            for (FileTreeScan rootScan : rootScans) {
+                rootScan.join();
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.module = module.getArtifactId();
+                event.filesVisited = moduleProfile.getFilesVisited();
+                event.bytesRead = moduleProfile.getBytesRead();
+                event.cacheHits = moduleProfile.getCacheHits();
+                event.commit();
             }
+            return new AbstractionCount(abstractFiles.sum(), regularFiles.sum());
         }
     }
 
@@ -0,0 +1,54 @@
+package com.github.ignatij.stable_dependencies;
+
+import com.github.ignatij.graph.ModuleDescriptor;
+import com.github.ignatij.graph.ModuleGraph;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The number of distinct classes every module uses from each of the modules it declares a dependency on.
+ */
+public class ClassUsage {
+    private final ModuleGraph moduleGraph;
+    private final long[][] usedClasses;
+
+    /**
+     * @param usedClasses the number of classes used per dependency of every module, in the order of the dependencies
+     *                    in the module graph
+     */
+    public ClassUsage(ModuleGraph moduleGraph, long[][] usedClasses) {
+        this.moduleGraph = moduleGraph;
+        this.usedClasses = usedClasses;
+    }
+
+    /**
+     * @return the number of distinct classes used by the classes of the module from its {@code n}-th dependency
+     */
+    public long getUsedClasses(int module, int n) {
+        return usedClasses[module][n];
+    }
+
+    /**
+     * @return the artifact ids of the declared dependencies of every module that none of the classes of the module use,
+     * for the modules with such dependencies
+     */
+    public Map<ModuleDescriptor, List<String>> getUnusedDependencies() {
+        Map<ModuleDescriptor, List<String>> unusedDependencies = new LinkedHashMap<>();
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            for (int n = 0; n < moduleGraph.getDependencyCount(i); n++) {
+                int dependency = moduleGraph.getDependency(i, n);
+                String artifactId = moduleGraph.getModule(dependency).getArtifactId();
+                if (usedClasses[i][n] == 0 && dependency != moduleGraph.getArtifactModule(i)) {
+                    List<String> moduleUnusedDependencies = unusedDependencies.computeIfAbsent(moduleGraph.getModule(i), unused -> new ArrayList<>());
+                    if (!moduleUnusedDependencies.contains(artifactId)) {
+                        moduleUnusedDependencies.add(artifactId);
+                    }
+                }
+            }
+        }
+        return unusedDependencies;
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.ignatij.stable_dependencies;
+
+import com.github.ignatij.bytecode.ClassReferenceReader;
+import com.github.ignatij.bytecode.ClassReferences;
+import com.github.ignatij.bytecode.NameTable;
+import com.github.ignatij.bytecode.ReferenceGranularity;
+import com.github.ignatij.file_tree.FileTreeScan;
+import com.github.ignatij.graph.ModuleGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Counts the distinct classes every module uses from the modules it declares a dependency on, out of the classes
+ * referred to in the constant pools of its compiled classes. The modules are scanned in parallel, forking a new scan
+ * for every subdirectory of their output directories.
+ */
+public class ClassUsageAnalyzer {
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final ModuleGraph moduleGraph;
+    private final int parallelism;
+    private final NameTable classNames = new NameTable();
+    private final ClassReferenceReader reader = new ClassReferenceReader(classNames, ReferenceGranularity.CLASS);
+
+    /**
+     * @param parallelism the number of threads reading the class files
+     */
+    public ClassUsageAnalyzer(ModuleGraph moduleGraph, int parallelism) {
+        this.moduleGraph = moduleGraph;
+        this.parallelism = parallelism;
+    }
+
+    public ClassUsage analyze() throws IOException {
+        List<ModuleClasses> moduleClasses = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<Void>> scans = new ArrayList<>();
+            for (int i = 0; i < moduleGraph.size(); i++) {
+                ModuleClasses classes = new ModuleClasses();
+                moduleClasses.add(classes);
+                scans.add(pool.submit(new FileTreeScan(new File(moduleGraph.getModule(i).getOutputDirectory()),
+                        name -> name.endsWith(CLASS_FILE_EXTENSION),
+                        file -> classes.add(reader.read(file.toPath())))));
+            }
+            for (ForkJoinTask<Void> scan : scans) {
+                FileTreeScan.join(scan);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return createClassUsage(moduleClasses);
+    }
+
+    private ClassUsage createClassUsage(List<ModuleClasses> moduleClasses) {
+        // the module declaring every class, standing for all the modules with its artifact id,
+        // or -1 for the classes of the libraries and of the JDK
+        int[] declaringModule = new int[classNames.size()];
+        Arrays.fill(declaringModule, -1);
+        for (int i = moduleClasses.size() - 1; i >= 0; i--) {
+            BitSet declaredClasses = moduleClasses.get(i).declaredClasses;
+            for (int id = declaredClasses.nextSetBit(0); id >= 0; id = declaredClasses.nextSetBit(id + 1)) {
+                declaringModule[id] = moduleGraph.getArtifactModule(i);
+            }
+        }
+
+        long[][] usedClassesPerDependency = new long[moduleGraph.size()][];
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            long[] usedClasses = new long[moduleGraph.size()];
+            BitSet referencedClasses = moduleClasses.get(i).referencedClasses;
+            for (int id = referencedClasses.nextSetBit(0); id >= 0; id = referencedClasses.nextSetBit(id + 1)) {
+                if (declaringModule[id] >= 0) {
+                    usedClasses[declaringModule[id]]++;
+                }
+            }
+            usedClassesPerDependency[i] = new long[moduleGraph.getDependencyCount(i)];
+            for (int n = 0; n < moduleGraph.getDependencyCount(i); n++) {
+                int dependency = moduleGraph.getDependency(i, n);
+                usedClassesPerDependency[i][n] = dependency != moduleGraph.getArtifactModule(i) ? usedClasses[dependency] : 0;
+            }
+        }
+        return new ClassUsage(moduleGraph, usedClassesPerDependency);
+    }
+
+    /**
+     * The classes declared by a module and the classes they refer to, as ids of the class names.
+     */
+    private static final class ModuleClasses {
+        private final BitSet declaredClasses = new BitSet();
+        private final BitSet referencedClasses = new BitSet();
+
+        private synchronized void add(ClassReferences references) {
+            declaredClasses.set(references.getId());
+            for (int referencedId : references.getReferencedIds()) {
+                referencedClasses.set(referencedId);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.ignatij.stable_dependencies;
+
+public class ComponentCoupling {
+    private final long afferentCouplings;
+    private final long efferentCouplings;
+
+    public ComponentCoupling(long afferentCouplings, long efferentCouplings) {
+        this.afferentCouplings = afferentCouplings;
+        this.efferentCouplings = efferentCouplings;
+    }
+
+    /**
+     * @return the number of components that depend on the component (Ca),
+     * or the number of its classes they use when weighted
+     */
+    public long getAfferentCouplings() {
+        return afferentCouplings;
+    }
+
+    /**
+     * @return the number of components that the component depends on (Ce),
+     * or the number of their classes it uses when weighted
+     */
+    public long getEfferentCouplings() {
+        return efferentCouplings;
+    }
+
+    /**
+     * @return the instability I = Ce / (Ca + Ce)
+     */
+    public Double getInstability() {
+        if (efferentCouplings == 0) {
+            // the component is not dependent on any other component, therefore minimum instability
+            return (double) 0;
+        }
+        return (double) efferentCouplings / (afferentCouplings + efferentCouplings);
+    }
+}
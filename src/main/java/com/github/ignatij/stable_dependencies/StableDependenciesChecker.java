@@ -1,12 +1,9 @@
 package com.github.ignatij.stable_dependencies;
 
-import org.apache.maven.project.MavenProject;
+import com.github.ignatij.graph.ModuleGraph;
 
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class StableDependenciesChecker {
 
@@ -14,35 +11,99 @@ public class StableDependenciesChecker {
     public static final BiFunction<Double, Double, Boolean> STABLE_DEPENDENCIES_VIOLATION =
             (outerMetric, innerMetric) -> Double.compare(outerMetric, innerMetric) < 0;
 
-    private final Map<MavenProject, List<String>> projectGraph;
+    private final ModuleGraph moduleGraph;
 
-    public StableDependenciesChecker(Map<MavenProject, List<String>> projectGraph) {
-        this.projectGraph = projectGraph;
+    public StableDependenciesChecker(ModuleGraph moduleGraph) {
+        this.moduleGraph = moduleGraph;
     }
 
-    public Map<MavenProject, Double> checkDependencies() {
+    /**
+     * @return the instability of every module, by the index of the module
+     */
+    public double[] checkDependencies() {
         return calculateInstability();
     }
 
-    private Map<MavenProject, Double> calculateInstability() {
-        return projectGraph.keySet()
-                .stream()
-                .collect(Collectors.toMap(Function.identity(), this::calculateInstability));
+    private double[] calculateInstability() {
+        ComponentCoupling[] couplings = calculateCouplings();
+        double[] instability = new double[couplings.length];
+        for (int i = 0; i < couplings.length; i++) {
+            instability[i] = couplings[i].getInstability();
+        }
+        return instability;
+    }
+
+    /**
+     * Calculates the afferent and efferent couplings of every component in a single pass over the dependencies.
+     *
+     * @return the couplings of every module, by the index of the module
+     */
+    public ComponentCoupling[] calculateCouplings() {
+        int size = moduleGraph.size();
+        int[] numberOfComponentsThatDependOnComponent = new int[size];
+        // the last component counted as dependent, so every dependent component is counted once
+        int[] lastDependentComponent = new int[size];
+        Arrays.fill(lastDependentComponent, -1);
+        for (int i = 0; i < size; i++) {
+            for (int n = 0; n < moduleGraph.getDependencyCount(i); n++) {
+                int dependency = moduleGraph.getDependency(i, n);
+                if (lastDependentComponent[dependency] != i) {
+                    lastDependentComponent[dependency] = i;
+                    numberOfComponentsThatDependOnComponent[dependency]++;
+                }
+            }
+        }
+
+        ComponentCoupling[] couplings = new ComponentCoupling[size];
+        for (int i = 0; i < size; i++) {
+            couplings[i] = new ComponentCoupling(numberOfComponentsThatDependOnComponent[moduleGraph.getArtifactModule(i)],
+                    moduleGraph.getDeclaredDependencyCount(i));
+        }
+        return couplings;
     }
 
-    private Double calculateInstability(MavenProject mavenProject) {
-        long numberOfComponentsThatDependOnComponent = projectGraph
-                .values()
-                .stream()
-                .filter(dependencies -> dependencies.contains(mavenProject.getArtifactId()))
-                .count();
-        long numberOfComponentsThatComponentDependsOn = projectGraph.get(mavenProject).size();
-        if (numberOfComponentsThatComponentDependsOn == 0) {
-            // the component is not dependent on any other component, therefore minimum instability
-            return (double) 0;
+    /**
+     * Calculates the couplings of every component weighted by the classes used across the dependencies, where a
+     * dependency counts as the number of distinct classes of the inner component used by the outer component,
+     * instead of a single coupling. A declared dependency without any class used does not count. The classes used
+     * from the artifacts outside the graph are not read, so every dependency on such an artifact counts as a single
+     * coupling, the same as in the unweighted couplings.
+     *
+     * @return the couplings of every module, by the index of the module
+     */
+    public ComponentCoupling[] calculateWeightedCouplings(ClassUsage classUsage) {
+        int size = moduleGraph.size();
+        long[] usedClassesByDependents = new long[size];
+        long[] usedClasses = new long[size];
+        for (int i = 0; i < size; i++) {
+            for (int n = 0; n < moduleGraph.getDependencyCount(i); n++) {
+                if (!isRepeated(i, n)) {
+                    long classes = classUsage.getUsedClasses(i, n);
+                    usedClasses[i] += classes;
+                    usedClassesByDependents[moduleGraph.getDependency(i, n)] += classes;
+                }
+            }
+            usedClasses[i] += moduleGraph.getDeclaredDependencyCount(i) - moduleGraph.getDependencyCount(i);
         }
 
-        return (double) numberOfComponentsThatComponentDependsOn / (numberOfComponentsThatDependOnComponent + numberOfComponentsThatComponentDependsOn);
+        ComponentCoupling[] couplings = new ComponentCoupling[size];
+        for (int i = 0; i < size; i++) {
+            couplings[i] = new ComponentCoupling(usedClassesByDependents[moduleGraph.getArtifactModule(i)], usedClasses[i]);
+        }
+        return couplings;
+    }
+
+    /**
+     * @return whether the {@code n}-th dependency of the module is declared more than once
+     */
+    private boolean isRepeated(int module, int n) {
+        int dependency = moduleGraph.getDependency(module, n);
+        for (int earlier = 0; earlier < n; earlier++) {
+            if (moduleGraph.getDependency(module, earlier) == dependency) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -0,0 +1,76 @@
+package com.github.ignatij.statistic;
+
+/**
+ * The statistics of the distance from the main sequence, calculated in a single pass over the points.
+ * The mean and the variance are updated with Welford's algorithm, and the quantiles are estimated with a
+ * {@link QuantileSketch}. Partial statistics of separate partitions can be merged, so the points can be
+ * summarized in parallel.
+ */
+public class DistanceStatistics {
+    private long count;
+    private double mean;
+    // the sum of the squared differences from the mean
+    private double squaredDifferences;
+    private final QuantileSketch quantiles = new QuantileSketch(0, 1);
+
+    public void add(Point point) {
+        add(point.distance());
+    }
+
+    public void add(double distance) {
+        count++;
+        double difference = distance - mean;
+        mean += difference / count;
+        squaredDifferences += difference * (distance - mean);
+        quantiles.add(distance);
+    }
+
+    /**
+     * Adds the points of the other statistics to these ones, combining the means and the variances of both partitions.
+     */
+    public DistanceStatistics merge(DistanceStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        long mergedCount = count + other.count;
+        double difference = other.mean - mean;
+        mean += difference * other.count / mergedCount;
+        squaredDifferences += other.squaredDifferences + difference * difference * count * other.count / mergedCount;
+        count = mergedCount;
+        quantiles.merge(other.quantiles);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean, or NaN if there are no points
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return the population variance, or NaN if there are no points
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : squaredDifferences / count;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @see QuantileSketch#getQuantile(double)
+     */
+    public double getQuantile(double quantile) {
+        return quantiles.getQuantile(quantile);
+    }
+
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+}
@@ -2,23 +2,45 @@ package com.github.ignatij.statistic;
 
 public class Point {
     private final String component;
+    private final long afferentCouplings;
+    private final long efferentCouplings;
     private final Double x;
     private final Double y;
+    private final double distance;
 
     public Point(String component, Double x, Double y) {
+        this(component, 0, 0, x, y);
+    }
+
+    /**
+     * @param x the instability of the component, calculated out of its couplings
+     * @param y the abstraction level of the component
+     */
+    public Point(String component, long afferentCouplings, long efferentCouplings, Double x, Double y) {
         this.component = component;
+        this.afferentCouplings = afferentCouplings;
+        this.efferentCouplings = efferentCouplings;
         this.x = x;
         this.y = y;
+        this.distance = Math.abs((x + y) - 1);
     }
 
     public Double distance() {
-        return Math.abs((x + y) - 1);
+        return distance;
     }
 
     public String getComponent() {
         return component;
     }
 
+    public long getAfferentCouplings() {
+        return afferentCouplings;
+    }
+
+    public long getEfferentCouplings() {
+        return efferentCouplings;
+    }
+
     public Double getX() {
         return x;
     }
@@ -0,0 +1,125 @@
+package com.github.ignatij.statistic;
+
+import java.util.Arrays;
+
+/**
+ * A mergeable sketch of the quantiles of values within a fixed range. Up to {@link #EXACT_CAPACITY} values are kept
+ * as they are, so the quantiles of small sets are exact. Beyond that the values are counted in equal-width bins,
+ * where a quantile is off by at most half a bin width, and the memory stays the same however many values are added.
+ * <p>
+ * Not thread-safe: every partition of a parallel computation adds to its own sketch, and the sketches are merged.
+ */
+public class QuantileSketch {
+    static final int EXACT_CAPACITY = 4096;
+    static final int BINS = 10_000;
+
+    private final double lower;
+    private final double upper;
+    private double[] values = new double[16];
+    private int size;
+    private long[] bins;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param lower the lowest value expected, lower values are counted in the first bin
+     * @param upper the highest value expected, higher values are counted in the last bin
+     */
+    public QuantileSketch(double lower, double upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    public void add(double value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (bins != null) {
+            bins[bin(value)]++;
+        } else if (size < EXACT_CAPACITY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, EXACT_CAPACITY));
+            }
+            values[size++] = value;
+        } else {
+            toBins();
+            bins[bin(value)]++;
+        }
+    }
+
+    /**
+     * Adds all the values of the other sketch to this one, which must cover the same range.
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (bins == null && other.bins == null && size + other.size <= EXACT_CAPACITY) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+            return this;
+        }
+        if (bins == null) {
+            toBins();
+        }
+        if (other.bins == null) {
+            for (int i = 0; i < other.size; i++) {
+                bins[bin(other.values[i])]++;
+            }
+        } else {
+            for (int i = 0; i < BINS; i++) {
+                bins[i] += other.bins[i];
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.9 for the 90th percentile
+     * @return the smallest value that at least the given fraction of the values is lower than or equal to,
+     * or NaN if no values were added
+     */
+    public double getQuantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        if (bins == null) {
+            double[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(rank, size) - 1];
+        }
+        long cumulative = 0;
+        for (int i = 0; i < BINS; i++) {
+            cumulative += bins[i];
+            if (cumulative >= rank) {
+                double middle = lower + (i + 0.5) * (upper - lower) / BINS;
+                return Math.max(min, Math.min(max, middle));
+            }
+        }
+        return max;
+    }
+
+    private void toBins() {
+        bins = new long[BINS];
+        for (int i = 0; i < size; i++) {
+            bins[bin(values[i])]++;
+        }
+        values = null;
+        size = 0;
+    }
+
+    private int bin(double value) {
+        int bin = (int) ((value - lower) / (upper - lower) * BINS);
+        return Math.max(0, Math.min(BINS - 1, bin));
+    }
+}
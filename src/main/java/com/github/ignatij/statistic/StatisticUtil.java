@@ -4,21 +4,32 @@ import java.util.List;
 
 public final class StatisticUtil {
 
+    /**
+     * Below this number of points the summary is calculated sequentially, as splitting the work costs more than it saves.
+     */
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    public static DistanceStatistics summarize(List<Point> points) {
+        if (points.size() < PARALLEL_THRESHOLD) {
+            DistanceStatistics statistics = new DistanceStatistics();
+            for (Point point : points) {
+                statistics.add(point);
+            }
+            return statistics;
+        }
+        return points.parallelStream().collect(DistanceStatistics::new, DistanceStatistics::add, DistanceStatistics::merge);
+    }
+
     public static Double mean(List<Point> points) {
-        return points.stream().mapToDouble(Point::distance).sum() / points.size();
+        return summarize(points).getMean();
     }
 
     public static Double variance(List<Point> points) {
-        double mean = mean(points);
-        double variance = 0;
-        for(Point p : points) {
-            variance += Math.pow(p.distance() - mean, 2);
-        }
-        return variance;
+        return summarize(points).getVariance();
     }
 
     public static Double standardDeviation(List<Point> points) {
-        return Math.sqrt(variance(points));
+        return summarize(points).getStandardDeviation();
     }
 
 }
@@ -0,0 +1,41 @@
+package com.github.ignatij.violation;
+
+/**
+ * A dependency between two components that violates a principle, together with the metric of both components.
+ */
+public class Violation {
+    private final String outerComponent;
+    private final String innerComponent;
+    private final Double outerMetric;
+    private final Double innerMetric;
+
+    public Violation(String outerComponent, String innerComponent, Double outerMetric, Double innerMetric) {
+        this.outerComponent = outerComponent;
+        this.innerComponent = innerComponent;
+        this.outerMetric = outerMetric;
+        this.innerMetric = innerMetric;
+    }
+
+    /**
+     * @return the component that depends on the inner component
+     */
+    public String getOuterComponent() {
+        return outerComponent;
+    }
+
+    public String getInnerComponent() {
+        return innerComponent;
+    }
+
+    public Double getOuterMetric() {
+        return outerMetric;
+    }
+
+    public Double getInnerMetric() {
+        return innerMetric;
+    }
+
+    public Double getDelta() {
+        return outerMetric - innerMetric;
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.ignatij.violation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ViolationCheckResult {
+    private final List<Violation> violations;
+
+    public ViolationCheckResult(List<Violation> violations) {
+        this.violations = Collections.unmodifiableList(violations);
+    }
+
+    public boolean hasViolations() {
+        return !violations.isEmpty();
+    }
+
+    public List<Violation> getViolations() {
+        return violations;
+    }
+
+    /**
+     * @return the distinct components that are violating the principle, in the order they were found
+     */
+    public List<String> getViolatingComponents() {
+        return violations.stream()
+                .map(Violation::getOuterComponent)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
@@ -1,24 +1,19 @@
 package com.github.ignatij.violation;
 
 import org.apache.maven.plugin.MojoExecutionException;
-import org.apache.maven.project.MavenProject;
+import com.github.ignatij.graph.ModuleGraph;
 import com.github.ignatij.violation.exception.StableAbstractionsPrincipleViolation;
 import com.github.ignatij.violation.exception.StableDependenciesPrincipleViolation;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class ViolationChecker {
 
-    private final Map<Class<? extends MojoExecutionException>, Function<String, MojoExecutionException>> exceptionMap = Map.of(
+    private final Map<Class<? extends MojoExecutionException>, Function<List<String>, MojoExecutionException>> exceptionMap = Map.of(
             StableAbstractionsPrincipleViolation.class, StableAbstractionsPrincipleViolation::new,
             StableDependenciesPrincipleViolation.class, StableDependenciesPrincipleViolation::new
     );
@@ -29,52 +24,61 @@ public class ViolationChecker {
         this.exceptionType = exceptionType;
     }
 
-    public void check(Map<MavenProject, List<String>> projectGraph,
-                      Map<MavenProject, Double> metricPerComponent,
+    public void check(ModuleGraph moduleGraph,
+                      double[] metricPerComponent,
                       BiFunction<Double, Double, Boolean> calculateViolation) throws MojoExecutionException {
-        Set<MavenProject> visited = new LinkedHashSet<>();
-        Queue<MavenProject> queue = new ArrayDeque<>();
-        List<MavenProject> modules = new ArrayList<>(projectGraph.keySet());
-
-        while (visited.size() != modules.size()) {
-            MavenProject root = modules.stream().filter(module -> !visited.contains(module)).findFirst().orElse(null);
-            visited.add(root);
-            queue.add(root);
-            while (!queue.isEmpty()) {
-                MavenProject curr = queue.poll();
-                List<MavenProject> dependencies = projectGraph.get(curr)
-                        .stream()
-                        .map(dependency -> getDependencyModule(modules, dependency))
-                        .collect(Collectors.toList());
-
-                dependencies.stream().filter(next -> !visited.contains(next)).forEach(next -> {
-                    visited.add(next);
-                    queue.add(next);
-                });
+        ViolationCheckResult result = findViolations(moduleGraph, metricPerComponent, calculateViolation);
+        if (result.hasViolations()) {
+            throw toException(result);
+        }
+    }
 
-                if (isPrincipleViolated(curr, dependencies, metricPerComponent, calculateViolation)) {
-                    throw exceptionMap.get(exceptionType).apply(curr.getName());
+    /**
+     * Checks every dependency between the components exactly once and collects all the violations.
+     * Dependencies on artifacts that are not part of the graph are ignored.
+     *
+     * @param metricPerComponent the metric of every module, by the index of the module
+     */
+    public ViolationCheckResult findViolations(ModuleGraph moduleGraph,
+                                               double[] metricPerComponent,
+                                               BiFunction<Double, Double, Boolean> calculateViolation) {
+        List<Violation> violations = new ArrayList<>();
+        for (int outerComponent = 0; outerComponent < moduleGraph.size(); outerComponent++) {
+            for (int n = 0; n < moduleGraph.getDependencyCount(outerComponent); n++) {
+                int innerComponent = moduleGraph.getDependency(outerComponent, n);
+                if (calculateViolation.apply(metricPerComponent[outerComponent], metricPerComponent[innerComponent])) {
+                    violations.add(new Violation(moduleGraph.getModule(outerComponent).getName(),
+                            moduleGraph.getModule(innerComponent).getName(),
+                            metricPerComponent[outerComponent],
+                            metricPerComponent[innerComponent]));
                 }
             }
         }
+        return new ViolationCheckResult(violations);
     }
 
-    private MavenProject getDependencyModule(List<MavenProject> modules, String dependency) {
-        return modules.stream().filter(module -> module.getArtifactId().equals(dependency)).findFirst().orElse(null);
-    }
-
-    private boolean isPrincipleViolated(MavenProject outerComponent,
-                                        List<MavenProject> innerComponents,
-                                        Map<MavenProject, Double> metricsPerComponent,
-                                        BiFunction<Double, Double, Boolean> calculateViolation) {
-        return innerComponents.stream().anyMatch(innerComponent -> principleViolated(outerComponent, innerComponent, metricsPerComponent, calculateViolation));
+    /**
+     * Same as {@link #findViolations(ModuleGraph, double[], BiFunction)}, for the components identified by their name,
+     * such as the packages.
+     */
+    public ViolationCheckResult findViolationsByName(Map<String, List<String>> dependencyGraph,
+                                                     Map<String, Double> metricPerComponent,
+                                                     BiFunction<Double, Double, Boolean> calculateViolation) {
+        List<Violation> violations = new ArrayList<>();
+        dependencyGraph.forEach((outerComponent, dependencies) -> {
+            for (String innerComponent : dependencies) {
+                Double outerMetric = metricPerComponent.get(outerComponent);
+                Double innerMetric = metricPerComponent.get(innerComponent);
+                if (innerMetric != null && calculateViolation.apply(outerMetric, innerMetric)) {
+                    violations.add(new Violation(outerComponent, innerComponent, outerMetric, innerMetric));
+                }
+            }
+        });
+        return new ViolationCheckResult(violations);
     }
 
-    private boolean principleViolated(MavenProject outerComponent,
-                                      MavenProject innerComponent,
-                                      Map<MavenProject, Double> metricsPerComponent,
-                                      BiFunction<Double, Double, Boolean> calculateViolation) {
-        return calculateViolation.apply(metricsPerComponent.get(outerComponent), metricsPerComponent.get(innerComponent));
+    public MojoExecutionException toException(ViolationCheckResult result) {
+        return exceptionMap.get(exceptionType).apply(result.getViolatingComponents());
     }
 
 }
@@ -0,0 +1,20 @@
+package com.github.ignatij.violation.exception;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.util.Collections;
+import java.util.List;
+
+public class AcyclicDependenciesPrincipleViolation extends MojoExecutionException {
+
+    public AcyclicDependenciesPrincipleViolation(String componentName) {
+        this(Collections.singletonList(componentName));
+    }
+
+    public AcyclicDependenciesPrincipleViolation(List<String> componentNames) {
+        super(componentNames.size() == 1
+                ? String.format("Component %s is violating the acyclic dependencies principle", componentNames.get(0))
+                : String.format("Components %s are violating the acyclic dependencies principle", String.join(", ", componentNames)));
+    }
+
+}
@@ -2,10 +2,19 @@ package com.github.ignatij.violation.exception;
 
 import org.apache.maven.plugin.MojoExecutionException;
 
+import java.util.Collections;
+import java.util.List;
+
 public class StableAbstractionsPrincipleViolation extends MojoExecutionException {
 
     public StableAbstractionsPrincipleViolation(String componentName) {
-        super(String.format("Component %s is violating the stable abstraction principle", componentName));
+        this(Collections.singletonList(componentName));
+    }
+
+    public StableAbstractionsPrincipleViolation(List<String> componentNames) {
+        super(componentNames.size() == 1
+                ? String.format("Component %s is violating the stable abstraction principle", componentNames.get(0))
+                : String.format("Components %s are violating the stable abstraction principle", String.join(", ", componentNames)));
     }
 
 }
@@ -2,10 +2,19 @@ package com.github.ignatij.violation.exception;
 
 import org.apache.maven.plugin.MojoExecutionException;
 
+import java.util.Collections;
+import java.util.List;
+
 public class StableDependenciesPrincipleViolation extends MojoExecutionException {
 
     public StableDependenciesPrincipleViolation(String componentName) {
-        super(String.format("Component %s is violating the stable dependencies principle", componentName));
+        this(Collections.singletonList(componentName));
+    }
+
+    public StableDependenciesPrincipleViolation(List<String> componentNames) {
+        super(componentNames.size() == 1
+                ? String.format("Component %s is violating the stable dependencies principle", componentNames.get(0))
+                : String.format("Components %s are violating the stable dependencies principle", String.join(", ", componentNames)));
     }
 
 }
@@ -0,0 +1,85 @@
+package com.github.ignatij.writer;
+
+import com.github.ignatij.statistic.DistanceStatistics;
+import com.github.ignatij.statistic.Point;
+import com.github.ignatij.statistic.StatisticUtil;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the metrics as comma separated values, one row per component, streaming one row at a time.
+ * The statistics of the distance from the main sequence and the components of every dependency cycle follow the rows
+ * as comment lines starting with {@code #}.
+ */
+public class CsvMetricsWriter implements MetricsWriter {
+    private static final String HEADER = "component,afferent_couplings,efferent_couplings,instability,abstraction,distance,zone_of_pain,zone_of_uselessness\n";
+    private final Log log;
+
+    public CsvMetricsWriter(Log log) {
+        this.log = log;
+    }
+
+    @Override
+    public void write(List<Point> points, List<List<String>> cycles, File outputFile) throws MojoExecutionException {
+        try (Writer writer = ReportFiles.newWriter(outputFile)) {
+            log.info("Writing to file: " + outputFile.getAbsolutePath());
+
+            writer.write(HEADER);
+            for (Point point : points) {
+                writeValue(point.getComponent(), writer);
+                writer.write(',');
+                writer.write(Long.toString(point.getAfferentCouplings()));
+                writer.write(',');
+                writer.write(Long.toString(point.getEfferentCouplings()));
+                writer.write(',');
+                writer.write(String.valueOf(point.getX()));
+                writer.write(',');
+                writer.write(String.valueOf(point.getY()));
+                writer.write(',');
+                writer.write(String.valueOf(point.distance()));
+                writer.write(',');
+                writer.write(point.isInZoneOfPain().toString());
+                writer.write(',');
+                writer.write(point.isInZoneOfUselessness().toString());
+                writer.write('\n');
+            }
+            DistanceStatistics statistics = StatisticUtil.summarize(points);
+            writer.write("# mean," + statistics.getMean() + "\n");
+            writer.write("# variance," + statistics.getVariance() + "\n");
+            writer.write("# standard_deviation," + statistics.getStandardDeviation() + "\n");
+            writer.write("# p50," + statistics.getQuantile(0.5) + "\n");
+            writer.write("# p90," + statistics.getQuantile(0.9) + "\n");
+            writer.write("# p99," + statistics.getQuantile(0.99) + "\n");
+            for (List<String> cycle : cycles) {
+                writer.write("# cycle");
+                for (String component : cycle) {
+                    writer.write(',');
+                    writeValue(component, writer);
+                }
+                writer.write('\n');
+            }
+
+            log.info("Finished writing to file: " + outputFile.getAbsolutePath());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write to result file: " + outputFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Quotes the value when it contains a separator, a quote or a line break, doubling the quotes within it.
+     */
+    private static void writeValue(String value, Writer writer) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
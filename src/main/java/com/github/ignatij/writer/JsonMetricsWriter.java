@@ -0,0 +1,134 @@
+package com.github.ignatij.writer;
+
+import com.github.ignatij.statistic.DistanceStatistics;
+import com.github.ignatij.statistic.Point;
+import com.github.ignatij.statistic.StatisticUtil;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Writes the metrics as a JSON document, streaming one component at a time:
+ * <pre>
+ * {
+ *   "components": [
+ *     {"component": "module1", "afferentCouplings": 0, "efferentCouplings": 1, "instability": 1.0, "abstraction": 0.0,
+ *      "distance": 0.0, "zoneOfPain": false, "zoneOfUselessness": false}
+ *   ],
+ *   "zonesOfExclusion": {"zoneOfPain": [], "zoneOfUselessness": []},
+ *   "cycles": [["module2", "module3"]],
+ *   "statistics": {"mean": 0.0, "variance": 0.0, "standardDeviation": 0.0, "p50": 0.0, "p90": 0.0, "p99": 0.0}
+ * }
+ * </pre>
+ * Values that are not a number, such as the statistics of no components, are written as {@code null}.
+ */
+public class JsonMetricsWriter implements MetricsWriter {
+    private final Log log;
+
+    public JsonMetricsWriter(Log log) {
+        this.log = log;
+    }
+
+    @Override
+    public void write(List<Point> points, List<List<String>> cycles, File outputFile) throws MojoExecutionException {
+        try (Writer writer = ReportFiles.newWriter(outputFile)) {
+            log.info("Writing to file: " + outputFile.getAbsolutePath());
+
+            writer.write("{\n  \"components\": [");
+            for (int i = 0; i < points.size(); i++) {
+                writer.write(i > 0 ? ",\n    " : "\n    ");
+                writeComponent(points.get(i), writer);
+            }
+            writer.write(points.isEmpty() ? "],\n" : "\n  ],\n");
+
+            writer.write("  \"zonesOfExclusion\": {\"zoneOfPain\": ");
+            writeComponents(points, Point::isInZoneOfPain, writer);
+            writer.write(", \"zoneOfUselessness\": ");
+            writeComponents(points, Point::isInZoneOfUselessness, writer);
+            writer.write("},\n");
+
+            writer.write("  \"cycles\": [");
+            for (int i = 0; i < cycles.size(); i++) {
+                if (i > 0) {
+                    writer.write(", ");
+                }
+                writeStrings(cycles.get(i), writer);
+            }
+            writer.write("],\n");
+
+            DistanceStatistics statistics = StatisticUtil.summarize(points);
+            writer.write("  \"statistics\": {\"mean\": ");
+            writeNumber(statistics.getMean(), writer);
+            writer.write(", \"variance\": ");
+            writeNumber(statistics.getVariance(), writer);
+            writer.write(", \"standardDeviation\": ");
+            writeNumber(statistics.getStandardDeviation(), writer);
+            writer.write(", \"p50\": ");
+            writeNumber(statistics.getQuantile(0.5), writer);
+            writer.write(", \"p90\": ");
+            writeNumber(statistics.getQuantile(0.9), writer);
+            writer.write(", \"p99\": ");
+            writeNumber(statistics.getQuantile(0.99), writer);
+            writer.write("}\n}\n");
+
+            log.info("Finished writing to file: " + outputFile.getAbsolutePath());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write to result file: " + outputFile.getAbsolutePath(), e);
+        }
+    }
+
+    private void writeComponent(Point point, Writer writer) throws IOException {
+        writer.write("{\"component\": ");
+        JsonStrings.quote(point.getComponent(), writer);
+        writer.write(", \"afferentCouplings\": ");
+        writer.write(Long.toString(point.getAfferentCouplings()));
+        writer.write(", \"efferentCouplings\": ");
+        writer.write(Long.toString(point.getEfferentCouplings()));
+        writer.write(", \"instability\": ");
+        writeNumber(point.getX(), writer);
+        writer.write(", \"abstraction\": ");
+        writeNumber(point.getY(), writer);
+        writer.write(", \"distance\": ");
+        writeNumber(point.distance(), writer);
+        writer.write(", \"zoneOfPain\": ");
+        writer.write(point.isInZoneOfPain().toString());
+        writer.write(", \"zoneOfUselessness\": ");
+        writer.write(point.isInZoneOfUselessness().toString());
+        writer.write('}');
+    }
+
+    private void writeComponents(List<Point> points, Predicate<Point> filter, Writer writer) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (Point point : points) {
+            if (filter.test(point)) {
+                if (!first) {
+                    writer.write(", ");
+                }
+                JsonStrings.quote(point.getComponent(), writer);
+                first = false;
+            }
+        }
+        writer.write(']');
+    }
+
+    private static void writeStrings(List<String> values, Writer writer) throws IOException {
+        writer.write('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(", ");
+            }
+            JsonStrings.quote(values.get(i), writer);
+        }
+        writer.write(']');
+    }
+
+    private static void writeNumber(Double value, Writer writer) throws IOException {
+        writer.write(value == null || value.isNaN() || value.isInfinite() ? "null" : value.toString());
+    }
+}
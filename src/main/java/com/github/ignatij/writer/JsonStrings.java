@@ -0,0 +1,30 @@
+package com.github.ignatij.writer;
+
+import java.io.IOException;
+
+/**
+ * Writes the strings of the JSON documents, shared by the JSON report and the execution profile.
+ */
+public final class JsonStrings {
+
+    private JsonStrings() {
+    }
+
+    /**
+     * Appends the value as a JSON string, escaping the quotes, the backslashes and the control characters.
+     */
+    public static void quote(String value, Appendable out) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
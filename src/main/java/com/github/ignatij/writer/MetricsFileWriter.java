@@ -1,18 +1,22 @@
 package com.github.ignatij.writer;
 
+import com.github.ignatij.statistic.DistanceStatistics;
 import com.github.ignatij.statistic.Point;
 import com.github.ignatij.statistic.StatisticUtil;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class MetricsFileWriter implements MetricsWriter {
-    private static final String OUTPUT_FORMAT = "%-30s %-30s %-30s %-30s %n";
+    private static final int COLUMN_WIDTH = 30;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final String TABLE_SEPARATOR = "=".repeat(120);
+    private static final String HEADER_SEPARATOR = "=".repeat(30);
     private final Log log;
 
     public MetricsFileWriter(Log log) {
@@ -20,21 +24,13 @@ public class MetricsFileWriter implements MetricsWriter {
     }
 
     @Override
-    public void write(List<Point> points, File outputFile) throws MojoExecutionException {
-        if (!outputFile.exists()) {
-            File parent = new File(outputFile.getParent());
-            parent.mkdirs();
-            try {
-                outputFile.createNewFile();
-            } catch (IOException e) {
-                throw new MojoExecutionException("Unable to create result file: " + outputFile.getAbsolutePath(), e);
-            }
-        }
-        try (FileWriter writer = new FileWriter(outputFile, false)) {
+    public void write(List<Point> points, List<List<String>> cycles, File outputFile) throws MojoExecutionException {
+        try (Writer writer = ReportFiles.newWriter(outputFile)) {
             log.info("Writing to file: " + outputFile.getAbsolutePath());
 
             writeComponentInfo(points, writer);
             writeZonesOfExclusion(points, writer);
+            writeCycles(cycles, writer);
             writeStatisticalAnalysis(points, writer);
 
             log.info("Finished writing to file: " + outputFile.getAbsolutePath());
@@ -44,19 +40,32 @@ public class MetricsFileWriter implements MetricsWriter {
         }
     }
 
-    private void writeComponentInfo(List<Point> points, FileWriter writer) throws IOException {
-        writer.write(String.format(OUTPUT_FORMAT, "COMPONENT", "INSTABILITY", "ABSTRACTION", "DISTANCE FROM MAIN SEQUENCE"));
-        for (int i = 0; i < 120; i++) {
-            writer.write("=");
-        }
+    private void writeComponentInfo(List<Point> points, Writer writer) throws IOException {
+        writeRow(writer, "COMPONENT", "INSTABILITY", "ABSTRACTION", "DISTANCE FROM MAIN SEQUENCE");
+        writer.write(TABLE_SEPARATOR);
         writer.write("\n\n");
         for (Point point : points) {
-            writer.write(String.format(OUTPUT_FORMAT, point.getComponent().length() > 30 ? point.getComponent().substring(0, 30) : point.getComponent(), point.getX(), point.getY(), point.distance()));
+            writeRow(writer, point.getComponent().length() > COLUMN_WIDTH ? point.getComponent().substring(0, COLUMN_WIDTH) : point.getComponent(),
+                    String.valueOf(point.getX()), String.valueOf(point.getY()), String.valueOf(point.distance()));
         }
         writer.write("\n");
     }
 
-    private void writeZonesOfExclusion(List<Point> points, FileWriter writer) throws IOException {
+    /**
+     * Writes the columns left-aligned and padded to the column width, each followed by a space.
+     */
+    private void writeRow(Writer writer, String... columns) throws IOException {
+        for (String column : columns) {
+            writer.write(column);
+            for (int i = column.length(); i < COLUMN_WIDTH; i++) {
+                writer.write(' ');
+            }
+            writer.write(' ');
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    private void writeZonesOfExclusion(List<Point> points, Writer writer) throws IOException {
         if (points.stream().noneMatch(Point::isInZoneOfPain) && points.stream().noneMatch(Point::isInZoneOfUselessness)) {
             return;
         }
@@ -80,29 +89,41 @@ public class MetricsFileWriter implements MetricsWriter {
         return points.stream().filter(Point::isInZoneOfUselessness).map(Point::getComponent).collect(Collectors.toList());
     }
 
-    private void writeComponentsInZoneOfExclusion(FileWriter writer, List<String> components) throws IOException {
+    private void writeComponentsInZoneOfExclusion(Writer writer, List<String> components) throws IOException {
         for (String component : components) {
-            writer.write(component + "\n");
+            writer.write(component);
+            writer.write("\n");
+        }
+    }
+
+    private void writeCycles(List<List<String>> cycles, Writer writer) throws IOException {
+        if (cycles.isEmpty()) {
+            return;
+        }
+        header("DEPENDENCY CYCLES", writer);
+        for (List<String> cycle : cycles) {
+            writer.write(String.join(", ", cycle));
+            writer.write("\n");
         }
+        writer.write("\n");
     }
 
-    private void writeStatisticalAnalysis(List<Point> points, FileWriter writer) throws IOException {
+    private void writeStatisticalAnalysis(List<Point> points, Writer writer) throws IOException {
+        DistanceStatistics statistics = StatisticUtil.summarize(points);
         header("STATISTICAL ANALYSIS OF DISTANCE FROM MAIN SEQUENCE", writer);
-        writer.write("MEAN: " + StatisticUtil.mean(points) + "\n");
-        writer.write("VARIANCE: " + StatisticUtil.variance(points) + "\n");
-        writer.write("STANDARD DEVIATION: " + StatisticUtil.standardDeviation(points));
+        writer.write("MEAN: " + statistics.getMean() + "\n");
+        writer.write("VARIANCE: " + statistics.getVariance() + "\n");
+        writer.write("STANDARD DEVIATION: " + statistics.getStandardDeviation() + "\n");
+        writer.write("P50: " + statistics.getQuantile(0.5) + "\n");
+        writer.write("P90: " + statistics.getQuantile(0.9) + "\n");
+        writer.write("P99: " + statistics.getQuantile(0.99));
     }
 
-    private void header(String header, FileWriter writer) throws IOException {
+    private void header(String header, Writer writer) throws IOException {
         writer.write("\n");
-
-        for (int i = 0; i < 30; i++) {
-            writer.write("=");
-        }
+        writer.write(HEADER_SEPARATOR);
         writer.write(header);
-        for (int i = 0; i < 30; i++) {
-            writer.write("=");
-        }
+        writer.write(HEADER_SEPARATOR);
         writer.write("\n\n");
     }
 }
@@ -4,8 +4,16 @@ import org.apache.maven.plugin.MojoExecutionException;
 import com.github.ignatij.statistic.Point;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
 
 public interface MetricsWriter {
-    void write(List<Point> points, File outputFile) throws MojoExecutionException;
+    default void write(List<Point> points, File outputFile) throws MojoExecutionException {
+        write(points, Collections.emptyList(), outputFile);
+    }
+
+    /**
+     * @param cycles the components of every dependency cycle
+     */
+    void write(List<Point> points, List<List<String>> cycles, File outputFile) throws MojoExecutionException;
 }
@@ -0,0 +1,30 @@
+package com.github.ignatij.writer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+final class ReportFiles {
+    /**
+     * Large enough to hold the report of a few hundred components, so most reports are written in a single system call.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ReportFiles() {
+    }
+
+    /**
+     * Opens a buffered writer on the file, creating its parent directories and replacing its contents.
+     */
+    static Writer newWriter(File outputFile) throws IOException {
+        File parent = outputFile.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(outputFile.toPath()), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.ignatij.writer;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * The formats the metrics can be written in. The text report is written to the configured output file,
+ * and the other formats next to it, with the extension of the format.
+ */
+public enum ReportFormat {
+    TEXT("txt"),
+    JSON("json"),
+    CSV("csv");
+
+    private final String fileExtension;
+
+    ReportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public static ReportFormat of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public MetricsWriter createWriter(Log log) {
+        switch (this) {
+            case JSON:
+                return new JsonMetricsWriter(log);
+            case CSV:
+                return new CsvMetricsWriter(log);
+            default:
+                return new MetricsFileWriter(log);
+        }
+    }
+
+    public File getOutputFile(File outputFile) {
+        if (this == TEXT) {
+            return outputFile;
+        }
+        String name = outputFile.getName();
+        int extension = name.lastIndexOf('.');
+        return new File(outputFile.getParentFile(), (extension > 0 ? name.substring(0, extension) : name) + "." + fileExtension);
+    }
+}
@@ -0,0 +1,170 @@
+package com.github.ignatij;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the plugin end-to-end on generated projects of a growing number of modules and checks that the wall time,
+ * the allocated memory and the peak heap grow about linearly with the number of modules, so an accidental
+ * quadratic path fails the build. The bounds are relative to the smallest project, so they do not depend on
+ * the speed of the machine running the build.
+ */
+public class DependencyManagementMetricsMojoScalingTest extends AbstractMojoTestCase {
+
+    private static final int[] MODULES = {100, 400, 1600};
+    private static final long SEED = 42;
+
+    /**
+     * The allowed growth of the cost per module between the smallest and the largest project, where a linear
+     * implementation stays close to 1 and a quadratic one reaches the ratio of the project sizes.
+     */
+    private static final double MAX_TIME_GROWTH = 4.0;
+    private static final double MAX_ALLOCATION_GROWTH = 2.0;
+    private static final double MAX_PEAK_HEAP_GROWTH = 4.0;
+
+    private Path projectsDirectory;
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void setUp()
+            throws Exception {
+        // required
+        super.setUp();
+        projectsDirectory = Files.createTempDirectory("dependency-metrics-scaling");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown()
+            throws Exception {
+        // required
+        super.tearDown();
+        try (Stream<Path> files = Files.walk(projectsDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Generated projects of nested aggregators, where every module depends on up to three other modules
+     * and contains four to twelve source files.
+     *
+     * @throws Exception if any
+     */
+    public void testCostPerModuleDoesNotGrowWithTheNumberOfModules()
+            throws Exception {
+        // given
+        Path[] projects = new Path[MODULES.length];
+        for (int i = 0; i < MODULES.length; i++) {
+            projects[i] = SyntheticProjectGenerator.generate(projectsDirectory.resolve("project" + MODULES[i]), MODULES[i], SEED);
+        }
+        // warms up the plugin, so the smallest project is not measured with a cold JIT
+        run(projects[0]);
+
+        // when
+        Measurement[] measurements = new Measurement[MODULES.length];
+        for (int i = 0; i < MODULES.length; i++) {
+            measurements[i] = run(projects[i]);
+        }
+
+        // then
+        StringBuilder runs = new StringBuilder();
+        for (int i = 0; i < MODULES.length; i++) {
+            runs.append(String.format("%n%d modules: %d ms, %d MB allocated, %d MB peak heap", MODULES[i],
+                    measurements[i].nanos / 1_000_000, measurements[i].allocatedBytes >> 20, measurements[i].peakHeapBytes >> 20));
+        }
+        Measurement smallest = measurements[0];
+        Measurement largest = measurements[MODULES.length - 1];
+        double sizeRatio = (double) MODULES[MODULES.length - 1] / MODULES[0];
+        assertGrowth("wall time", smallest.nanos, largest.nanos, sizeRatio, MAX_TIME_GROWTH, runs);
+        assertGrowth("allocated memory", smallest.allocatedBytes, largest.allocatedBytes, sizeRatio, MAX_ALLOCATION_GROWTH, runs);
+        assertGrowth("peak heap", smallest.peakHeapBytes, largest.peakHeapBytes, sizeRatio, MAX_PEAK_HEAP_GROWTH, runs);
+    }
+
+    private static void assertGrowth(String cost, long smallest, long largest, double sizeRatio, double maxGrowth, CharSequence runs) {
+        double growth = largest / (smallest * sizeRatio);
+        assertTrue(String.format("The %s per module grew %.2f times, more than the allowed %.2f times:%s", cost, growth, maxGrowth, runs),
+                growth <= maxGrowth);
+    }
+
+    /**
+     * Runs the plugin sequentially, so the memory allocated while building the module models,
+     * which dominates the allocations of the plugin, is allocated on the calling thread.
+     */
+    private Measurement run(Path pomFile) throws Exception {
+        DependencyManagementMetricsMojo mojo = getMojo(pomFile.getParent().toFile());
+        setVariableValueToObject(mojo, "failOnViolation", false);
+        setVariableValueToObject(mojo, "cache", false);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+        System.gc();
+        long usedHeap = heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long allocatedBytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        mojo.execute();
+
+        long nanos = System.nanoTime() - start;
+        allocatedBytes = threads.getCurrentThreadAllocatedBytes() - allocatedBytes;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - usedHeap;
+        assertTrue(pomFile.resolveSibling("target/dependency-metrics-result.txt").toFile().isFile());
+        return new Measurement(nanos, allocatedBytes, peakHeap);
+    }
+
+    private DependencyManagementMetricsMojo getMojo(File projectDir) throws Exception {
+        MavenProject mavenProject = readMavenProject(projectDir);
+        MavenSession mavenSession = newMavenSession(mavenProject);
+        MojoExecution mojoExecution = newMojoExecution("check");
+        return (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, mojoExecution);
+    }
+
+    protected MavenProject readMavenProject(File basedir)
+            throws Exception {
+        File pom = new File(basedir, "pom.xml");
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setBaseDirectory(basedir);
+        ProjectBuildingRequest configuration = request.getProjectBuildingRequest();
+        configuration.setRepositorySession(new DefaultRepositorySystemSession());
+        MavenProject project = lookup(ProjectBuilder.class).build(pom, configuration).getProject();
+        assertNotNull(project);
+        return project;
+    }
+
+    private static final class Measurement {
+        private final long nanos;
+        private final long allocatedBytes;
+        private final long peakHeapBytes;
+
+        private Measurement(long nanos, long allocatedBytes, long peakHeapBytes) {
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+    }
+}
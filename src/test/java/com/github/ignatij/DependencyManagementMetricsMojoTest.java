@@ -1,18 +1,47 @@
 package com.github.ignatij;
 
+import com.github.ignatij.graph.ModuleDescriptor;
+import com.github.ignatij.history.MetricsHistory;
+import com.github.ignatij.statistic.Point;
+import com.github.ignatij.violation.exception.AcyclicDependenciesPrincipleViolation;
 import com.github.ignatij.violation.exception.StableAbstractionsPrincipleViolation;
 import com.github.ignatij.violation.exception.StableDependenciesPrincipleViolation;
 import org.apache.maven.execution.DefaultMavenExecutionRequest;
 import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -52,6 +81,721 @@ public class DependencyManagementMetricsMojoTest extends AbstractMojoTestCase {
         assertDoesNotThrow(myMojo::execute);
     }
 
+    /**
+     * Simple two module project with the profile written next to the output file.
+     *
+     * @throws Exception if any
+     */
+    public void testProfileTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        DependencyManagementMetricsMojo myMojo = getMojo(twoModuleProjectDir);
+        assertNotNull(myMojo);
+        setVariableValueToObject(myMojo, "profile", true);
+
+        // when
+        assertDoesNotThrow(myMojo::execute);
+
+        // then
+        String profile = Files.readString(getTestFile(twoModuleProjectDir, "target/dependency-metrics-profile.json").toPath());
+        assertTrue(profile.contains("\"phaseNanos\": {\"graph\": "));
+        assertTrue(profile.contains("{\"module\": \"module1\""));
+        assertTrue(profile.contains("{\"module\": \"module2\""));
+    }
+
+    /**
+     * Simple two module project analysed during a flight recording with the events of the plugin enabled.
+     *
+     * @throws Exception if any
+     */
+    public void testFlightRecorderEventsTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = "src/test/resources/two-module-project/";
+        DependencyManagementMetricsMojo myMojo = getMojo(twoModuleProjectDir);
+        assertNotNull(myMojo);
+        Path recordingFile = Files.createTempFile("dependency-metrics", ".jfr");
+
+        // when
+        try (Recording recording = new Recording()) {
+            recording.enable("com.github.ignatij.Phase");
+            recording.enable("com.github.ignatij.ModuleBuild");
+            recording.enable("com.github.ignatij.ModuleScan");
+            recording.enable("com.github.ignatij.ReportWrite");
+            recording.start();
+            assertDoesNotThrow(myMojo::execute);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        Files.delete(recordingFile);
+        assertEquals(List.of("graph", "instability", "abstraction", "write", "violations"), events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.github.ignatij.Phase"))
+                .map(event -> event.getString("phase"))
+                .collect(Collectors.toList()));
+        assertEquals(List.of("module1", "module2"), events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.github.ignatij.ModuleScan"))
+                .map(event -> event.getString("module"))
+                .sorted()
+                .collect(Collectors.toList()));
+        assertEquals(2, events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.github.ignatij.ModuleBuild"))
+                .count());
+        assertEquals(1, events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.github.ignatij.ReportWrite"))
+                .count());
+    }
+
+    /**
+     * Simple two module project with an output file having the extension of the JSON report, which would be
+     * overwritten by the JSON report.
+     *
+     * @throws Exception if any
+     */
+    public void testReportFormatsWithTheSameOutputFile()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        DependencyManagementMetricsMojo myMojo = getMojo(twoModuleProjectDir);
+        assertNotNull(myMojo);
+        setVariableValueToObject(myMojo, "formats", List.of("text", "json"));
+        setVariableValueToObject(myMojo, "outputFile", getTestFile(twoModuleProjectDir, "target/dependency-metrics-result.json"));
+
+        // when
+        Throwable exception = assertThrows(MojoExecutionException.class, myMojo::execute);
+
+        // then
+        assertEquals("The text report and the json report would be written to the same file, change the extension of the output file",
+                exception.getMessage());
+        assertFalse(getTestFile(twoModuleProjectDir, "target/dependency-metrics-result.json").exists());
+    }
+
+    /**
+     * Simple two module project with the report written as text, JSON and CSV.
+     *
+     * @throws Exception if any
+     */
+    public void testReportFormatsTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        DependencyManagementMetricsMojo myMojo = getMojo(twoModuleProjectDir);
+        assertNotNull(myMojo);
+        setVariableValueToObject(myMojo, "formats", List.of("text", "json", "csv"));
+
+        // when
+        assertDoesNotThrow(myMojo::execute);
+
+        // then
+        assertTrue(getTestFile(twoModuleProjectDir, "target/dependency-metrics-result.txt").isFile());
+        String json = Files.readString(getTestFile(twoModuleProjectDir, "target/dependency-metrics-result.json").toPath());
+        assertTrue(json.contains("{\"component\": \"module1\", \"afferentCouplings\": 0, \"efferentCouplings\": 1, "
+                + "\"instability\": 1.0, \"abstraction\": 0.0, \"distance\": 0.0, \"zoneOfPain\": false, \"zoneOfUselessness\": false}"));
+        assertTrue(json.contains("\"zonesOfExclusion\": {\"zoneOfPain\": [\"module2\"], \"zoneOfUselessness\": []}"));
+        List<String> csv = Files.readAllLines(getTestFile(twoModuleProjectDir, "target/dependency-metrics-result.csv").toPath());
+        assertEquals("component,afferent_couplings,efferent_couplings,instability,abstraction,distance,zone_of_pain,zone_of_uselessness", csv.get(0));
+        assertEquals("module2,1,0,0.0,0.4,0.6,true,false", csv.get(2));
+        assertEquals("# mean,0.3", csv.get(3));
+        assertEquals("# variance,0.09", csv.get(4));
+        assertEquals("# p50,0.0", csv.get(6));
+        assertEquals("# p90,0.6", csv.get(7));
+    }
+
+    /**
+     * Simple two module project analysed incrementally, where a second run without any changes skips the analysis,
+     * without creating the project graph, and a run after adding a source file updates the report.
+     *
+     * @throws Exception if any
+     */
+    public void testIncrementalTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        DependencyManagementMetricsMojo myMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(myMojo, "incremental", true);
+        myMojo.execute();
+        Path report = getTestFile(twoModuleProjectDir).toPath().resolve("target/dependency-metrics-result.txt");
+        String initialReport = Files.readString(report);
+
+        // when
+        DependencyManagementMetricsMojo unchangedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(unchangedMojo, "incremental", true);
+        setVariableValueToObject(unchangedMojo, "projectBuilder", null);
+
+        // then
+        assertDoesNotThrow(unchangedMojo::execute);
+        assertEquals(initialReport, Files.readString(report));
+
+        // when
+        Files.writeString(getTestFile(twoModuleProjectDir).toPath().resolve("module1/src/main/java/TestInterface.java"),
+                "public interface TestInterface {\n}\n");
+        DependencyManagementMetricsMojo changedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(changedMojo, "incremental", true);
+
+        // then
+        assertDoesNotThrow(changedMojo::execute);
+        assertFalse(initialReport.equals(Files.readString(report)));
+    }
+
+    /**
+     * Simple two module project analysed incrementally, where a run with another user property, which could activate
+     * a profile adding modules or dependencies, and a run of another version of the plugin analyse the modules again.
+     *
+     * @throws Exception if any
+     */
+    public void testIncrementalSettingsTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        DependencyManagementMetricsMojo myMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(myMojo, "incremental", true);
+        myMojo.execute();
+        List<String> messages = new ArrayList<>();
+        SystemStreamLog log = new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                messages.add(content.toString());
+            }
+        };
+
+        // when
+        DependencyManagementMetricsMojo propertyMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(propertyMojo, "incremental", true);
+        propertyMojo.session.getUserProperties().setProperty("withExtraModules", "true");
+        propertyMojo.setLog(log);
+        propertyMojo.execute();
+        DependencyManagementMetricsMojo upgradedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(upgradedMojo, "incremental", true);
+        PluginDescriptor upgradedPlugin = new PluginDescriptor();
+        upgradedPlugin.setVersion("999.0");
+        setVariableValueToObject(upgradedMojo, "plugin", upgradedPlugin);
+        upgradedMojo.setLog(log);
+        upgradedMojo.execute();
+
+        // then
+        assertFalse(messages.contains("The modules and their sources did not change since the last run, skipping the analysis"));
+        assertEquals(2, messages.stream().filter(message -> message.startsWith("Analysed 2 modules")).count());
+    }
+
+    /**
+     * Project analysed incrementally whose modules inherit from a parent outside of the project directory, where
+     * one of the module POM files is not named pom.xml. A change in either of them analyses the modules again.
+     *
+     * @throws Exception if any
+     */
+    public void testIncrementalExternalParentScenario()
+            throws Exception {
+        // given
+        String projectDir = copyProject("src/test/resources/external-parent-project/") + "/project";
+        DependencyManagementMetricsMojo myMojo = getMojo(projectDir);
+        setVariableValueToObject(myMojo, "incremental", true);
+        myMojo.execute();
+        Path parentPomFile = getTestFile(projectDir, "../company-parent/pom.xml").toPath().normalize();
+        Path modulePomFile = getTestFile(projectDir, "module2/module2-pom.xml").toPath().normalize();
+        assertTrue(myMojo.getPomFiles().containsAll(List.of(parentPomFile, modulePomFile)));
+        List<String> messages = new ArrayList<>();
+        SystemStreamLog log = new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                messages.add(content.toString());
+            }
+        };
+
+        // when
+        Files.writeString(parentPomFile, Files.readString(parentPomFile).replace("</project>", "    <!-- changed -->\n</project>"));
+        DependencyManagementMetricsMojo parentChangedMojo = getMojo(projectDir);
+        setVariableValueToObject(parentChangedMojo, "incremental", true);
+        parentChangedMojo.setLog(log);
+        parentChangedMojo.execute();
+        Files.writeString(modulePomFile, Files.readString(modulePomFile).replace("</project>", "    <!-- changed -->\n</project>"));
+        DependencyManagementMetricsMojo moduleChangedMojo = getMojo(projectDir);
+        setVariableValueToObject(moduleChangedMojo, "incremental", true);
+        moduleChangedMojo.setLog(log);
+        moduleChangedMojo.execute();
+
+        // then
+        assertFalse(messages.contains("The modules and their sources did not change since the last run, skipping the analysis"));
+        assertEquals(2, messages.stream().filter(message -> message.startsWith("Analysed 2 modules")).count());
+    }
+
+    /**
+     * A second build in the same JVM reuses the module graph without building the module models,
+     * and only scans the module whose source files changed.
+     *
+     * @throws Exception if any
+     */
+    public void testDaemonCacheTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        DependencyManagementMetricsMojo myMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(myMojo, "daemonCache", true);
+        myMojo.execute();
+        Path report = getTestFile(twoModuleProjectDir).toPath().resolve("target/dependency-metrics-result.txt");
+        String initialReport = Files.readString(report);
+
+        // when
+        DependencyManagementMetricsMojo warmMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(warmMojo, "daemonCache", true);
+        setVariableValueToObject(warmMojo, "projectBuilder", null);
+
+        // then
+        assertDoesNotThrow(warmMojo::execute);
+        assertEquals(initialReport, Files.readString(report));
+
+        // when
+        Files.writeString(getTestFile(twoModuleProjectDir).toPath().resolve("module1/src/main/java/TestInterface.java"),
+                "public interface TestInterface {\n}\n");
+        DependencyManagementMetricsMojo changedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(changedMojo, "daemonCache", true);
+        setVariableValueToObject(changedMojo, "projectBuilder", null);
+
+        // then
+        assertDoesNotThrow(changedMojo::execute);
+        assertFalse(initialReport.equals(Files.readString(report)));
+    }
+
+    /**
+     * Simple two module project in a git repository, where a run scoped by the committed revision only scans
+     * the module with a changed source file and reuses the abstraction level of the other module from the first run.
+     *
+     * @throws Exception if any
+     */
+    public void testGitBaseTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        File basedir = getTestFile(twoModuleProjectDir);
+        git(basedir, "init", "-q");
+        git(basedir, "add", "-A");
+        git(basedir, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "initial");
+        DependencyManagementMetricsMojo baseMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(baseMojo, "gitBase", "HEAD");
+        baseMojo.execute();
+        Path report = basedir.toPath().resolve("target/dependency-metrics-result.txt");
+        String initialReport = Files.readString(report);
+
+        // when
+        Files.writeString(basedir.toPath().resolve("module1/src/main/java/Test.java"), "public interface Test {\n}\n");
+        DependencyManagementMetricsMojo changedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(changedMojo, "gitBase", "HEAD");
+        List<String> messages = new ArrayList<>();
+        changedMojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                messages.add(content.toString());
+            }
+        });
+
+        // then
+        assertDoesNotThrow(changedMojo::execute);
+        assertTrue(messages.contains("1 files changed since HEAD, in 1 modules"));
+        assertFalse(initialReport.equals(Files.readString(report)));
+    }
+
+    /**
+     * Simple two module project in a git repository, where the change of a source file is reverted after a run scoped
+     * by the committed revision. The next run reuses the abstraction level of the module as of the committed revision,
+     * not the one of the run in between.
+     *
+     * @throws Exception if any
+     */
+    public void testGitBaseRevertedChangeScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        File basedir = getTestFile(twoModuleProjectDir);
+        git(basedir, "init", "-q");
+        git(basedir, "add", "-A");
+        git(basedir, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "initial");
+        DependencyManagementMetricsMojo baseMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(baseMojo, "gitBase", "HEAD");
+        baseMojo.execute();
+        Path report = basedir.toPath().resolve("target/dependency-metrics-result.txt");
+        String initialReport = Files.readString(report);
+        Path sourceFile = basedir.toPath().resolve("module1/src/main/java/Test.java");
+        String committedSource = Files.readString(sourceFile);
+        Files.writeString(sourceFile, "public interface Test {\n}\n");
+        DependencyManagementMetricsMojo changedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(changedMojo, "gitBase", "HEAD");
+        changedMojo.execute();
+        assertFalse(initialReport.equals(Files.readString(report)));
+
+        // when
+        Files.writeString(sourceFile, committedSource);
+        DependencyManagementMetricsMojo revertedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(revertedMojo, "gitBase", "HEAD");
+        List<String> messages = new ArrayList<>();
+        revertedMojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                messages.add(content.toString());
+            }
+
+            @Override
+            public void debug(CharSequence content) {
+                messages.add(content.toString());
+            }
+        });
+
+        // then
+        assertDoesNotThrow(revertedMojo::execute);
+        assertTrue(messages.contains("0 files changed since HEAD, in 0 modules"));
+        assertTrue(messages.contains("Reusing the abstraction level of 2 modules, scanning 0 modules"));
+        assertEquals(initialReport, Files.readString(report));
+    }
+
+    /**
+     * Simple two module project in a git repository, where a new source file that is not tracked yet counts as
+     * a change of its module, unless it is ignored.
+     *
+     * @throws Exception if any
+     */
+    public void testGitBaseUntrackedFileScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        File basedir = getTestFile(twoModuleProjectDir);
+        git(basedir, "init", "-q");
+        git(basedir, "add", "-A");
+        git(basedir, "-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "initial");
+        DependencyManagementMetricsMojo baseMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(baseMojo, "gitBase", "HEAD");
+        baseMojo.execute();
+
+        // when
+        Files.writeString(basedir.toPath().resolve(".gitignore"), "# generated\nIgnored*.java\n");
+        Files.writeString(basedir.toPath().resolve("module1/src/main/java/Ignored.java"), "public interface Ignored {\n}\n");
+        Files.writeString(basedir.toPath().resolve("module2/src/main/java/Added.java"), "public interface Added {\n}\n");
+        DependencyManagementMetricsMojo changedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(changedMojo, "gitBase", "HEAD");
+        List<String> messages = new ArrayList<>();
+        changedMojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                messages.add(content.toString());
+            }
+
+            @Override
+            public void debug(CharSequence content) {
+                messages.add(content.toString());
+            }
+        });
+
+        // then
+        assertDoesNotThrow(changedMojo::execute);
+        assertTrue(messages.contains("1 untracked files in the compile source roots"));
+        assertTrue(messages.contains("1 files changed since HEAD, in 1 modules"));
+        assertTrue(messages.contains("Reusing the abstraction level of 1 modules, scanning 1 modules"));
+    }
+
+    /**
+     * Every build appends its metrics to the history, and the history goal reports the modules whose distance grew.
+     *
+     * @throws Exception if any
+     */
+    public void testHistoryTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        File historyFile = getTestFile(twoModuleProjectDir, ".metrics/history.bin");
+        DependencyManagementMetricsMojo firstMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(firstMojo, "historyFile", historyFile);
+        firstMojo.execute();
+        // module1 becomes abstract while being unstable, so its distance from the main sequence grows
+        Files.writeString(getTestFile(twoModuleProjectDir, "module1/src/main/java/Test.java").toPath(), "public interface Test {\n}\n");
+        DependencyManagementMetricsMojo secondMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(secondMojo, "historyFile", historyFile);
+        secondMojo.execute();
+
+        // when
+        HistoryMojo historyMojo = (HistoryMojo) lookupConfiguredMojo(newMavenSession(readMavenProject(getTestFile(twoModuleProjectDir))), newMojoExecution("history"));
+        setVariableValueToObject(historyMojo, "historyFile", historyFile);
+        setVariableValueToObject(historyMojo, "regressionBuilds", 1);
+        setVariableValueToObject(historyMojo, "failOnRegression", true);
+
+        // then
+        assertEquals(2, MetricsHistory.read(historyFile).size());
+        assertEquals(1.0, MetricsHistory.read(historyFile).getDistance(1, "module1").getAsDouble());
+        MojoExecutionException regression = assertThrows(MojoExecutionException.class, historyMojo::execute);
+        assertEquals("The distance from the main sequence grew in each of the last 1 builds for: module1", regression.getMessage());
+    }
+
+    /**
+     * Simple two module project analysed incrementally, where the second run skips the analysis and still appends
+     * the same metrics to the history.
+     *
+     * @throws Exception if any
+     */
+    public void testHistoryIncrementalTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        File historyFile = getTestFile(twoModuleProjectDir, ".metrics/history.bin");
+        DependencyManagementMetricsMojo firstMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(firstMojo, "incremental", true);
+        setVariableValueToObject(firstMojo, "historyFile", historyFile);
+        firstMojo.execute();
+        DependencyManagementMetricsMojo unchangedMojo = getMojo(twoModuleProjectDir);
+        setVariableValueToObject(unchangedMojo, "incremental", true);
+        setVariableValueToObject(unchangedMojo, "historyFile", historyFile);
+        List<String> messages = new ArrayList<>();
+        unchangedMojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                messages.add(content.toString());
+            }
+        });
+
+        // when
+        assertDoesNotThrow(unchangedMojo::execute);
+
+        // then
+        assertTrue(messages.contains("The modules and their sources did not change since the last run, skipping the analysis"));
+        MetricsHistory history = MetricsHistory.read(historyFile);
+        assertEquals(2, history.size());
+        assertEquals(getDistances(history, 0), getDistances(history, 1));
+    }
+
+    /**
+     * The watch goal analyses the modules again after a source file changed, until it is interrupted.
+     *
+     * @throws Exception if any
+     */
+    public void testWatchTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        DependencyManagementMetricsMojo watchMojo = getMojo(twoModuleProjectDir, "watch");
+        CountDownLatch watching = new CountDownLatch(1);
+        watchMojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                super.info(content);
+                if (content.toString().startsWith("Watching")) {
+                    watching.countDown();
+                }
+            }
+        });
+        Thread watch = new Thread(() -> assertDoesNotThrow(watchMojo::execute));
+        watch.start();
+        assertTrue(watching.await(30, TimeUnit.SECONDS));
+        Path report = getTestFile(twoModuleProjectDir).toPath().resolve("target/dependency-metrics-result.txt");
+        String initialReport = Files.readString(report);
+
+        // when
+        Files.writeString(getTestFile(twoModuleProjectDir).toPath().resolve("module1/src/main/java/TestInterface.java"),
+                "public interface TestInterface {\n}\n");
+
+        // then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (initialReport.equals(Files.readString(report)) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        watch.interrupt();
+        watch.join(TimeUnit.SECONDS.toMillis(30));
+        assertFalse(watch.isAlive());
+        assertFalse(initialReport.equals(Files.readString(report)));
+    }
+
+    /**
+     * The watch goal in aggregate mode analyses the modules again after a source file and then a POM file changed,
+     * without reusing the abstraction levels and the module models shared within the session.
+     *
+     * @throws Exception if any
+     */
+    public void testWatchAggregateTwoModuleProjectScenario()
+            throws Exception {
+        // given
+        String twoModuleProjectDir = copyProject("src/test/resources/two-module-project/");
+        Path projectDirectory = getTestFile(twoModuleProjectDir).toPath();
+        DependencyManagementMetricsMojo watchMojo = getMojo(twoModuleProjectDir, "watch");
+        setVariableValueToObject(watchMojo, "aggregate", true);
+        CountDownLatch watching = new CountDownLatch(1);
+        watchMojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                super.info(content);
+                if (content.toString().startsWith("Watching")) {
+                    watching.countDown();
+                }
+            }
+        });
+        Thread watch = new Thread(() -> assertDoesNotThrow(watchMojo::execute));
+        watch.start();
+        assertTrue(watching.await(30, TimeUnit.SECONDS));
+        Path report = projectDirectory.resolve("target/dependency-metrics-result.txt");
+        String initialReport = Files.readString(report);
+
+        // when
+        Files.writeString(projectDirectory.resolve("module1/src/main/java/TestInterface.java"), "public interface TestInterface {\n}\n");
+        String sourceChangeReport = awaitChange(report, initialReport);
+        Path pomFile = projectDirectory.resolve("module2/pom.xml");
+        Files.writeString(pomFile, Files.readString(pomFile).replace("</project>", "    <dependencies>\n"
+                + "        <dependency>\n"
+                + "            <groupId>mk.jax.test</groupId>\n"
+                + "            <artifactId>module3</artifactId>\n"
+                + "            <version>0.1</version>\n"
+                + "        </dependency>\n"
+                + "    </dependencies>\n"
+                + "</project>"));
+        String pomChangeReport = awaitChange(report, sourceChangeReport);
+
+        // then
+        watch.interrupt();
+        watch.join(TimeUnit.SECONDS.toMillis(30));
+        assertFalse(watch.isAlive());
+        assertFalse(initialReport.equals(sourceChangeReport));
+        assertFalse(sourceChangeReport.equals(pomChangeReport));
+        assertEquals(1, watchMojo.moduleGraph.getDeclaredDependencyCount(watchMojo.moduleGraph.indexOf("module2")));
+    }
+
+    /**
+     * Two modules with packages, where mk.jax.util depends on the less stable mk.jax.format.
+     * The package report is written next to the module report, before the violation fails the build.
+     *
+     * @throws Exception if any
+     */
+    public void testPackageMetricsWithException()
+            throws Exception {
+        // given
+        String packageMetricsProject = copyProject("src/test/resources/package-metrics-project");
+        compilePackagedModules(getTestFile(packageMetricsProject));
+        DependencyManagementMetricsMojo mojo = getMojo(packageMetricsProject);
+        assertNotNull(mojo);
+        setVariableValueToObject(mojo, "packageMetrics", true);
+        setVariableValueToObject(mojo, "failOnViolation", true);
+        setVariableValueToObject(mojo, "formats", List.of("csv"));
+
+        // when
+        Throwable exception = assertThrows(StableDependenciesPrincipleViolation.class, mojo::execute);
+
+        // then
+        assertEquals("Component mk.jax.util is violating the stable dependencies principle", exception.getMessage());
+        List<String> csv = Files.readAllLines(getTestFile(packageMetricsProject, "target/dependency-metrics-packages.csv").toPath());
+        assertEquals(List.of(
+                "component,afferent_couplings,efferent_couplings,instability,abstraction,distance,zone_of_pain,zone_of_uselessness",
+                "mk.jax.api,2,0,0.0,1.0,0.0,false,false",
+                "mk.jax.format,1,2,0.6666666666666666,0.0,0.33333333333333337,false,false",
+                "mk.jax.impl,0,2,1.0,0.0,0.0,false,false",
+                "mk.jax.model,1,0,0.0,0.0,1.0,true,false",
+                "mk.jax.util,1,1,0.5,0.0,0.5,true,false"), csv.subList(0, 6));
+    }
+
+    /**
+     * Three modules, where module2 uses two classes of module1 and module3 uses one class of module2, while only using
+     * a compile-time constant of the module1 it declares a dependency on. The dependencies are weighted by the classes
+     * used, and the dependency of module3 on module1 is reported as unused. The dependency of module1 on a module4
+     * outside the project counts as a single coupling.
+     *
+     * @throws Exception if any
+     */
+    public void testWeightedInstability()
+            throws Exception {
+        // given
+        String weightedInstabilityProject = copyProject("src/test/resources/weighted-instability-project");
+        compilePackagedModules(getTestFile(weightedInstabilityProject));
+        DependencyManagementMetricsMojo mojo = getMojo(weightedInstabilityProject);
+        assertNotNull(mojo);
+        setVariableValueToObject(mojo, "weightedInstability", true);
+        setVariableValueToObject(mojo, "formats", List.of("csv"));
+        List<String> warnings = new ArrayList<>();
+        mojo.setLog(new SystemStreamLog() {
+            @Override
+            public void warn(CharSequence content) {
+                warnings.add(content.toString());
+            }
+        });
+
+        // when
+        assertDoesNotThrow(mojo::execute);
+
+        // then
+        assertEquals(List.of("module3 declares a dependency on module1, but does not use any of its classes"), warnings);
+        List<String> csv = Files.readAllLines(getTestFile(weightedInstabilityProject, "target/dependency-metrics-result.csv").toPath());
+        assertTrue(csv.get(1).startsWith("module1,2,1,0.3333333333333333,"));
+        assertTrue(csv.get(2).startsWith("module2,1,2,0.6666666666666666,"));
+        assertTrue(csv.get(3).startsWith("module3,0,1,1.0,"));
+    }
+
+    /**
+     * Module1 and Module2 depend on each other, and so do the packages mk.jax.a and mk.jax.b of Module1.
+     * Both cycles are written to the reports before the cycle between the modules fails the build.
+     *
+     * @throws Exception if any
+     */
+    public void testCyclicDependenciesWithException()
+            throws Exception {
+        // given
+        String cyclicDependenciesProject = copyProject("src/test/resources/cyclic-dependencies-project");
+        compilePackagedModules(getTestFile(cyclicDependenciesProject));
+        DependencyManagementMetricsMojo mojo = getMojo(cyclicDependenciesProject);
+        assertNotNull(mojo);
+        setVariableValueToObject(mojo, "packageMetrics", true);
+        setVariableValueToObject(mojo, "failOnViolation", true);
+        setVariableValueToObject(mojo, "formats", List.of("text", "json"));
+
+        // when
+        Throwable exception = assertThrows(AcyclicDependenciesPrincipleViolation.class, mojo::execute);
+
+        // then
+        assertEquals("Components module1, module2 are violating the acyclic dependencies principle", exception.getMessage());
+        String report = Files.readString(getTestFile(cyclicDependenciesProject, "target/dependency-metrics-result.txt").toPath());
+        assertTrue(report.contains("DEPENDENCY CYCLES" + "=".repeat(30) + "\n\nmodule1, module2\n"));
+        String packageReport = Files.readString(getTestFile(cyclicDependenciesProject, "target/dependency-metrics-packages.json").toPath());
+        assertTrue(packageReport.contains("\"cycles\": [[\"mk.jax.a\", \"mk.jax.b\"]],"));
+    }
+
+    /**
+     * Runs the analysis in aggregate mode on the top-level aggregator and on one of its nested aggregators within
+     * the same session, where the skipped nested aggregator appends the metrics of its modules to its own history,
+     * but not to the history the top-level aggregator already appended to.
+     *
+     * @throws Exception if any
+     */
+    public void testAggregateHistoryMultiModulesFromReactor()
+            throws Exception {
+        // given
+        String projectDir = copyProject("src/test/resources/weak-dependencies-weak-abstractions-with-exception-multi-module/");
+        File topLevelHistoryFile = getTestFile(projectDir, ".metrics/history.bin");
+        File nestedHistoryFile = getTestFile(projectDir, ".metrics/nested-history.bin");
+        MavenSession mavenSession = newReactorSession(projectDir);
+        DependencyManagementMetricsMojo topLevelMojo = (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, newMojoExecution("check"));
+        setVariableValueToObject(topLevelMojo, "aggregate", true);
+        setVariableValueToObject(topLevelMojo, "failOnViolation", false);
+        setVariableValueToObject(topLevelMojo, "historyFile", topLevelHistoryFile);
+        topLevelMojo.execute();
+
+        MavenProject moduleOfModules = mavenSession.getProjects().stream()
+                .filter(reactorProject -> reactorProject.getArtifactId().equals("module-of-modules"))
+                .findFirst()
+                .orElseThrow();
+        mavenSession.setCurrentProject(moduleOfModules);
+        DependencyManagementMetricsMojo sameHistoryMojo = (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, newMojoExecution("check"));
+        setVariableValueToObject(sameHistoryMojo, "aggregate", true);
+        setVariableValueToObject(sameHistoryMojo, "historyFile", topLevelHistoryFile);
+        DependencyManagementMetricsMojo nestedHistoryMojo = (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, newMojoExecution("check"));
+        setVariableValueToObject(nestedHistoryMojo, "aggregate", true);
+        setVariableValueToObject(nestedHistoryMojo, "historyFile", nestedHistoryFile);
+
+        // when
+        assertDoesNotThrow(sameHistoryMojo::execute);
+        assertDoesNotThrow(nestedHistoryMojo::execute);
+
+        // then
+        assertEquals(1, MetricsHistory.read(topLevelHistoryFile).size());
+        MetricsHistory nestedHistory = MetricsHistory.read(nestedHistoryFile);
+        assertEquals(1, nestedHistory.size());
+        assertEquals(nestedHistoryMojo.moduleGraph.size(), nestedHistory.getSummary(0).getComponentCount());
+        for (Point point : nestedHistory.getPoints(0)) {
+            assertEquals(MetricsHistory.read(topLevelHistoryFile).getDistance(0, point.getComponent()).getAsDouble(), point.distance());
+        }
+        assertFalse(new File(moduleOfModules.getBuild().getDirectory(), "dependency-metrics-result.txt").exists());
+    }
+
     /**
      * A rather complex scenario of the following:
      * Module1, Module2, Module3 are depending on Module4.
@@ -101,6 +845,183 @@ public class DependencyManagementMetricsMojoTest extends AbstractMojoTestCase {
         assertEquals("Component module4 is violating the stable dependencies principle", t.getMessage());
     }
 
+    /**
+     * Same scenario as {@link #testWeakDependenciesWithExceptionWithMultiModules()}, with the module models
+     * being built concurrently.
+     *
+     * @throws Exception if any
+     */
+    public void testWeakDependenciesWithExceptionWithMultiModulesInParallel()
+            throws Exception {
+        // given
+        String stableDependenciesPrincipleViolationProjectDir = "src/test/resources/weak-dependencies-weak-abstractions-with-exception-multi-module/";
+        DependencyManagementMetricsMojo myMojo = getMojo(stableDependenciesPrincipleViolationProjectDir);
+        assertNotNull(myMojo);
+        setVariableValueToObject(myMojo, "parallel", true);
+        setVariableValueToObject(myMojo, "threads", 4);
+
+        // when
+        Throwable t = assertThrows(StableDependenciesPrincipleViolation.class, myMojo::execute);
+
+        // then
+        assertEquals("Component module4 is violating the stable dependencies principle", t.getMessage());
+    }
+
+    /**
+     * Project where two stable modules depend on the same unstable module, where every violating dependency is
+     * logged with its delta and both modules are named in the exception.
+     *
+     * @throws Exception if any
+     */
+    public void testMultipleStableDependenciesViolations()
+            throws Exception {
+        // given
+        DependencyManagementMetricsMojo myMojo = getMojo(copyProject("src/test/resources/multiple-violations-project/"));
+        List<String> errors = new ArrayList<>();
+        myMojo.setLog(new SystemStreamLog() {
+            @Override
+            public void error(CharSequence content) {
+                errors.add(content.toString());
+            }
+        });
+
+        // when
+        Throwable t = assertThrows(StableDependenciesPrincipleViolation.class, myMojo::execute);
+
+        // then
+        assertEquals("Components core1, core2 are violating the stable dependencies principle", t.getMessage());
+        String delta = String.valueOf(1.0 / 3 - 0.5);
+        assertEquals(List.of(
+                "Stable Dependencies Principle violation: core1 (instability 0.3333333333333333) depends on util (instability 0.5), delta " + delta,
+                "Stable Dependencies Principle violation: core2 (instability 0.3333333333333333) depends on util (instability 0.5), delta " + delta
+        ), errors);
+    }
+
+    /**
+     * Generated project of nested aggregators, where the module graph built concurrently has the same modules
+     * in the same order as the one built sequentially.
+     *
+     * @throws Exception if any
+     */
+    public void testParallelModuleGraphHasTheSequentialOrder()
+            throws Exception {
+        // given
+        Path projectDirectory = Paths.get(getBasedir(), "target", "test-projects", "parallel-order-project");
+        SyntheticProjectGenerator.generate(projectDirectory, 120, 7);
+        String projectDir = "target/test-projects/parallel-order-project";
+        DependencyManagementMetricsMojo sequentialMojo = getMojo(projectDir);
+        setVariableValueToObject(sequentialMojo, "cache", false);
+        sequentialMojo.execute();
+        String sequentialReport = Files.readString(getTestFile(projectDir, "target/dependency-metrics-result.txt").toPath());
+
+        // when
+        DependencyManagementMetricsMojo parallelMojo = getMojo(projectDir);
+        setVariableValueToObject(parallelMojo, "cache", false);
+        setVariableValueToObject(parallelMojo, "parallel", true);
+        setVariableValueToObject(parallelMojo, "threads", 8);
+        parallelMojo.execute();
+
+        // then
+        assertEquals(120, parallelMojo.moduleGraph.size());
+        assertEquals(getModuleNames(sequentialMojo), getModuleNames(parallelMojo));
+        assertEquals(sequentialReport, Files.readString(getTestFile(projectDir, "target/dependency-metrics-result.txt").toPath()));
+    }
+
+    /**
+     * Same scenario as {@link #testWeakDependenciesWithExceptionWithMultiModules()}, running inside a full reactor,
+     * where the project graph is created out of the already loaded reactor projects without building any module model.
+     *
+     * @throws Exception if any
+     */
+    public void testWeakDependenciesWithExceptionWithMultiModulesFromReactor()
+            throws Exception {
+        // given
+        String stableDependenciesPrincipleViolationProjectDir = "src/test/resources/weak-dependencies-weak-abstractions-with-exception-multi-module/";
+        DependencyManagementMetricsMojo myMojo = getReactorMojo(stableDependenciesPrincipleViolationProjectDir);
+        assertNotNull(myMojo);
+        setVariableValueToObject(myMojo, "projectBuilder", null);
+
+        // when
+        Throwable t = assertThrows(StableDependenciesPrincipleViolation.class, myMojo::execute);
+
+        // then
+        assertEquals("Component module4 is violating the stable dependencies principle", t.getMessage());
+    }
+
+    /**
+     * Runs the analysis in aggregate mode on the top-level aggregator and on one of its nested aggregators
+     * within the same session, where the nested aggregator is skipped because its modules were already analysed.
+     *
+     * @throws Exception if any
+     */
+    public void testAggregateMultiModulesFromReactor()
+            throws Exception {
+        // given
+        String projectDir = copyProject("src/test/resources/weak-dependencies-weak-abstractions-with-exception-multi-module/");
+        MavenSession mavenSession = newReactorSession(projectDir);
+        DependencyManagementMetricsMojo topLevelMojo = (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, newMojoExecution("check"));
+        setVariableValueToObject(topLevelMojo, "aggregate", true);
+        setVariableValueToObject(topLevelMojo, "failOnViolation", false);
+        topLevelMojo.execute();
+
+        MavenProject moduleOfModules = mavenSession.getProjects().stream()
+                .filter(reactorProject -> reactorProject.getArtifactId().equals("module-of-modules"))
+                .findFirst()
+                .orElseThrow();
+        mavenSession.setCurrentProject(moduleOfModules);
+        DependencyManagementMetricsMojo nestedMojo = (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, newMojoExecution("check"));
+        setVariableValueToObject(nestedMojo, "aggregate", true);
+
+        // when
+        assertDoesNotThrow(nestedMojo::execute);
+
+        // then
+        assertTrue(getTestFile(projectDir, "target/dependency-metrics-result.txt").isFile());
+        assertFalse(new File(moduleOfModules.getBuild().getDirectory(), "dependency-metrics-result.txt").exists());
+    }
+
+    /**
+     * Runs the analysis in aggregate and incremental mode twice, where the execution on the top-level aggregator
+     * is skipped in the second session because nothing changed, and the nested aggregator is still skipped.
+     *
+     * @throws Exception if any
+     */
+    public void testAggregateIncrementalMultiModulesFromReactor()
+            throws Exception {
+        // given
+        String projectDir = copyProject("src/test/resources/weak-dependencies-weak-abstractions-with-exception-multi-module/");
+        DependencyManagementMetricsMojo firstMojo = getReactorMojo(projectDir);
+        setVariableValueToObject(firstMojo, "aggregate", true);
+        setVariableValueToObject(firstMojo, "incremental", true);
+        setVariableValueToObject(firstMojo, "failOnViolation", false);
+        firstMojo.execute();
+
+        MavenSession mavenSession = newReactorSession(projectDir);
+        DependencyManagementMetricsMojo topLevelMojo = (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, newMojoExecution("check"));
+        setVariableValueToObject(topLevelMojo, "aggregate", true);
+        setVariableValueToObject(topLevelMojo, "incremental", true);
+        setVariableValueToObject(topLevelMojo, "failOnViolation", false);
+        topLevelMojo.execute();
+
+        MavenProject moduleOfModules = mavenSession.getProjects().stream()
+                .filter(reactorProject -> reactorProject.getArtifactId().equals("module-of-modules"))
+                .findFirst()
+                .orElseThrow();
+        mavenSession.setCurrentProject(moduleOfModules);
+        DependencyManagementMetricsMojo nestedMojo = (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, newMojoExecution("check"));
+        setVariableValueToObject(nestedMojo, "aggregate", true);
+        setVariableValueToObject(nestedMojo, "incremental", true);
+
+        // when
+        assertDoesNotThrow(nestedMojo::execute);
+
+        // then
+        assertNull(topLevelMojo.moduleGraph);
+        assertTrue(SessionCache.of(mavenSession).getAnalysedPomFiles().contains(moduleOfModules.getFile().toPath().toAbsolutePath().toString()));
+        assertNull(nestedMojo.moduleGraph);
+        assertFalse(new File(moduleOfModules.getBuild().getDirectory(), "dependency-metrics-result.txt").exists());
+    }
+
     /**
      * A rather complex scenario of the following:
      * Module1, Module2, Module3 are depending on Module4.
@@ -171,6 +1092,28 @@ public class DependencyManagementMetricsMojoTest extends AbstractMojoTestCase {
         assertEquals("Component module4 is violating the stable abstraction principle", exception.getMessage());
     }
 
+    /**
+     * Same scenario as {@link #testWeakAbstractionsWithException()}, with the abstraction level being calculated
+     * from the compiled classes of the modules.
+     *
+     * @throws Exception if any
+     */
+    public void testWeakAbstractionsWithExceptionFromBytecode()
+            throws Exception {
+        // given
+        String multiModuleStableDependenciesProject = copyProject("src/test/resources/stable-dependencies-weak-abstractions-with-exception");
+        compileModules(getTestFile(multiModuleStableDependenciesProject));
+        DependencyManagementMetricsMojo mojo = getMojo(multiModuleStableDependenciesProject);
+        assertNotNull(mojo);
+        setVariableValueToObject(mojo, "abstractionSource", "bytecode");
+
+        // when
+        Throwable exception = assertThrows(StableAbstractionsPrincipleViolation.class, mojo::execute);
+
+        // then
+        assertEquals("Component module4 is violating the stable abstraction principle", exception.getMessage());
+    }
+
     /**
      * A rather complex scenario of the following:
      * Module1, Module2, Module3 are depending on Module4.
@@ -192,13 +1135,175 @@ public class DependencyManagementMetricsMojoTest extends AbstractMojoTestCase {
     }
 
     private DependencyManagementMetricsMojo getMojo(String projectDir) throws Exception {
+        return getMojo(projectDir, "check");
+    }
+
+    private DependencyManagementMetricsMojo getMojo(String projectDir, String goal) throws Exception {
         File pom = getTestFile(projectDir);
         MavenProject mavenProject = readMavenProject(pom);
         MavenSession mavenSession = newMavenSession(mavenProject);
-        MojoExecution mojoExecution = newMojoExecution("check");
+        MojoExecution mojoExecution = newMojoExecution(goal);
         return (DependencyManagementMetricsMojo) lookupConfiguredMojo(mavenSession, mojoExecution);
     }
 
+    /**
+     * @return the content of the file once it differs from the previous content, or after 30 seconds
+     */
+    private static String awaitChange(Path file, String previousContent) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        String content = Files.readString(file);
+        while (previousContent.equals(content) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            content = Files.readString(file);
+        }
+        return content;
+    }
+
+    private static List<String> getModuleNames(DependencyManagementMetricsMojo mojo) {
+        return mojo.moduleGraph.getModules().stream().map(ModuleDescriptor::getName).collect(Collectors.toList());
+    }
+
+    private DependencyManagementMetricsMojo getReactorMojo(String projectDir) throws Exception {
+        MojoExecution mojoExecution = newMojoExecution("check");
+        return (DependencyManagementMetricsMojo) lookupConfiguredMojo(newReactorSession(projectDir), mojoExecution);
+    }
+
+    private MavenSession newReactorSession(String projectDir) throws Exception {
+        File pom = new File(getTestFile(projectDir), "pom.xml");
+        List<MavenProject> reactorProjects = readReactorProjects(pom);
+        MavenProject topLevelProject = reactorProjects.stream()
+                .filter(reactorProject -> reactorProject.getFile().getAbsoluteFile().equals(pom.getAbsoluteFile()))
+                .findFirst()
+                .orElseThrow();
+        MavenSession mavenSession = newMavenSession(topLevelProject);
+        mavenSession.setProjects(reactorProjects);
+        mavenSession.setAllProjects(reactorProjects);
+        mavenSession.setCurrentProject(topLevelProject);
+        return mavenSession;
+    }
+
+    private List<MavenProject> readReactorProjects(File pom)
+            throws Exception {
+        MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setBaseDirectory(pom.getParentFile());
+        ProjectBuildingRequest configuration = request.getProjectBuildingRequest();
+        configuration.setRepositorySession(new DefaultRepositorySystemSession());
+        List<MavenProject> projects = lookup(ProjectBuilder.class).build(Collections.singletonList(pom), true, configuration)
+                .stream()
+                .map(ProjectBuildingResult::getProject)
+                .collect(Collectors.toList());
+        assertFalse(projects.isEmpty());
+        return projects;
+    }
+
+    /**
+     * Copies a test project to the build directory, so the files created for the test do not end up in the test resources.
+     */
+    private static String copyProject(String projectDir) throws IOException {
+        Path source = Paths.get(getBasedir(), projectDir);
+        Path target = Paths.get(getBasedir(), "target", "test-projects", source.getFileName().toString());
+        if (Files.exists(target)) {
+            try (Stream<Path> files = Files.walk(target)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+        try (Stream<Path> files = Files.walk(source)) {
+            // skip the output of the previous runs on the test project itself
+            for (Path file : files.filter(file -> !isBuildOutput(source.relativize(file))).collect(Collectors.toList())) {
+                Path copy = target.resolve(source.relativize(file));
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+        return Paths.get(getBasedir()).relativize(target).toString();
+    }
+
+    private static boolean isBuildOutput(Path path) {
+        for (Path element : path) {
+            if (element.toString().equals("target")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Double> getDistances(MetricsHistory history, int build) {
+        return history.getPoints(build).stream().map(Point::distance).collect(Collectors.toList());
+    }
+
+    private static void git(File directory, String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        Process process = new ProcessBuilder(command).directory(directory).inheritIO().start();
+        assertEquals(0, process.waitFor());
+    }
+
+    /**
+     * Compiles every source directory of the modules on its own, as the test sources do not declare packages,
+     * keeping the directory layout of the sources in the output directory.
+     */
+    private static void compileModules(File basedir) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File[] modules = basedir.listFiles(File::isDirectory);
+        assertNotNull(modules);
+        for (File module : modules) {
+            Path sourceDirectory = module.toPath().resolve("src/main/java");
+            Path outputDirectory = module.toPath().resolve("target/classes");
+            if (!Files.isDirectory(sourceDirectory)) {
+                continue;
+            }
+            Map<Path, List<String>> sourcesPerDirectory;
+            try (Stream<Path> sources = Files.walk(sourceDirectory)) {
+                sourcesPerDirectory = sources.filter(path -> path.toString().endsWith(".java"))
+                        .collect(Collectors.groupingBy(Path::getParent, Collectors.mapping(Path::toString, Collectors.toList())));
+            }
+            for (Map.Entry<Path, List<String>> sources : sourcesPerDirectory.entrySet()) {
+                List<String> arguments = new ArrayList<>();
+                arguments.add("-d");
+                arguments.add(outputDirectory.resolve(sourceDirectory.relativize(sources.getKey())).toString());
+                arguments.addAll(sources.getValue());
+                assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+            }
+        }
+    }
+
+    /**
+     * Compiles all the sources of every module at once, in the order of the module names, with the classes of the
+     * modules compiled before on the class path.
+     */
+    private static void compilePackagedModules(File basedir) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        File[] modules = basedir.listFiles(File::isDirectory);
+        assertNotNull(modules);
+        Arrays.sort(modules);
+        List<String> classPath = new ArrayList<>();
+        for (File module : modules) {
+            Path sourceDirectory = module.toPath().resolve("src/main/java");
+            Path outputDirectory = module.toPath().resolve("target/classes");
+            if (!Files.isDirectory(sourceDirectory)) {
+                continue;
+            }
+            List<String> arguments = new ArrayList<>();
+            arguments.add("-d");
+            arguments.add(outputDirectory.toString());
+            if (!classPath.isEmpty()) {
+                arguments.add("-cp");
+                arguments.add(String.join(File.pathSeparator, classPath));
+            }
+            try (Stream<Path> sources = Files.walk(sourceDirectory)) {
+                sources.map(Path::toString).filter(path -> path.endsWith(".java")).forEach(arguments::add);
+            }
+            assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+            classPath.add(outputDirectory.toString());
+        }
+    }
+
     protected MavenProject readMavenProject(File basedir)
             throws Exception {
         File pom = new File(basedir, "pom.xml");
@@ -0,0 +1,148 @@
+package com.github.ignatij;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Writes a synthetic multi-module project: a top-level aggregator with nested aggregators of modules,
+ * where every module depends on a few modules declared before it and contains a few source files
+ * of a realistic size, some of which are abstract.
+ */
+final class SyntheticProjectGenerator {
+
+    static final String GROUP_ID = "mk.jax.synthetic";
+
+    private static final String VERSION = "0.1";
+    private static final int MODULES_PER_GROUP = 20;
+    private static final int GROUPS_PER_AREA = 10;
+    private static final int MAX_DEPENDENCIES = 3;
+    private static final int MIN_CLASSES = 4;
+    private static final int MAX_CLASSES = 12;
+    private static final int MAX_METHODS = 12;
+
+    private final Random random;
+
+    private SyntheticProjectGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @return the POM file of the top-level aggregator
+     */
+    static Path generate(Path directory, int modules, long seed) throws IOException {
+        return new SyntheticProjectGenerator(seed).generate(directory, modules);
+    }
+
+    private Path generate(Path directory, int modules) throws IOException {
+        int groups = (modules + MODULES_PER_GROUP - 1) / MODULES_PER_GROUP;
+        int areas = (groups + GROUPS_PER_AREA - 1) / GROUPS_PER_AREA;
+
+        List<String> areaNames = new ArrayList<>();
+        for (int area = 0; area < areas; area++) {
+            List<String> groupNames = new ArrayList<>();
+            for (int group = area * GROUPS_PER_AREA; group < Math.min(groups, (area + 1) * GROUPS_PER_AREA); group++) {
+                List<String> moduleNames = new ArrayList<>();
+                for (int module = group * MODULES_PER_GROUP; module < Math.min(modules, (group + 1) * MODULES_PER_GROUP); module++) {
+                    Path moduleDirectory = directory.resolve("area" + area).resolve("group" + group).resolve("module" + module);
+                    writeModule(moduleDirectory, module);
+                    moduleNames.add("module" + module);
+                }
+                writeAggregator(directory.resolve("area" + area).resolve("group" + group), "group" + group, moduleNames);
+                groupNames.add("group" + group);
+            }
+            writeAggregator(directory.resolve("area" + area), "area" + area, groupNames);
+            areaNames.add("area" + area);
+        }
+        return writeAggregator(directory, "parent", areaNames);
+    }
+
+    private Path writeAggregator(Path directory, String artifactId, List<String> modules) throws IOException {
+        StringBuilder pom = pomHeader(artifactId).append("    <packaging>pom</packaging>\n\n    <modules>\n");
+        for (String module : modules) {
+            pom.append("        <module>").append(module).append("</module>\n");
+        }
+        pom.append("    </modules>\n\n</project>\n");
+        return write(directory.resolve("pom.xml"), pom);
+    }
+
+    private void writeModule(Path directory, int module) throws IOException {
+        Set<Integer> dependencies = new LinkedHashSet<>();
+        for (int i = 0; i < Math.min(module, MAX_DEPENDENCIES); i++) {
+            dependencies.add(random.nextInt(module));
+        }
+        StringBuilder pom = pomHeader("module" + module).append("\n    <dependencies>\n");
+        for (Integer dependency : dependencies) {
+            pom.append("        <dependency>\n")
+                    .append("            <groupId>").append(GROUP_ID).append("</groupId>\n")
+                    .append("            <artifactId>module").append(dependency).append("</artifactId>\n")
+                    .append("            <version>").append(VERSION).append("</version>\n")
+                    .append("        </dependency>\n");
+        }
+        pom.append("    </dependencies>\n\n</project>\n");
+        write(directory.resolve("pom.xml"), pom);
+
+        String packageName = "mk.jax.synthetic.module" + module;
+        Path sourceDirectory = directory.resolve("src/main/java").resolve(packageName.replace('.', '/'));
+        int classes = MIN_CLASSES + random.nextInt(MAX_CLASSES - MIN_CLASSES + 1);
+        for (int i = 0; i < classes; i++) {
+            String className = "Type" + i;
+            write(sourceDirectory.resolve(className + ".java"), source(packageName, className, random.nextInt(4)));
+        }
+    }
+
+    /**
+     * @param kind 0 for an interface, 1 for an abstract class, and a regular class otherwise
+     */
+    private StringBuilder source(String packageName, String className, int kind) {
+        StringBuilder source = new StringBuilder()
+                .append("package ").append(packageName).append(";\n\n")
+                .append("import java.util.ArrayList;\nimport java.util.List;\n\n")
+                .append("/**\n * Synthetic type ").append(className).append(".\n */\n");
+        if (kind == 0) {
+            source.append("public interface ").append(className).append(" {\n");
+        } else {
+            source.append(kind == 1 ? "public abstract class " : "public class ").append(className).append(" {\n\n")
+                    .append("    private final List<String> values = new ArrayList<>();\n");
+        }
+        int methods = 1 + random.nextInt(MAX_METHODS);
+        for (int i = 0; i < methods; i++) {
+            source.append("\n    /**\n     * Returns the value number ").append(i).append(" of the type.\n     */\n");
+            if (kind == 0) {
+                source.append("    String value").append(i).append("(int index);\n");
+            } else {
+                source.append("    public String value").append(i).append("(int index) {\n")
+                        .append("        if (index < 0 || index >= values.size()) {\n")
+                        .append("            return \"").append(className).append(i).append("\";\n")
+                        .append("        }\n")
+                        .append("        return values.get(index) + ").append(i).append(";\n")
+                        .append("    }\n");
+            }
+        }
+        return source.append("}\n");
+    }
+
+    private static StringBuilder pomHeader(String artifactId) {
+        return new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"\n")
+                .append("         xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n")
+                .append("         xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd\">\n")
+                .append("    <modelVersion>4.0.0</modelVersion>\n")
+                .append("    <groupId>").append(GROUP_ID).append("</groupId>\n")
+                .append("    <artifactId>").append(artifactId).append("</artifactId>\n")
+                .append("    <version>").append(VERSION).append("</version>\n");
+    }
+
+    private static Path write(Path file, CharSequence content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
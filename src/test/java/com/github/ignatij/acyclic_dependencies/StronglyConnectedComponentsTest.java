@@ -0,0 +1,148 @@
+package com.github.ignatij.acyclic_dependencies;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * The cycles found by the iterative Tarjan's algorithm, on graphs deep enough to overflow a recursive search and
+ * compared with the cycles found out of the transitive closure of small random graphs.
+ */
+public class StronglyConnectedComponentsTest extends TestCase {
+
+    private static final int CHAIN_LENGTH = 100_000;
+
+    public void testChainClosedIntoOneCycle() {
+        // given
+        int[][] dependencies = chain(CHAIN_LENGTH);
+        dependencies[CHAIN_LENGTH - 1] = new int[]{0};
+
+        // when
+        List<int[]> cycles = StronglyConnectedComponents.findCycles(dependencies);
+
+        // then
+        assertEquals(1, cycles.size());
+        assertEquals(CHAIN_LENGTH, cycles.get(0).length);
+        for (int i = 0; i < CHAIN_LENGTH; i++) {
+            assertEquals(i, cycles.get(0)[i]);
+        }
+    }
+
+    public void testChainWithoutCycles() {
+        // given
+        int[][] dependencies = chain(CHAIN_LENGTH);
+
+        // when
+        List<int[]> cycles = StronglyConnectedComponents.findCycles(dependencies);
+
+        // then
+        assertTrue(cycles.isEmpty());
+    }
+
+    public void testSelfLoops() {
+        // given
+        int[][] dependencies = {{0}, {2}, {2, 1, 1}, {}};
+
+        // when
+        List<int[]> cycles = StronglyConnectedComponents.findCycles(dependencies);
+
+        // then
+        assertEquals(List.of("[0]", "[1, 2]"), toStrings(cycles));
+    }
+
+    /**
+     * Cycles found in a different order than the order of their first components, as the search starts from
+     * component 0, which reaches the cycle of 5 and 6 before the cycle of 1, 2 and 3.
+     */
+    public void testSeveralCyclesOrderedByTheirFirstComponent() {
+        // given
+        int[][] dependencies = {
+                {5, 1},
+                {2},
+                {3},
+                {1, 4},
+                {4},
+                {6},
+                {5, 7},
+                {},
+        };
+
+        // when
+        List<int[]> cycles = StronglyConnectedComponents.findCycles(dependencies);
+
+        // then
+        assertEquals(List.of("[1, 2, 3]", "[4]", "[5, 6]"), toStrings(cycles));
+    }
+
+    public void testRandomGraphsMatchTheTransitiveClosure() {
+        Random random = new Random(19);
+        for (int graph = 0; graph < 200; graph++) {
+            // given
+            int size = 1 + random.nextInt(30);
+            int[][] dependencies = new int[size][];
+            for (int i = 0; i < size; i++) {
+                dependencies[i] = random.ints(random.nextInt(3), 0, size).toArray();
+            }
+
+            // when
+            List<int[]> cycles = StronglyConnectedComponents.findCycles(dependencies);
+
+            // then
+            assertEquals(Arrays.deepToString(dependencies), toStrings(cyclesOfTheTransitiveClosure(dependencies)), toStrings(cycles));
+        }
+    }
+
+    private static int[][] chain(int length) {
+        int[][] dependencies = new int[length][];
+        for (int i = 0; i < length - 1; i++) {
+            dependencies[i] = new int[]{i + 1};
+        }
+        dependencies[length - 1] = new int[0];
+        return dependencies;
+    }
+
+    /**
+     * Two components are in the same cycle when each reaches the other, and a component on its own is in a cycle
+     * when it reaches itself.
+     */
+    private static List<int[]> cyclesOfTheTransitiveClosure(int[][] dependencies) {
+        int size = dependencies.length;
+        boolean[][] reaches = new boolean[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int dependency : dependencies[i]) {
+                reaches[i][dependency] = true;
+            }
+        }
+        for (int k = 0; k < size; k++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    reaches[i][j] |= reaches[i][k] && reaches[k][j];
+                }
+            }
+        }
+        List<int[]> cycles = new ArrayList<>();
+        boolean[] assigned = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            if (assigned[i] || !reaches[i][i]) {
+                continue;
+            }
+            List<Integer> cycle = new ArrayList<>();
+            for (int j = i; j < size; j++) {
+                if (reaches[i][j] && reaches[j][i]) {
+                    cycle.add(j);
+                    assigned[j] = true;
+                }
+            }
+            cycles.add(cycle.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return cycles;
+    }
+
+    private static List<String> toStrings(List<int[]> cycles) {
+        return cycles.stream().map(Arrays::toString).collect(Collectors.toList());
+    }
+}
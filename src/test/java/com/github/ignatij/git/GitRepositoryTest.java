@@ -0,0 +1,232 @@
+package com.github.ignatij.git;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The revisions and the changed files read from the {@code .git} directory, compared with the ones of git itself.
+ */
+public class GitRepositoryTest extends TestCase {
+
+    private Path workTree;
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+        workTree = Files.createTempDirectory("git-repository").toRealPath();
+        Files.writeString(Files.createDirectories(workTree.resolve("module/src")).resolve("Test.java"), "public class Test {\n}\n");
+        git("init", "-q");
+        git("add", "-A");
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "initial");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown()
+            throws Exception {
+        super.tearDown();
+        try (Stream<Path> files = Files.walk(workTree)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    public void testAbbreviatedCommitId()
+            throws Exception {
+        // given
+        String commit = git("rev-parse", "HEAD");
+
+        // when
+        String resolved = GitRepository.find(workTree).get().resolve(commit.substring(0, 7).toUpperCase(Locale.ROOT) + "~0");
+
+        // then
+        assertEquals(commit, resolved);
+    }
+
+    public void testUnknownAbbreviatedCommitId()
+            throws Exception {
+        // given
+        String commit = git("rev-parse", "HEAD");
+        String unknownPrefix = (commit.charAt(0) == '0' ? "1" : "0") + commit.substring(1, 6);
+        GitRepository repository = GitRepository.find(workTree).get();
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> repository.resolve(unknownPrefix));
+
+        // then
+        assertEquals("Unknown revision " + unknownPrefix, exception.getMessage());
+    }
+
+    /**
+     * Two blobs whose ids start with the same 4 digits, found by hashing new contents until two of them collide.
+     */
+    public void testAmbiguousAbbreviatedId()
+            throws Exception {
+        // given
+        Map<String, String> contentPerPrefix = new HashMap<>();
+        String prefix = null;
+        for (int i = 0; prefix == null; i++) {
+            String content = "content " + i;
+            String contentPrefix = ObjectIds.ofBlob(content.getBytes(StandardCharsets.UTF_8)).substring(0, 4);
+            String previousContent = contentPerPrefix.put(contentPrefix, content);
+            if (previousContent != null) {
+                prefix = contentPrefix;
+                writeBlob(previousContent);
+                writeBlob(content);
+            }
+        }
+        GitRepository repository = GitRepository.find(workTree).get();
+        String ambiguousPrefix = prefix;
+
+        // when
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> repository.resolve(ambiguousPrefix));
+
+        // then
+        assertTrue(exception.getMessage().startsWith("Ambiguous revision " + prefix));
+    }
+
+    /**
+     * A repository whose objects were packed by {@code git gc}, with the later versions of the files stored as deltas
+     * against their base by offset, and an index in the version 4 with the paths compressed against each other.
+     */
+    public void testChangedFilesOfAPackedRepository()
+            throws Exception {
+        // given
+        commitSimilarFiles();
+        git("gc", "-q");
+        assertPacked();
+        git("update-index", "--index-version", "4");
+        changeWorkTree();
+
+        // when
+        GitRepository repository = GitRepository.find(workTree).get();
+
+        // then
+        assertEquals(4, getIndexVersion());
+        assertEquals(git("rev-parse", "HEAD~1"), repository.resolve(git("rev-parse", "--short", "HEAD~1")));
+        assertEquals(getDiffNames("HEAD~1"), repository.getChangedFiles("HEAD~1"));
+        assertEquals(getDiffNames("HEAD"), repository.getChangedFiles("HEAD"));
+    }
+
+    /**
+     * A repository repacked with the deltas referring to their base by id, and an index in the version 3 with the
+     * extended flags of a file added with the intent to add it.
+     */
+    public void testChangedFilesOfARepositoryPackedWithReferenceDeltas()
+            throws Exception {
+        // given
+        commitSimilarFiles();
+        git("-c", "repack.useDeltaBaseOffset=false", "repack", "-a", "-d", "-f", "-q");
+        git("prune-packed");
+        assertPacked();
+        changeWorkTree();
+        Files.writeString(workTree.resolve("module/src/Intended.java"), "public class Intended {\n}\n");
+        git("add", "-N", "module/src/Intended.java");
+
+        // when
+        GitRepository repository = GitRepository.find(workTree).get();
+
+        // then
+        assertEquals(3, getIndexVersion());
+        assertEquals(getDiffNames("HEAD~1"), repository.getChangedFiles("HEAD~1"));
+        assertEquals(getDiffNames("HEAD"), repository.getChangedFiles("HEAD"));
+    }
+
+    /**
+     * Commits files large enough to be stored as deltas, and a second version of some of them.
+     */
+    private void commitSimilarFiles() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < 200; line++) {
+            content.append("    // line ").append(line).append(" of a file large enough to be stored as a delta\n");
+        }
+        for (int i = 0; i < 10; i++) {
+            Files.writeString(workTree.resolve("module/src/Similar" + i + ".java"), "public class Similar" + i + " {\n" + content + "}\n");
+        }
+        git("add", "-A");
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "similar files");
+        for (int i = 0; i < 10; i += 2) {
+            Files.writeString(workTree.resolve("module/src/Similar" + i + ".java"), "public abstract class Similar" + i + " {\n" + content + "}\n");
+        }
+        git("add", "-A");
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "abstract files");
+    }
+
+    private void changeWorkTree() throws Exception {
+        Files.writeString(workTree.resolve("module/src/Similar1.java"), "public interface Similar1 {\n}\n");
+        Files.delete(workTree.resolve("module/src/Similar3.java"));
+        Files.writeString(workTree.resolve("module/src/Untracked.java"), "public class Untracked {\n}\n");
+    }
+
+    /**
+     * Checks that all the objects are in a pack, some of them stored as deltas.
+     */
+    private void assertPacked() throws Exception {
+        try (Stream<Path> packs = Files.list(workTree.resolve(".git/objects/pack"))) {
+            assertTrue(packs.anyMatch(file -> file.toString().endsWith(".pack")));
+        }
+        assertTrue(git("verify-pack", "-v", getPackIndex().toString()).contains("chain length = 1"));
+        assertTrue(git("count-objects").startsWith("0 objects"));
+    }
+
+    private Path getPackIndex() throws IOException {
+        try (Stream<Path> packs = Files.list(workTree.resolve(".git/objects/pack"))) {
+            return packs.filter(file -> file.toString().endsWith(".idx")).findFirst().orElseThrow();
+        }
+    }
+
+    private int getIndexVersion() throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(workTree.resolve(".git/index"))).getInt(4);
+    }
+
+    /**
+     * @return the absolute paths of the files listed by {@code git diff --name-only}
+     */
+    private Set<Path> getDiffNames(String revision) throws Exception {
+        return git("diff", "--name-only", revision).lines()
+                .map(workTree::resolve)
+                .collect(Collectors.toSet());
+    }
+
+    private void writeBlob(String content) throws Exception {
+        Path file = workTree.resolve("blob.txt");
+        Files.writeString(file, content);
+        git("hash-object", "-w", file.toString());
+        Files.delete(file);
+    }
+
+    /**
+     * @return the output of the git command, without the trailing line break
+     */
+    private String git(String... arguments) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(arguments));
+        Process process = new ProcessBuilder(command).directory(workTree.toFile()).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        assertEquals(output, 0, process.waitFor());
+        return output;
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.ignatij.history;
+
+import com.github.ignatij.statistic.DistanceStatistics;
+import com.github.ignatij.statistic.Point;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The builds appended to the history file, including after a build that was interrupted while being appended.
+ */
+public class MetricsHistoryTest extends TestCase {
+
+    private static final int RECORD_SIZE = 32;
+
+    private Path directory;
+    private File historyFile;
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("metrics-history");
+        historyFile = directory.resolve("history.bin").toFile();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown()
+            throws Exception {
+        super.tearDown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    public void testAppendedBuildsAreRead()
+            throws Exception {
+        // given
+        append(1L, new Point("api", 0.0, 1.0), new Point("core", 0.5, 0.0));
+
+        // when
+        append(2L, new Point("core", 1.0, 0.0), new Point("web", 1.0, 1.0));
+
+        // then
+        MetricsHistory history = MetricsHistory.read(historyFile);
+        assertEquals(2, history.size());
+        assertEquals(2L, history.getSummary(1).getTimestamp());
+        assertEquals(0.5, history.getDistance(0, "core").getAsDouble());
+        assertEquals(0.0, history.getDistance(1, "core").getAsDouble());
+        assertFalse(history.getDistance(1, "api").isPresent());
+        assertEquals(List.of(), history.getGrowingDistances(1));
+    }
+
+    /**
+     * A build whose component records were cut off is replaced by the next build, which ends the file.
+     */
+    public void testInterruptedBuildIsReplaced()
+            throws Exception {
+        // given
+        append(1L, new Point("api", 0.0, 1.0));
+        long completeLength = historyFile.length();
+        try (FileChannel channel = FileChannel.open(historyFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer interruptedBuild = ByteBuffer.allocate(RECORD_SIZE * 5);
+            interruptedBuild.putInt(-1).putInt(5);
+            channel.write((ByteBuffer) interruptedBuild.rewind());
+        }
+
+        // when
+        append(2L, new Point("api", 0.5, 1.0));
+
+        // then
+        MetricsHistory history = MetricsHistory.read(historyFile);
+        assertEquals(2, history.size());
+        assertEquals(2L, history.getSummary(1).getTimestamp());
+        assertEquals(0.5, history.getDistance(1, "api").getAsDouble());
+        assertEquals(completeLength + RECORD_SIZE * 3, historyFile.length());
+    }
+
+    /**
+     * A history file whose names file lost its last line refers to a name id past the names read.
+     */
+    public void testUnknownNameIdIsRejected()
+            throws Exception {
+        // given
+        append(1L, new Point("api", 0.0, 1.0), new Point("core", 0.5, 0.0));
+        Path namesFile = directory.resolve("history.bin.names");
+        Files.writeString(namesFile, "api\n");
+
+        // when
+        IOException exception = assertThrows(IOException.class, () -> MetricsHistory.read(historyFile));
+
+        // then
+        assertTrue(exception.getMessage().startsWith("Not a metrics history file"));
+    }
+
+    private void append(long timestamp, Point... points) throws Exception {
+        DistanceStatistics statistics = new DistanceStatistics();
+        for (Point point : points) {
+            statistics.add(point);
+        }
+        MetricsHistory.append(historyFile, timestamp, List.of(points), statistics);
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.ignatij.metric_engine;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The backward shift deletion of the set, on runs of values wrapping around the end of the slots, and on random
+ * additions and removals compared with a {@link HashSet}.
+ */
+public class LongSetTest extends TestCase {
+
+    // the slots of a new set, which is not grown up to 7 values
+    private static final int SLOTS = 16;
+
+    /**
+     * Three values with the last slot as their home slot, taking the last and the first two slots, followed by
+     * a value with the first slot as its home slot, which is moved back once the values before it are removed.
+     */
+    public void testRemoveWithinARunWrappingAround() {
+        // given
+        long[] lastSlotValues = valuesWithHomeSlot(SLOTS - 1, 3);
+        long firstSlotValue = valuesWithHomeSlot(0, 1)[0];
+        LongSet set = new LongSet();
+        for (long value : lastSlotValues) {
+            set.add(value);
+        }
+        set.add(firstSlotValue);
+
+        // when
+        assertTrue(set.remove(lastSlotValues[0]));
+        assertTrue(set.remove(lastSlotValues[2]));
+
+        // then
+        assertEquals(2, set.size());
+        assertFalse(set.contains(lastSlotValues[0]));
+        assertTrue(set.contains(lastSlotValues[1]));
+        assertFalse(set.contains(lastSlotValues[2]));
+        assertTrue(set.contains(firstSlotValue));
+        assertFalse(set.remove(lastSlotValues[0]));
+    }
+
+    /**
+     * A value in the first slot with the first slot as its home slot, which is not moved back to the last slot
+     * when the value in the last slot is removed.
+     */
+    public void testRemoveBeforeAValueAtItsHomeSlot() {
+        // given
+        long lastSlotValue = valuesWithHomeSlot(SLOTS - 1, 1)[0];
+        long[] firstSlotValues = valuesWithHomeSlot(0, 2);
+        LongSet set = new LongSet();
+        set.add(firstSlotValues[0]);
+        set.add(lastSlotValue);
+        set.add(firstSlotValues[1]);
+
+        // when
+        assertTrue(set.remove(lastSlotValue));
+        assertTrue(set.remove(firstSlotValues[0]));
+
+        // then
+        assertEquals(1, set.size());
+        assertTrue(set.contains(firstSlotValues[1]));
+        assertTrue(Arrays.equals(new long[]{firstSlotValues[1]}, set.toArray()));
+    }
+
+    public void testRandomAdditionsAndRemovals() {
+        Random random = new Random(23);
+        LongSet set = new LongSet();
+        Set<Long> expected = new HashSet<>();
+        for (int step = 0; step < 100_000; step++) {
+            // a small range of values, so the runs of values are long and the set grows and shrinks around them
+            long value = random.nextInt(step < 50_000 ? 64 : 4096);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+            assertEquals(expected.size(), set.size());
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+        long[] values = set.toArray();
+        Arrays.sort(values);
+        assertTrue(Arrays.equals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), values));
+    }
+
+    private static long[] valuesWithHomeSlot(int slot, int count) {
+        List<Long> values = new ArrayList<>();
+        for (long value = 0; values.size() < count; value++) {
+            if ((LongSet.mix(value) & (SLOTS - 1)) == slot) {
+                values.add(value);
+            }
+        }
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+}
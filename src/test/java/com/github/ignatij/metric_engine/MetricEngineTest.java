@@ -0,0 +1,217 @@
+package com.github.ignatij.metric_engine;
+
+import com.github.ignatij.graph.ModuleGraph;
+import com.github.ignatij.stable_dependencies.ComponentCoupling;
+import com.github.ignatij.stable_dependencies.StableDependenciesChecker;
+import com.github.ignatij.statistic.Point;
+import com.github.ignatij.violation.Violation;
+import com.github.ignatij.violation.ViolationCheckResult;
+import com.github.ignatij.violation.ViolationChecker;
+import com.github.ignatij.violation.exception.StableAbstractionsPrincipleViolation;
+import com.github.ignatij.violation.exception.StableDependenciesPrincipleViolation;
+import junit.framework.TestCase;
+import org.apache.maven.project.MavenProject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.github.ignatij.stable_abstractions.StableAbstractionsChecker.STABLE_ABSTRACTIONS_VIOLATION;
+import static com.github.ignatij.stable_dependencies.StableDependenciesChecker.STABLE_DEPENDENCIES_VIOLATION;
+
+/**
+ * Random changes replayed on the engine, where after every change the metrics and the violations of the engine
+ * are compared with the ones calculated from scratch on a module graph rebuilt out of the same modules.
+ */
+public class MetricEngineTest extends TestCase {
+
+    private static final String GROUP_ID = "mk.jax.test";
+
+    private final Random random = new Random(11);
+    // the dependencies of every module on the other modules, in the order the modules were added
+    private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+    private final Map<String, Long> externalDependencies = new LinkedHashMap<>();
+    private final Map<String, long[]> classCounts = new LinkedHashMap<>();
+    private final List<String> removedModules = new ArrayList<>();
+    private final MetricEngine engine = new MetricEngine();
+    private int nextModule;
+
+    public void testRandomChangesMatchTheRebuiltGraph() {
+        for (int step = 0; step < 3000; step++) {
+            // when
+            String change = applyRandomChange();
+
+            // then
+            assertMatchesTheRebuiltGraph(change);
+        }
+    }
+
+    public void testEngineOfAModuleGraph() {
+        // given
+        for (int i = 0; i < 40; i++) {
+            addModule();
+        }
+        for (int i = 0; i < 120; i++) {
+            addDependency();
+        }
+        for (String module : dependencies.keySet()) {
+            externalDependencies.put(module, (long) random.nextInt(3));
+        }
+
+        ModuleGraph moduleGraph = createModuleGraph();
+
+        // when
+        MetricEngine graphEngine = MetricEngine.of(moduleGraph);
+
+        // then
+        List<Point> points = graphEngine.getPoints();
+        ComponentCoupling[] couplings = new StableDependenciesChecker(moduleGraph).calculateCouplings();
+        assertEquals(new ArrayList<>(dependencies.keySet()), points.stream().map(Point::getComponent).collect(Collectors.toList()));
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(couplings[i].getAfferentCouplings(), points.get(i).getAfferentCouplings());
+            assertEquals(couplings[i].getEfferentCouplings(), points.get(i).getEfferentCouplings());
+        }
+    }
+
+    private String applyRandomChange() {
+        int change = random.nextInt(100);
+        if (dependencies.size() < 2 || change < 10) {
+            return addModule();
+        }
+        if (change < 15) {
+            String module = randomModule();
+            engine.removeModule(module);
+            dependencies.remove(module);
+            dependencies.values().forEach(moduleDependencies -> moduleDependencies.remove(module));
+            externalDependencies.remove(module);
+            classCounts.remove(module);
+            removedModules.add(module);
+            return "remove module " + module;
+        }
+        if (change < 55) {
+            return addDependency();
+        }
+        if (change < 75) {
+            String outer = randomModule();
+            String inner = randomModule();
+            engine.removeDependency(outer, inner);
+            dependencies.get(outer).remove(inner);
+            return "remove dependency " + outer + " -> " + inner;
+        }
+        if (change < 85) {
+            String module = randomModule();
+            long count = random.nextInt(3);
+            engine.setExternalDependencies(module, count);
+            externalDependencies.put(module, count);
+            return "set external dependencies " + module + " " + count;
+        }
+        String module = randomModule();
+        long abstractClasses = random.nextInt(4);
+        long concreteClasses = random.nextInt(4);
+        engine.setClassCounts(module, abstractClasses, concreteClasses);
+        classCounts.put(module, new long[]{abstractClasses, concreteClasses});
+        return "set class counts " + module + " " + abstractClasses + "/" + concreteClasses;
+    }
+
+    /**
+     * Adds a new module, or one of the removed modules again.
+     */
+    private String addModule() {
+        String module = !removedModules.isEmpty() && random.nextBoolean()
+                ? removedModules.remove(random.nextInt(removedModules.size()))
+                : "module" + nextModule++;
+        engine.addModule(module);
+        dependencies.put(module, new LinkedHashSet<>());
+        return "add module " + module;
+    }
+
+    private String addDependency() {
+        String outer = randomModule();
+        String inner = randomModule();
+        if (outer.equals(inner)) {
+            return "no change";
+        }
+        engine.addDependency(outer, inner);
+        dependencies.get(outer).add(inner);
+        return "add dependency " + outer + " -> " + inner;
+    }
+
+    private String randomModule() {
+        List<String> modules = new ArrayList<>(dependencies.keySet());
+        return modules.get(random.nextInt(modules.size()));
+    }
+
+    private void assertMatchesTheRebuiltGraph(String change) {
+        ModuleGraph moduleGraph = createModuleGraph();
+        ComponentCoupling[] couplings = new StableDependenciesChecker(moduleGraph).calculateCouplings();
+        double[] instability = new StableDependenciesChecker(moduleGraph).checkDependencies();
+        double[] abstraction = new double[moduleGraph.size()];
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            long[] counts = classCounts.getOrDefault(moduleGraph.getModule(i).getName(), new long[2]);
+            abstraction[i] = counts[0] == 0 && counts[1] == 0 ? 0 : (double) counts[0] / (counts[0] + counts[1]);
+        }
+
+        List<Point> points = engine.getPoints();
+        assertEquals(change, moduleGraph.size(), points.size());
+        for (int i = 0; i < moduleGraph.size(); i++) {
+            String module = moduleGraph.getModule(i).getName();
+            Point point = points.get(i);
+            assertEquals(change, module, point.getComponent());
+            assertEquals(change + ": " + module, couplings[i].getAfferentCouplings(), point.getAfferentCouplings());
+            assertEquals(change + ": " + module, couplings[i].getEfferentCouplings(), point.getEfferentCouplings());
+            assertEquals(change + ": " + module, instability[i], engine.getInstability(module));
+            assertEquals(change + ": " + module, abstraction[i], engine.getAbstraction(module));
+            assertEquals(change + ": " + module, Math.abs(abstraction[i] + instability[i] - 1), engine.getDistance(module));
+        }
+        assertEquals(change, toStrings(new ViolationChecker(StableDependenciesPrincipleViolation.class)
+                        .findViolations(moduleGraph, instability, STABLE_DEPENDENCIES_VIOLATION)),
+                toStrings(engine.getStableDependenciesViolations()));
+        assertEquals(change, toStrings(new ViolationChecker(StableAbstractionsPrincipleViolation.class)
+                        .findViolations(moduleGraph, abstraction, STABLE_ABSTRACTIONS_VIOLATION)),
+                toStrings(engine.getStableAbstractionsViolations()));
+    }
+
+    /**
+     * @return the graph of the modules, where the external dependencies are on artifacts that are not modules
+     */
+    private ModuleGraph createModuleGraph() {
+        Map<MavenProject, List<String>> projectGraph = new LinkedHashMap<>();
+        dependencies.forEach((module, moduleDependencies) -> {
+            List<String> artifactIds = new ArrayList<>(moduleDependencies);
+            for (long i = 0; i < externalDependencies.getOrDefault(module, 0L); i++) {
+                artifactIds.add("external" + i);
+            }
+            projectGraph.put(createModule(module), artifactIds);
+        });
+        return ModuleGraph.of(projectGraph);
+    }
+
+    private static MavenProject createModule(String name) {
+        MavenProject module = new MavenProject();
+        module.setGroupId(GROUP_ID);
+        module.setArtifactId(name);
+        module.setVersion("1.0");
+        module.setName(name);
+        return module;
+    }
+
+    /**
+     * @return the violations sorted by their components, as the engine and the checker find them in a different order
+     */
+    private static List<String> toStrings(ViolationCheckResult result) {
+        return result.getViolations().stream()
+                .map(MetricEngineTest::toString)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static String toString(Violation violation) {
+        return violation.getOuterComponent() + " -> " + violation.getInnerComponent()
+                + " (" + violation.getOuterMetric() + ", " + violation.getInnerMetric() + ")";
+    }
+}
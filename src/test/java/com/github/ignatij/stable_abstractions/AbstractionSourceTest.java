@@ -0,0 +1,92 @@
+package com.github.ignatij.stable_abstractions;
+
+import junit.framework.TestCase;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The classes compiled by javac from a single source file, where only the anonymous and local classes are left out of
+ * the count, as javac does not flag them as synthetic.
+ */
+public class AbstractionSourceTest extends TestCase {
+
+    private Path directory;
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("abstraction-source");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown()
+            throws Exception {
+        super.tearDown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * The source file counts once, as an abstract file, while its compiled classes count as the outer class and its
+     * member interface.
+     */
+    public void testAnonymousAndLocalClassesAreIgnored()
+            throws Exception {
+        // given
+        Path sourceFile = directory.resolve("Outer.java");
+        Files.writeString(sourceFile, "public class Outer {\n"
+                + "    interface Member {\n"
+                + "    }\n"
+                + "    Runnable anonymous() {\n"
+                + "        return new Runnable() {\n"
+                + "            public void run() {\n"
+                + "            }\n"
+                + "        };\n"
+                + "    }\n"
+                + "    Object local() {\n"
+                + "        class Local {\n"
+                + "            class Nested {\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return new Local();\n"
+                + "    }\n"
+                + "}\n");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, "-d", directory.toString(), sourceFile.toString()));
+
+        // when
+        Map<String, FileClassification> classifications = new TreeMap<>();
+        try (Stream<Path> classFiles = Files.list(directory)) {
+            for (Path classFile : classFiles.filter(file -> file.toString().endsWith(".class")).collect(Collectors.toList())) {
+                classifications.put(classFile.getFileName().toString(), AbstractionSource.BYTECODE.classify(classFile, bytes -> {
+                }));
+            }
+        }
+
+        // then
+        assertEquals(FileClassification.ABSTRACT, AbstractionSource.SOURCE.classify(sourceFile, bytes -> {
+        }));
+        assertEquals(Map.of(
+                "Outer.class", FileClassification.REGULAR,
+                "Outer$Member.class", FileClassification.ABSTRACT,
+                "Outer$1.class", FileClassification.IGNORED,
+                "Outer$1Local.class", FileClassification.IGNORED,
+                "Outer$1Local$Nested.class", FileClassification.IGNORED), classifications);
+    }
+}
@@ -0,0 +1,204 @@
+package com.github.ignatij.stable_abstractions;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The classification of a file is reused from the cache file of the previous run as long as the size and
+ * the modification time of the file stay the same.
+ */
+public class ClassificationCacheTest extends TestCase {
+
+    private Path directory;
+    private Path sourceFile;
+    private File cacheFile;
+    private final AtomicInteger classifications = new AtomicInteger();
+    private final ClassificationCache.Classifier classifier = file -> {
+        classifications.incrementAndGet();
+        return FileClassification.ABSTRACT;
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+        directory = Files.createTempDirectory("classification-cache");
+        sourceFile = Files.writeString(directory.resolve("Test.java"), "public interface Test {\n}\n");
+        Files.setLastModifiedTime(sourceFile, FileTime.fromMillis(1_600_000_000_000L));
+        cacheFile = directory.resolve("cache.bin").toFile();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown()
+            throws Exception {
+        super.tearDown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    public void testUnchangedFileIsNotClassifiedAgain()
+            throws Exception {
+        // given
+        classifyAndSave();
+
+        // when
+        FileClassification classification = ClassificationCache.load(cacheFile).classify(sourceFile, classifier);
+
+        // then
+        assertEquals(FileClassification.ABSTRACT, classification);
+        assertEquals(1, classifications.get());
+    }
+
+    public void testFileIsClassifiedOncePerRun()
+            throws Exception {
+        // given
+        ClassificationCache cache = ClassificationCache.empty();
+
+        // when
+        cache.classify(sourceFile, classifier);
+        cache.classify(directory.resolve(".").resolve("Test.java"), classifier);
+
+        // then
+        assertEquals(1, classifications.get());
+    }
+
+    public void testFileWithChangedSizeIsClassifiedAgain()
+            throws Exception {
+        // given
+        classifyAndSave();
+        Files.writeString(sourceFile, "public class Test {\n}\n");
+        Files.setLastModifiedTime(sourceFile, FileTime.fromMillis(1_600_000_000_000L));
+
+        // when
+        ClassificationCache.load(cacheFile).classify(sourceFile, classifier);
+
+        // then
+        assertEquals(2, classifications.get());
+    }
+
+    public void testFileWithChangedModificationTimeIsClassifiedAgain()
+            throws Exception {
+        // given
+        classifyAndSave();
+        Files.setLastModifiedTime(sourceFile, FileTime.fromMillis(1_600_000_001_000L));
+
+        // when
+        ClassificationCache.load(cacheFile).classify(sourceFile, classifier);
+
+        // then
+        assertEquals(2, classifications.get());
+    }
+
+    public void testTruncatedCacheFileStartsWithAnEmptyCache()
+            throws Exception {
+        // given
+        classifyAndSave();
+        byte[] content = Files.readAllBytes(cacheFile.toPath());
+        Files.write(cacheFile.toPath(), Arrays.copyOf(content, content.length - 5));
+
+        // when
+        ClassificationCache.load(cacheFile).classify(sourceFile, classifier);
+
+        // then
+        assertEquals(2, classifications.get());
+    }
+
+    public void testCorruptCacheFileStartsWithAnEmptyCache()
+            throws Exception {
+        // given
+        Files.writeString(cacheFile.toPath(), "not a cache file");
+
+        // when
+        ClassificationCache.load(cacheFile).classify(sourceFile, classifier);
+
+        // then
+        assertEquals(1, classifications.get());
+    }
+
+    /**
+     * A run scanning only some modules keeps the entries of the files of the other modules in the cache file,
+     * and drops the entries of the files of the scanned modules that were not classified.
+     */
+    public void testPreviousEntriesUnderKeptRootsAreSaved()
+            throws Exception {
+        // given
+        Path scannedRoot = Files.createDirectories(directory.resolve("scanned"));
+        Path skippedRoot = Files.createDirectories(directory.resolve("skipped"));
+        Path scannedFile = Files.writeString(scannedRoot.resolve("Scanned.java"), "public class Scanned {\n}\n");
+        Path deletedFile = Files.writeString(scannedRoot.resolve("Deleted.java"), "public class Deleted {\n}\n");
+        Path skippedFile = Files.writeString(Files.createDirectories(skippedRoot.resolve("nested")).resolve("Skipped.java"), "public class Skipped {\n}\n");
+        ClassificationCache firstRun = ClassificationCache.empty();
+        for (Path file : new Path[]{scannedFile, deletedFile, skippedFile}) {
+            firstRun.classify(file, classifier);
+        }
+        firstRun.save(cacheFile);
+        ClassificationCache secondRun = ClassificationCache.load(cacheFile);
+        secondRun.classify(scannedFile, classifier);
+        secondRun.keepPreviousEntries(List.of(skippedRoot.toString()));
+
+        // when
+        secondRun.save(cacheFile);
+
+        // then
+        ClassificationCache thirdRun = ClassificationCache.load(cacheFile);
+        thirdRun.classify(scannedFile, classifier);
+        thirdRun.classify(skippedFile, classifier);
+        assertEquals(3, classifications.get());
+        thirdRun.classify(deletedFile, classifier);
+        assertEquals(4, classifications.get());
+    }
+
+    /**
+     * The cache kept in memory for the next run drops the same entries as the saved cache, so it only holds the files
+     * of the current tree in a long-lived JVM.
+     */
+    public void testPreviousEntriesUnderKeptRootsAreKeptForTheNextRun()
+            throws Exception {
+        // given
+        Path scannedRoot = Files.createDirectories(directory.resolve("scanned"));
+        Path skippedRoot = Files.createDirectories(directory.resolve("skipped"));
+        Path scannedFile = Files.writeString(scannedRoot.resolve("Scanned.java"), "public class Scanned {\n}\n");
+        Path deletedFile = Files.writeString(scannedRoot.resolve("Deleted.java"), "public class Deleted {\n}\n");
+        Path skippedFile = Files.writeString(skippedRoot.resolve("Skipped.java"), "public class Skipped {\n}\n");
+        ClassificationCache firstRun = ClassificationCache.empty();
+        for (Path file : new Path[]{scannedFile, deletedFile, skippedFile}) {
+            firstRun.classify(file, classifier);
+        }
+        ClassificationCache secondRun = firstRun.nextRun();
+        secondRun.classify(scannedFile, classifier);
+        secondRun.keepPreviousEntries(List.of(skippedRoot.toString()));
+
+        // when
+        ClassificationCache thirdRun = secondRun.nextRun();
+
+        // then
+        thirdRun.classify(scannedFile, classifier);
+        thirdRun.classify(skippedFile, classifier);
+        assertEquals(3, classifications.get());
+        thirdRun.classify(deletedFile, classifier);
+        assertEquals(4, classifications.get());
+    }
+
+    private void classifyAndSave() throws Exception {
+        ClassificationCache cache = ClassificationCache.empty();
+        cache.classify(sourceFile, classifier);
+        cache.save(cacheFile);
+    }
+}
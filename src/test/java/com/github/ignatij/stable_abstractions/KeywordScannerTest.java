@@ -0,0 +1,119 @@
+package com.github.ignatij.stable_abstractions;
+
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.ignatij.stable_abstractions.KeywordScanner.BUFFER_SIZE;
+
+/**
+ * The keywords spanning the boundary between two chunks of a file, which are only found through the bytes
+ * carried over from one chunk to the next one.
+ */
+public class KeywordScannerTest extends TestCase {
+
+    private static final String KEYWORD = "interface";
+
+    private final KeywordScanner scanner = new KeywordScanner("abstract", KEYWORD);
+    private Path file;
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void setUp()
+            throws Exception {
+        super.setUp();
+        file = Files.createTempFile("keyword-scanner", ".java");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown()
+            throws Exception {
+        super.tearDown();
+        Files.delete(file);
+    }
+
+    public void testKeywordAcrossTheFirstChunkBoundary()
+            throws Exception {
+        // given
+        write(BUFFER_SIZE * 2, BUFFER_SIZE - 3);
+        AtomicLong bytesRead = new AtomicLong();
+
+        // when
+        boolean found = scanner.containsAny(file, bytesRead::addAndGet);
+
+        // then
+        assertTrue(found);
+        assertTrue(bytesRead.get() > BUFFER_SIZE);
+    }
+
+    /**
+     * The second chunk starts with the carried-over tail of the first one, so its boundary is that much earlier
+     * in the file.
+     */
+    public void testKeywordAcrossTheSecondChunkBoundary()
+            throws Exception {
+        // given
+        int secondBoundary = 2 * BUFFER_SIZE - (KEYWORD.length() - 1);
+        write(BUFFER_SIZE * 3, secondBoundary - 3);
+
+        // when
+        boolean found = scanner.containsAny(file, read -> {
+        });
+
+        // then
+        assertTrue(found);
+    }
+
+    public void testKeywordAtTheEndOfTheFile()
+            throws Exception {
+        // given
+        write(BUFFER_SIZE + 5, BUFFER_SIZE + 5 - KEYWORD.length());
+
+        // when
+        boolean found = scanner.containsAny(file, read -> {
+        });
+
+        // then
+        assertTrue(found);
+    }
+
+    /**
+     * A prefix of the keyword at the end of a chunk, which is not followed by the rest of the keyword.
+     */
+    public void testPartialKeywordAcrossTheChunkBoundary()
+            throws Exception {
+        // given
+        byte[] content = filler(BUFFER_SIZE * 2);
+        byte[] prefix = KEYWORD.substring(0, 6).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(prefix, 0, content, BUFFER_SIZE - 3, prefix.length);
+        Files.write(file, content);
+        AtomicLong bytesRead = new AtomicLong();
+
+        // when
+        boolean found = scanner.containsAny(file, bytesRead::addAndGet);
+
+        // then
+        assertFalse(found);
+        assertEquals(BUFFER_SIZE * 2, bytesRead.get());
+    }
+
+    private void write(int size, int keywordOffset) throws Exception {
+        byte[] content = filler(size);
+        byte[] keyword = KEYWORD.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(keyword, 0, content, keywordOffset, keyword.length);
+        Files.write(file, content);
+    }
+
+    private static byte[] filler(int size) {
+        byte[] content = new byte[size];
+        Arrays.fill(content, (byte) 'x');
+        return content;
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.ignatij.statistic;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.github.ignatij.statistic.QuantileSketch.BINS;
+
+/**
+ * The single-pass statistics, sequential, merged from partitions and summarized in parallel, compared with
+ * the mean and the variance calculated in two passes and the quantiles of the sorted distances.
+ */
+public class DistanceStatisticsTest extends TestCase {
+
+    private static final double TOLERANCE = 1e-12;
+    private static final double HALF_BIN_WIDTH = 0.5 / BINS;
+
+    private final Random random = new Random(7);
+
+    public void testStatisticsOfNoPoints() {
+        // when
+        DistanceStatistics statistics = StatisticUtil.summarize(List.of());
+
+        // then
+        assertEquals(0, statistics.getCount());
+        assertTrue(Double.isNaN(statistics.getMean()));
+        assertTrue(Double.isNaN(statistics.getVariance()));
+        assertTrue(Double.isNaN(statistics.getMedian()));
+    }
+
+    public void testSequentialStatistics() {
+        // given
+        List<Point> points = randomPoints(1000);
+
+        // when
+        DistanceStatistics statistics = StatisticUtil.summarize(points);
+
+        // then
+        assertStatistics(points, statistics, 0);
+    }
+
+    /**
+     * Partitions of uneven sizes, including an empty one, merged with Chan's formula for the combined variance.
+     */
+    public void testMergedStatistics() {
+        // given
+        List<Point> points = randomPoints(20_000);
+        int[] boundaries = {0, 1, 1, 17, 5000, 5001, 19_000, 20_000};
+
+        // when
+        DistanceStatistics statistics = new DistanceStatistics();
+        for (int i = 1; i < boundaries.length; i++) {
+            DistanceStatistics partition = new DistanceStatistics();
+            for (Point point : points.subList(boundaries[i - 1], boundaries[i])) {
+                partition.add(point);
+            }
+            statistics.merge(partition);
+        }
+
+        // then
+        assertStatistics(points, statistics, HALF_BIN_WIDTH);
+    }
+
+    public void testParallelStatistics() {
+        for (int size : new int[]{10_000, 100_000}) {
+            // given
+            List<Point> points = randomPoints(size);
+
+            // when
+            DistanceStatistics statistics = StatisticUtil.summarize(points);
+
+            // then
+            assertStatistics(points, statistics, HALF_BIN_WIDTH);
+        }
+    }
+
+    private List<Point> randomPoints(int size) {
+        List<Point> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(new Point("module" + i, random.nextDouble(), random.nextDouble()));
+        }
+        return points;
+    }
+
+    private static void assertStatistics(List<Point> points, DistanceStatistics statistics, double quantileTolerance) {
+        double[] distances = points.stream().mapToDouble(Point::distance).toArray();
+        double mean = Arrays.stream(distances).sum() / distances.length;
+        double variance = Arrays.stream(distances).map(distance -> (distance - mean) * (distance - mean)).sum() / distances.length;
+        Arrays.sort(distances);
+
+        assertEquals(points.size(), statistics.getCount());
+        assertEquals(mean, statistics.getMean(), TOLERANCE);
+        assertEquals(variance, statistics.getVariance(), TOLERANCE);
+        assertEquals(Math.sqrt(variance), statistics.getStandardDeviation(), TOLERANCE);
+        for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+            double exact = distances[(int) Math.ceil(quantile * distances.length) - 1];
+            assertEquals("quantile " + quantile, exact, statistics.getQuantile(quantile), quantileTolerance);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.ignatij.statistic;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.github.ignatij.statistic.QuantileSketch.BINS;
+import static com.github.ignatij.statistic.QuantileSketch.EXACT_CAPACITY;
+
+/**
+ * The quantiles of the sketch compared with the quantiles of the sorted values, which are the same up to
+ * {@link QuantileSketch#EXACT_CAPACITY} values and off by at most half a bin width beyond that.
+ */
+public class QuantileSketchTest extends TestCase {
+
+    private static final double[] QUANTILES = {0.0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.99, 1.0};
+    private static final double HALF_BIN_WIDTH = 0.5 / BINS;
+
+    private final Random random = new Random(42);
+
+    public void testQuantilesOfNoValues() {
+        // given
+        QuantileSketch sketch = new QuantileSketch(0, 1);
+
+        // when
+        sketch.merge(new QuantileSketch(0, 1));
+
+        // then
+        assertEquals(0, sketch.getCount());
+        assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+    }
+
+    public void testExactQuantilesUpToTheCapacity() {
+        // given
+        double[] values = randomValues(EXACT_CAPACITY);
+
+        // when
+        QuantileSketch sketch = sketchOf(values);
+
+        // then
+        assertQuantiles(values, sketch, 0);
+    }
+
+    public void testBinnedQuantilesBeyondTheCapacity() {
+        for (int size : new int[]{EXACT_CAPACITY + 1, 50_000}) {
+            // given
+            double[] values = randomValues(size);
+
+            // when
+            QuantileSketch sketch = sketchOf(values);
+
+            // then
+            assertQuantiles(values, sketch, HALF_BIN_WIDTH);
+        }
+    }
+
+    public void testMergeOfExactSketchesWithinTheCapacity() {
+        // given
+        double[] first = randomValues(EXACT_CAPACITY / 2);
+        double[] second = randomValues(EXACT_CAPACITY / 2);
+
+        // when
+        QuantileSketch sketch = sketchOf(first).merge(sketchOf(second));
+
+        // then
+        assertQuantiles(concat(first, second), sketch, 0);
+    }
+
+    public void testMergeOfExactSketchesBeyondTheCapacity() {
+        // given
+        double[] first = randomValues(EXACT_CAPACITY - 10);
+        double[] second = randomValues(EXACT_CAPACITY - 10);
+
+        // when
+        QuantileSketch sketch = sketchOf(first).merge(sketchOf(second));
+
+        // then
+        assertQuantiles(concat(first, second), sketch, HALF_BIN_WIDTH);
+    }
+
+    public void testMergeOfExactAndBinnedSketches() {
+        // given
+        double[] exact = randomValues(1000);
+        double[] binned = randomValues(3 * EXACT_CAPACITY);
+
+        // when
+        QuantileSketch exactIntoBinned = sketchOf(binned).merge(sketchOf(exact));
+        QuantileSketch binnedIntoExact = sketchOf(exact).merge(sketchOf(binned));
+
+        // then
+        double[] values = concat(exact, binned);
+        assertQuantiles(values, exactIntoBinned, HALF_BIN_WIDTH);
+        assertQuantiles(values, binnedIntoExact, HALF_BIN_WIDTH);
+    }
+
+    public void testMergeOfBinnedSketches() {
+        // given
+        double[] first = randomValues(2 * EXACT_CAPACITY);
+        double[] second = skewedValues(5 * EXACT_CAPACITY);
+
+        // when
+        QuantileSketch sketch = sketchOf(first).merge(sketchOf(second));
+
+        // then
+        assertQuantiles(concat(first, second), sketch, HALF_BIN_WIDTH);
+    }
+
+    private double[] randomValues(int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextDouble();
+        }
+        return values;
+    }
+
+    /**
+     * Most of the values close to zero, as the distances of most modules from the main sequence are.
+     */
+    private double[] skewedValues(int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.pow(random.nextDouble(), 4);
+        }
+        return values;
+    }
+
+    private static QuantileSketch sketchOf(double[] values) {
+        QuantileSketch sketch = new QuantileSketch(0, 1);
+        for (double value : values) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+
+    private static double[] concat(double[] first, double[] second) {
+        double[] values = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, values, first.length, second.length);
+        return values;
+    }
+
+    private static void assertQuantiles(double[] values, QuantileSketch sketch, double tolerance) {
+        assertEquals(values.length, sketch.getCount());
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double quantile : QUANTILES) {
+            double exact = sorted[(int) Math.max(1, Math.ceil(quantile * sorted.length)) - 1];
+            assertEquals(String.format("quantile %s of %d values", quantile, values.length), exact, sketch.getQuantile(quantile), tolerance);
+        }
+    }
+}
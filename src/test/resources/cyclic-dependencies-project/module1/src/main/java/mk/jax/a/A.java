@@ -0,0 +1,7 @@
+package mk.jax.a;
+
+import mk.jax.b.B;
+
+public class A {
+    private B b;
+}
@@ -0,0 +1,7 @@
+package mk.jax.b;
+
+import mk.jax.a.A;
+
+public class B {
+    private A a;
+}
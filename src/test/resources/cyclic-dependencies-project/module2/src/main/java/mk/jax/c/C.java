@@ -0,0 +1,4 @@
+package mk.jax.c;
+
+public class C {
+}
@@ -0,0 +1,5 @@
+package mk.jax.app1;
+
+public class App1 {
+
+}
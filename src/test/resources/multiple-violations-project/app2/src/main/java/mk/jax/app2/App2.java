@@ -0,0 +1,5 @@
+package mk.jax.app2;
+
+public class App2 {
+
+}
@@ -0,0 +1,5 @@
+package mk.jax.base1;
+
+public class Base1 {
+
+}
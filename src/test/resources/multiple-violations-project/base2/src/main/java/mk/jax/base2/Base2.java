@@ -0,0 +1,5 @@
+package mk.jax.base2;
+
+public class Base2 {
+
+}
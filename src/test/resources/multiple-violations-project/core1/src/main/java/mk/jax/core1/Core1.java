@@ -0,0 +1,5 @@
+package mk.jax.core1;
+
+public class Core1 {
+
+}
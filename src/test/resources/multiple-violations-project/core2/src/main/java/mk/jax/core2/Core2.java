@@ -0,0 +1,5 @@
+package mk.jax.core2;
+
+public class Core2 {
+
+}
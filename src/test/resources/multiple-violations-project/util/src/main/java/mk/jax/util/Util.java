@@ -0,0 +1,5 @@
+package mk.jax.util;
+
+public class Util {
+
+}
@@ -0,0 +1,5 @@
+package mk.jax.api;
+
+public abstract class AbstractService implements Service {
+    protected abstract String name();
+}
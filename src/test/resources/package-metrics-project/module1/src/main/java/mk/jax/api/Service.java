@@ -0,0 +1,5 @@
+package mk.jax.api;
+
+public interface Service {
+    String serve(String request);
+}
@@ -0,0 +1,14 @@
+package mk.jax.format;
+
+import mk.jax.api.Service;
+import mk.jax.model.Model;
+
+public class Formatter {
+    private final Model prefix = new Model("> ");
+    private Service service;
+
+    public String format(String value) {
+        String formatted = prefix.getValue() + value;
+        return service == null ? formatted : service.serve(formatted);
+    }
+}
@@ -0,0 +1,13 @@
+package mk.jax.model;
+
+public class Model {
+    private final String value;
+
+    public Model(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,11 @@
+package mk.jax.util;
+
+import mk.jax.format.Formatter;
+
+public class Strings {
+    private static final Formatter FORMATTER = new Formatter();
+
+    public static String format(String value) {
+        return FORMATTER.format(value);
+    }
+}
@@ -0,0 +1,16 @@
+package mk.jax.impl;
+
+import mk.jax.api.AbstractService;
+import mk.jax.util.Strings;
+
+public class DefaultService extends AbstractService {
+    @Override
+    public String serve(String request) {
+        return Strings.format(request);
+    }
+
+    @Override
+    protected String name() {
+        return "default";
+    }
+}
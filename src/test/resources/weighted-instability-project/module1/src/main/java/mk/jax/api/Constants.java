@@ -0,0 +1,5 @@
+package mk.jax.api;
+
+public class Constants {
+    public static final String PREFIX = "> ";
+}
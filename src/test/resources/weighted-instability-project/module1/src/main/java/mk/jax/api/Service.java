@@ -0,0 +1,5 @@
+package mk.jax.api;
+
+public interface Service {
+    Model serve(String request);
+}
@@ -0,0 +1,15 @@
+package mk.jax.impl;
+
+import mk.jax.api.Model;
+import mk.jax.api.Service;
+
+public class DefaultService implements Service {
+    @Override
+    public Model serve(String request) {
+        return new Model(request);
+    }
+
+    public String describe() {
+        return "default";
+    }
+}
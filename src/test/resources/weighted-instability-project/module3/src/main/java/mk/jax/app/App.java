@@ -0,0 +1,11 @@
+package mk.jax.app;
+
+import mk.jax.api.Constants;
+import mk.jax.impl.DefaultService;
+
+public class App {
+    public static void main(String[] args) {
+        // the constant is inlined by the compiler, so module3 does not use any class of module1
+        System.out.println(Constants.PREFIX + new DefaultService().describe());
+    }
+}